@@ -0,0 +1,74 @@
+package com.example.calculator.columnar;
+
+import com.example.calculator.service.CalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+// 1列（LENGTH行）あたりのスループット。calculate のループとカーネルを比較する
+@State(Scope.Benchmark)
+public class ArithmeticKernelBenchmark {
+
+    private static final int LENGTH = 4096;
+
+    @Param({"+", "*", "/"})
+    private String operation;
+
+    private final ArithmeticKernel vector = ArithmeticKernel.best();
+    private final ArithmeticKernel scalar = ArithmeticKernel.scalar();
+    private CalculatorService calculatorService;
+
+    private double[] first;
+    private double[] second;
+    private double[] result;
+    private byte[] status;
+    private BigDecimal[] firstDecimals;
+    private BigDecimal[] secondDecimals;
+
+    @Setup
+    public void setUp() {
+        calculatorService = new CalculatorService();
+        Random random = new Random(42);
+        first = new double[LENGTH];
+        second = new double[LENGTH];
+        result = new double[LENGTH];
+        status = new byte[LENGTH];
+        firstDecimals = new BigDecimal[LENGTH];
+        secondDecimals = new BigDecimal[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            first[i] = Math.round(random.nextDouble() * 1_000_000) / 100.0;
+            second[i] = Math.round(random.nextDouble() * 1_000_000 + 1) / 100.0;
+            firstDecimals[i] = BigDecimal.valueOf(first[i]);
+            secondDecimals[i] = BigDecimal.valueOf(second[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public void calculateLoop(Blackhole blackhole) {
+        for (int i = 0; i < LENGTH; i++) {
+            blackhole.consume(calculatorService.calculate(firstDecimals[i], secondDecimals[i], operation));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public double[] scalarKernel() {
+        scalar.apply(operation, first, second, result, status, LENGTH);
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public double[] vectorKernel() {
+        vector.apply(operation, first, second, result, status, LENGTH);
+        return result;
+    }
+}
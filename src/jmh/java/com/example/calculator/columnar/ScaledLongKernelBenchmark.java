@@ -0,0 +1,55 @@
+package com.example.calculator.columnar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// スケール付きlong（小数点以下2桁、100万未満）の1列あたりのスループット。乗算が Vector API の経路で計算されるかを確認する
+@State(Scope.Benchmark)
+public class ScaledLongKernelBenchmark {
+
+    private static final int LENGTH = 4096;
+
+    @Param({"+", "*"})
+    private String operation;
+
+    private final ArithmeticKernel vector = ArithmeticKernel.best();
+    private final ArithmeticKernel scalar = ArithmeticKernel.scalar();
+
+    private long[] first;
+    private long[] second;
+    private long[] result;
+    private byte[] status;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        first = new long[LENGTH];
+        second = new long[LENGTH];
+        result = new long[LENGTH];
+        status = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            first[i] = random.nextLong(100_000_000);
+            second[i] = random.nextLong(100_000_000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public long[] scalarKernel() {
+        scalar.apply(operation, first, second, result, status, LENGTH);
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public long[] vectorKernel() {
+        vector.apply(operation, first, second, result, status, LENGTH);
+        return result;
+    }
+}
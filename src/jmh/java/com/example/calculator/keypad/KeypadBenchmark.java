@@ -0,0 +1,76 @@
+package com.example.calculator.keypad;
+
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.service.CalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+
+@State(Scope.Thread)
+public class KeypadBenchmark {
+
+    private static final String[] DIGITS = {"1", "2", "3", "4", "5", "6", "7", "8", "9", "0", "1", "2", "3", "4"};
+    private static final String[] CHAIN = {"1", "2", "+", "3", "4", "*", "5", "-", "6", "7", "/", "8", "="};
+
+    private KeypadEngine keypadEngine;
+    private KeypadState state;
+    private OffHeapKeypadStateStore store;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        keypadEngine = new KeypadEngine();
+        Field field = KeypadEngine.class.getDeclaredField("calculatorService");
+        field.setAccessible(true);
+        field.set(keypadEngine, new CalculatorService());
+        // 開いていない HistoryService は記録しない
+        Field history = KeypadEngine.class.getDeclaredField("historyService");
+        history.setAccessible(true);
+        history.set(keypadEngine, new HistoryService());
+        state = new KeypadState();
+        store = new OffHeapKeypadStateStore(16, Duration.ofMinutes(30));
+    }
+
+    // 数字入力のみ（15桁制限に達しない範囲での追記）。ボタンごとにオフヒープのストアから読み込み、保存し直す
+    @Benchmark
+    public String digitAppend() {
+        store.save("bench", new KeypadState(), 0);
+        for (String button : DIGITS) {
+            store.save("bench", keypadEngine.handleButtonClick(store.load("bench", 0), button), 0);
+        }
+        return store.load("bench", 0).getDisplayValue();
+    }
+
+    // 数字と演算子を組み合わせた連続計算。ボタンごとにオフヒープのストアから読み込み、保存し直す
+    @Benchmark
+    public String operatorChain() {
+        store.save("bench", new KeypadState(), 0);
+        for (String button : CHAIN) {
+            store.save("bench", keypadEngine.handleButtonClick(store.load("bench", 0), button), 0);
+        }
+        return store.load("bench", 0).getDisplayValue();
+    }
+
+    // 状態を使い回す場合（WebSocket、/button-sequence、セッションのストア）の数字入力
+    @Benchmark
+    public KeypadState digitAppendInPlace() {
+        keypadEngine.press(state, KeypadKey.CLEAR);
+        for (String button : DIGITS) {
+            keypadEngine.press(state, button);
+        }
+        return state;
+    }
+
+    // 状態を使い回す場合の連続計算
+    @Benchmark
+    public KeypadState operatorChainInPlace() {
+        keypadEngine.press(state, KeypadKey.CLEAR);
+        for (String button : CHAIN) {
+            keypadEngine.press(state, button);
+        }
+        return state;
+    }
+}
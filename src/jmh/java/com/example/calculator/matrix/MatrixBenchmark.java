@@ -0,0 +1,75 @@
+package com.example.calculator.matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// 1回の乗算・LU分解の時間。double[][] の素朴な3重ループ（i-k-j順）とタイル分割した実装を比較する
+@State(Scope.Benchmark)
+public class MatrixBenchmark {
+
+    @Param({"256", "1024"})
+    private int size;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private MatrixEngine engine;
+    private double[][] a;
+    private double[][] b;
+    private Matrix tiledA;
+    private Matrix tiledB;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        engine = new MatrixEngine(pool);
+        Random random = new Random(42);
+        a = new double[size][size];
+        b = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                a[i][j] = random.nextDouble();
+                b[i][j] = random.nextDouble();
+            }
+        }
+        tiledA = Matrix.of(a);
+        tiledB = Matrix.of(b);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double[][] naiveMultiply() {
+        double[][] c = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < size; k++) {
+                double x = a[i][k];
+                for (int j = 0; j < size; j++) {
+                    c[i][j] += x * b[k][j];
+                }
+            }
+        }
+        return c;
+    }
+
+    @Benchmark
+    public Matrix tiledMultiply() {
+        return engine.multiply(tiledA, tiledB);
+    }
+
+    @Benchmark
+    public double decompose() {
+        return engine.decompose(tiledA).determinant();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.calculator.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+
+@State(Scope.Benchmark)
+public class CalculatorServiceBenchmark {
+
+    private static final BigDecimal TWO = new BigDecimal("2");
+
+    @Param({"+", "-", "*", "/"})
+    private String operation;
+
+    // small: 小さい桁数の値, large: CalculationRequestの上限付近の値
+    @Param({"small", "large"})
+    private String magnitude;
+
+    private CalculatorService calculatorService;
+    private BigDecimal first;
+    private BigDecimal second;
+
+    @Setup
+    public void setUp() {
+        calculatorService = new CalculatorService();
+        if (magnitude.equals("small")) {
+            first = new BigDecimal("12.5");
+            second = new BigDecimal("3.25");
+        } else {
+            first = new BigDecimal("987654321.1234567891");
+            second = new BigDecimal("123456789.9876543210");
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculate() {
+        return calculatorService.calculate(first, second, operation);
+    }
+
+    @Benchmark
+    public BigDecimal squareRoot() {
+        return calculatorService.calculateSquareRoot(first);
+    }
+
+    @Benchmark
+    public BigDecimal power() {
+        return calculatorService.calculatePower(first, TWO);
+    }
+
+    @Benchmark
+    public BigDecimal percentage() {
+        return calculatorService.calculatePercentage(first);
+    }
+}
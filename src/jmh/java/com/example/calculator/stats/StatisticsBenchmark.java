@@ -0,0 +1,73 @@
+package com.example.calculator.stats;
+
+import com.example.calculator.service.CalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// 1件あたりの集計時間。キーパッドで + を繰り返すのと同じ calculate の連鎖と、各モードの並列集計を比較する
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    private static final int LENGTH = 1 << 20;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private CalculatorService calculatorService;
+    private ForkJoinPool pool;
+
+    private BigDecimal[] decimals;
+    private long[] unscaled;
+    private double[] doubles;
+
+    @Setup
+    public void setUp() {
+        calculatorService = new CalculatorService();
+        pool = new ForkJoinPool(parallelism);
+        Random random = new Random(42);
+        decimals = new BigDecimal[LENGTH];
+        unscaled = new long[LENGTH];
+        doubles = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            unscaled[i] = random.nextInt(100_000_000);
+            decimals[i] = BigDecimal.valueOf(unscaled[i], 2);
+            doubles[i] = unscaled[i] / 100.0;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public BigDecimal calculateChain() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal value : decimals) {
+            sum = calculatorService.calculate(sum, value, "+");
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public DecimalStatistics.Sums decimalSums() {
+        return pool.invoke(new DecimalStatistics.SumTask(unscaled, 0, LENGTH));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public DoubleStatistics.Moments doubleMoments() {
+        return pool.invoke(new DoubleStatistics.MomentsTask(doubles, 0, LENGTH));
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.calculator.load;
+
+import com.example.calculator.CalculatorApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * HTTPの負荷試験（./gradlew loadTest）。
+ *
+ * アプリケーションをランダムなポートで起動し、シナリオごとに多数のクライアント（仮想スレッド）から
+ * リクエストを送り続けて、スループットとレイテンシの分布（HdrHistogram）を計測する。
+ * 各クライアントは自分のセッション（Cookie）を持ち、応答を受け取ってから次のリクエストを送る（クローズドループ）。
+ * そのため、サーバーが遅くなると送信数も減り、送れなかった分の待ち時間はレイテンシに含まれない。
+ *
+ * <pre>
+ * loadTest.clients     同時クライアント数（既定 1000）
+ * loadTest.warmup      ウォームアップの秒数（既定 5。この間の結果は捨てる）
+ * loadTest.duration    計測の秒数（既定 20）
+ * loadTest.scenarios   実行するシナリオ（カンマ区切り。既定は全シナリオ）
+ * loadTest.resultsDir  結果の出力先（シナリオごとの .hgrm と results.json）
+ * loadTest.admission   受け付け制御を有効にして起動する（既定 false。制限そのものの挙動を見る場合に使う）
+ * </pre>
+ * 合否の閾値は {@link Thresholds} を参照。閾値を超えた場合は終了コード1で終了する。
+ */
+public final class LoadTest {
+
+    // 記録できるレイテンシの上限。これを超えた値は上限として記録する
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("loadTest.clients", 1000);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadTest.warmup", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadTest.duration", 20));
+        List<Scenario> scenarios = scenarios(System.getProperty("loadTest.scenarios", ""));
+        Path resultsDir = Path.of(System.getProperty("loadTest.resultsDir", "build/results/loadtest"));
+        Path historyDir = resultsDir.resolve("history");
+        Files.createDirectories(resultsDir);
+        deleteRecursively(historyDir);
+
+        // 既定ではエンドポイント自体を計測するため、受け付け制御（セッション・IP・同時処理数の制限）を無効にする。
+        // 有効にした場合も、クライアントはすべて同じアドレスから接続するため、IPアドレスごとの制限は行わない
+        boolean admission = Boolean.getBoolean("loadTest.admission");
+        List<ScenarioResult> results = new ArrayList<>();
+        ConfigurableApplicationContext context = SpringApplication.run(CalculatorApplication.class,
+            "--server.port=0",
+            "--calculator.history.directory=" + historyDir,
+            "--calculator.admission.enabled=" + admission,
+            "--calculator.admission.ip.rate=0",
+            "--logging.level.com.example.calculator=INFO");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port);
+            System.out.printf("クライアント %d、ウォームアップ %d 秒、計測 %d 秒%n",
+                clients, warmup.toSeconds(), duration.toSeconds());
+            for (Scenario scenario : scenarios) {
+                ScenarioResult result = run(base, scenario, clients, warmup, duration);
+                results.add(result);
+                System.out.println(result);
+            }
+        } finally {
+            context.close();
+            deleteRecursively(historyDir);
+        }
+
+        writeResults(resultsDir, results);
+
+        List<String> violations = results.stream()
+            .flatMap(result -> Thresholds.check(result).stream())
+            .toList();
+        violations.forEach(System.err::println);
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    static ScenarioResult run(URI base, Scenario scenario, int clients, Duration warmup, Duration duration) {
+        Histogram[] histograms = new Histogram[clients];
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        // クライアントがすべて終わってから HttpClient を閉じる（リソースは逆順に閉じられる）
+        try (HttpClient http = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Histogram histogram = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+                histograms[i] = histogram;
+                clientThreads.execute(() -> runClient(http, base, scenario, histogram, requests, errors,
+                    rejected, measureFrom, measureUntil));
+            }
+        }
+
+        Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        for (Histogram histogram : histograms) {
+            latency.add(histogram);
+        }
+        return new ScenarioResult(scenario, clients, requests.sum(), errors.sum(), rejected.sum(), duration, latency);
+    }
+
+    private static void runClient(HttpClient http, URI base, Scenario scenario, Histogram histogram,
+                                  LongAdder requests, LongAdder errors, LongAdder rejected,
+                                  long measureFrom, long measureUntil) {
+        String cookie = null;
+        for (int step = 0; System.nanoTime() < measureUntil; step++) {
+            HttpRequest.Builder request = scenario.request(base, step).timeout(REQUEST_TIMEOUT);
+            if (cookie != null) {
+                request.header("Cookie", cookie);
+            }
+
+            long start = System.nanoTime();
+            boolean success;
+            long retryAfterMillis = 0;
+            try {
+                HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == TOO_MANY_REQUESTS) {
+                    retryAfterMillis = TimeUnit.SECONDS.toMillis(
+                        response.headers().firstValueAsLong("Retry-After").orElse(1));
+                }
+                success = scenario.isSuccess(response.statusCode());
+                String setCookie = response.headers().firstValue("Set-Cookie").orElse(null);
+                if (setCookie != null) {
+                    int end = setCookie.indexOf(';');
+                    cookie = end < 0 ? setCookie : setCookie.substring(0, end);
+                }
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+            boolean measured = start >= measureFrom && end <= measureUntil;
+
+            if (retryAfterMillis > 0) {
+                // 受付制御で拒否された場合は Retry-After だけ待つ。処理されていないためレイテンシには含めない
+                if (measured) {
+                    rejected.increment();
+                }
+                try {
+                    Thread.sleep(Math.min(retryAfterMillis, Math.max(0, (measureUntil - end) / 1_000_000)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else if (measured) {
+                histogram.recordValue(Math.min(end - start, HIGHEST_TRACKABLE_NANOS));
+                requests.increment();
+                if (!success) {
+                    errors.increment();
+                }
+            }
+        }
+    }
+
+    private static List<Scenario> scenarios(String ids) {
+        if (ids.isBlank()) {
+            return List.of(Scenario.values());
+        }
+        return Arrays.stream(ids.split(","))
+            .map(String::trim)
+            .map(Scenario::of)
+            .toList();
+    }
+
+    private static void writeResults(Path resultsDir, List<ScenarioResult> results) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (ScenarioResult result : results) {
+            summary.put(result.scenario().id(), result.summary());
+            // HdrHistogram のパーセンタイル分布（ミリ秒）。HistogramLogAnalyzer などで比較できる
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(resultsDir.resolve(result.scenario().id() + ".hgrm")))) {
+                result.latency().outputPercentileDistribution(out, ScenarioResult.NANOS_PER_MILLI);
+            }
+        }
+        new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(resultsDir.resolve("results.json").toFile(), summary);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.calculator.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 負荷試験のシナリオ。各クライアントは step を0から順に増やしながらリクエストを送る。
+ */
+enum Scenario {
+
+    // キーパッドのボタンを1つずつ押す（1 2 + 3 = の繰り返し）
+    BUTTON_AJAX("button-ajax", 200) {
+        private static final String[] BUTTONS = {"1", "2", "+", "3", "="};
+
+        @Override
+        HttpRequest.Builder request(URI base, int step) {
+            return form(base.resolve("/button-ajax"), "button=" + encode(BUTTONS[step % BUTTONS.length]));
+        }
+    },
+
+    // フォームからの計算。結果は画面へのリダイレクトで返る
+    CALCULATE("calculate", 302) {
+        private static final String[] OPERATIONS = {"+", "-", "*", "/"};
+
+        @Override
+        HttpRequest.Builder request(URI base, int step) {
+            return form(base.resolve("/calculate"), "firstNumber=" + (step % 1000)
+                + "&secondNumber=" + (step % 7 + 1)
+                + "&operation=" + encode(OPERATIONS[step % OPERATIONS.length]));
+        }
+    },
+
+    // 複数キーの一括送信
+    BUTTON_SEQUENCE("button-sequence", 200) {
+        @Override
+        HttpRequest.Builder request(URI base, int step) {
+            return form(base.resolve("/button-sequence"),
+                "buttons=" + (step % 9 + 1) + "&buttons=" + encode("*") + "&buttons=7&buttons=" + encode("="));
+        }
+    },
+
+    // バッチ計算（1リクエストあたり BATCH_SIZE 件）
+    BATCH("batch", 200) {
+        @Override
+        HttpRequest.Builder request(URI base, int step) {
+            return HttpRequest.newBuilder(base.resolve("/api/calculate/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BATCH_BODY));
+        }
+    };
+
+    static final int BATCH_SIZE = 100;
+
+    private static final String BATCH_BODY = batchBody();
+
+    private final String id;
+    private final int expectedStatus;
+
+    Scenario(String id, int expectedStatus) {
+        this.id = id;
+        this.expectedStatus = expectedStatus;
+    }
+
+    abstract HttpRequest.Builder request(URI base, int step);
+
+    String id() {
+        return id;
+    }
+
+    boolean isSuccess(int status) {
+        return status == expectedStatus;
+    }
+
+    static Scenario of(String id) {
+        for (Scenario scenario : values()) {
+            if (scenario.id.equals(id)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("不明なシナリオです: " + id);
+    }
+
+    private static HttpRequest.Builder form(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String batchBody() {
+        StringBuilder body = new StringBuilder("[");
+        String[] operations = {"+", "-", "*", "/"};
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"firstNumber\":").append(i)
+                .append(",\"secondNumber\":").append(i % 7 + 1)
+                .append(",\"operation\":\"").append(operations[i % operations.length]).append("\"}");
+        }
+        return body.append(']').toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.calculator.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 1シナリオの計測結果。レイテンシはナノ秒で記録している。
+ *
+ * @param requests 計測期間中に完了したリクエスト数（エラーを含む）
+ * @param errors   想定外のステータスまたは通信エラーの数
+ * @param rejected 受付制御で拒否（429）された数。requests・latency には含めない
+ */
+record ScenarioResult(Scenario scenario, int clients, long requests, long errors, long rejected, Duration duration,
+                      Histogram latency) {
+
+    static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    double throughput() {
+        return requests / (duration.toNanos() / 1e9);
+    }
+
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    double rejectRate() {
+        long total = requests + rejected;
+        return total == 0 ? 0 : (double) rejected / total;
+    }
+
+    double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("clients", clients);
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("rejected", rejected);
+        summary.put("throughput", throughput());
+        summary.put("p50Millis", percentileMillis(50));
+        summary.put("p99Millis", percentileMillis(99));
+        summary.put("p999Millis", percentileMillis(99.9));
+        summary.put("maxMillis", latency.getMaxValue() / NANOS_PER_MILLI);
+        return summary;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s %8d req %6d err %6d rej %10.1f req/s  p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms",
+            scenario.id(), requests, errors, rejected, throughput(), percentileMillis(50), percentileMillis(99),
+            percentileMillis(99.9), latency.getMaxValue() / NANOS_PER_MILLI);
+    }
+}
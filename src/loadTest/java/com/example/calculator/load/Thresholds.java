@@ -0,0 +1,60 @@
+package com.example.calculator.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 合否の閾値。システムプロパティ loadTest.&lt;キー&gt; で全シナリオ共通の値を、
+ * loadTest.&lt;シナリオ&gt;.&lt;キー&gt; でシナリオごとの値を指定する（例: loadTest.batch.maxP99Millis=200）。
+ *
+ * <pre>
+ * maxP50Millis, maxP99Millis, maxP999Millis  レイテンシの上限（ミリ秒）
+ * minThroughput                              スループットの下限（リクエスト/秒）
+ * maxErrorRate                               エラー率の上限（既定 0）
+ * maxRejectRate                              受付制御で拒否された割合の上限（既定 0。拒否された分はレイテンシに含まれないため）
+ * </pre>
+ */
+final class Thresholds {
+
+    private Thresholds() {}
+
+    /**
+     * @return 閾値を超えた項目の説明。問題がなければ空
+     */
+    static List<String> check(ScenarioResult result) {
+        String id = result.scenario().id();
+        List<String> violations = new ArrayList<>();
+
+        if (result.requests() == 0) {
+            violations.add(id + ": リクエストが1件も完了していません");
+            return violations;
+        }
+        checkMax(violations, id, "maxP50Millis", result.percentileMillis(50));
+        checkMax(violations, id, "maxP99Millis", result.percentileMillis(99));
+        checkMax(violations, id, "maxP999Millis", result.percentileMillis(99.9));
+        checkMax(violations, id, "maxErrorRate", result.errorRate());
+        checkMax(violations, id, "maxRejectRate", result.rejectRate());
+
+        Double minThroughput = threshold(id, "minThroughput");
+        if (minThroughput != null && result.throughput() < minThroughput) {
+            violations.add(String.format("%s: スループット %.1f req/s が下限 %.1f req/s を下回りました",
+                id, result.throughput(), minThroughput));
+        }
+        return violations;
+    }
+
+    private static void checkMax(List<String> violations, String id, String key, double actual) {
+        Double max = threshold(id, key);
+        if (max != null && actual > max) {
+            violations.add(String.format("%s: %s %.3f が上限 %.3f を超えました", id, key, actual, max));
+        }
+    }
+
+    private static Double threshold(String id, String key) {
+        String value = System.getProperty("loadTest." + id + "." + key, System.getProperty("loadTest." + key));
+        if (value == null && (key.equals("maxErrorRate") || key.equals("maxRejectRate"))) {
+            value = "0";
+        }
+        return value == null || value.isBlank() ? null : Double.valueOf(value);
+    }
+}
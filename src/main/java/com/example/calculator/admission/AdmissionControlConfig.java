@@ -0,0 +1,26 @@
+package com.example.calculator.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "calculator.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    /**
+     * 計算系のエンドポイントだけに適用する（画面・静的ファイル・Actuatorは対象外）。
+     * 拒否したリクエストも http.server.requests に記録されるよう、計測のフィルターより後に置く。
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(
+            AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/calculate", "/button", "/button-ajax", "/button-sequence", "/button-token",
+            "/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
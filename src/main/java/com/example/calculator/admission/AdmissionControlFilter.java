@@ -0,0 +1,177 @@
+package com.example.calculator.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 計算系のエンドポイントの前段で、処理を始める前にリクエストを受け付けるかを決める。
+ *
+ * <ol>
+ *   <li>セッションごとのトークンバケット（セッションがまだない場合は対象外）</li>
+ *   <li>クライアントのIPアドレスごとのトークンバケット（既定では無効）</li>
+ *   <li>全体の同時処理数の上限</li>
+ * </ol>
+ * いずれかを超えた場合は Spring MVC に渡さずに 429 Too Many Requests と Retry-After（秒）を返す。
+ * 一部のクライアントが大量に送ってきても、他の利用者のレイテンシが悪化しないことを優先する。
+ * レートに0を指定した制限は行わない。
+ *
+ * IPアドレスは {@code getRemoteAddr()} の値を使う。リバースプロキシやロードバランサーの後ろでは全員が
+ * プロキシのアドレスになり、1つのバケットを共有してしまうため、IPアドレスごとの制限は既定で無効にしている。
+ * 有効にする場合は {@code server.forward-headers-strategy=native} と
+ * {@code server.tomcat.remoteip.internal-proxies} で信頼するプロキシを設定し、X-Forwarded-For から
+ * クライアントのアドレスが復元されるようにすること。
+ */
+@Component
+@ConditionalOnProperty(name = "calculator.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+    static final String REASON_SESSION = "session";
+    static final String REASON_IP = "ip";
+    static final String REASON_CONCURRENCY = "concurrency";
+
+    private static final byte[] REJECTED_BODY =
+        "{\"success\":false,\"error\":\"リクエストが多すぎます。しばらくしてから再度お試しください\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final TokenBucketTable sessionBuckets;
+    private final TokenBucketTable ipBuckets;
+    private final int maxConcurrent;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedBySession = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByConcurrency = new LongAdder();
+
+    public AdmissionControlFilter(@Value("${calculator.admission.table-size:65536}") int tableSize,
+                                  @Value("${calculator.admission.session.rate:20}") int sessionRate,
+                                  @Value("${calculator.admission.session.burst:40}") int sessionBurst,
+                                  @Value("${calculator.admission.ip.rate:0}") int ipRate,
+                                  @Value("${calculator.admission.ip.burst:400}") int ipBurst,
+                                  @Value("${calculator.admission.max-concurrent:128}") int maxConcurrent) {
+        this.sessionBuckets = sessionRate > 0 ? new TokenBucketTable(tableSize, sessionRate, sessionBurst) : null;
+        this.ipBuckets = ipRate > 0 ? new TokenBucketTable(tableSize, ipRate, ipBurst) : null;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (sessionBuckets != null) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                long wait = sessionBuckets.tryAcquire(session.getId());
+                if (wait > 0) {
+                    rejectedBySession.increment();
+                    reject(response, wait);
+                    return;
+                }
+            }
+        }
+        if (ipBuckets != null) {
+            long wait = ipBuckets.tryAcquire(request.getRemoteAddr());
+            if (wait > 0) {
+                rejectedByIp.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+
+        if (maxConcurrent > 0 && inFlight.incrementAndGet() > maxConcurrent) {
+            inFlight.decrementAndGet();
+            rejectedByConcurrency.increment();
+            reject(response, 1000);
+            return;
+        }
+        admitted.increment();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (maxConcurrent > 0) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitMillis + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("admitted", admitted.sum());
+        stats.put("inFlight", inFlight.get());
+        stats.put("maxConcurrent", maxConcurrent);
+        Map<String, Object> rejected = new LinkedHashMap<>();
+        rejected.put(REASON_SESSION, rejectedBySession.sum());
+        rejected.put(REASON_IP, rejectedByIp.sum());
+        rejected.put(REASON_CONCURRENCY, rejectedByConcurrency.sum());
+        stats.put("rejected", rejected);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("calculator.admission.admitted", admitted, LongAdder::sum)
+            .register(registry);
+        FunctionCounter.builder("calculator.admission.rejections", rejectedBySession, LongAdder::sum)
+            .tag("reason", REASON_SESSION)
+            .register(registry);
+        FunctionCounter.builder("calculator.admission.rejections", rejectedByIp, LongAdder::sum)
+            .tag("reason", REASON_IP)
+            .register(registry);
+        FunctionCounter.builder("calculator.admission.rejections", rejectedByConcurrency, LongAdder::sum)
+            .tag("reason", REASON_CONCURRENCY)
+            .register(registry);
+        Gauge.builder("calculator.admission.in-flight", inFlight, AtomicInteger::get)
+            .register(registry);
+        if (sessionBuckets != null) {
+            FunctionCounter.builder("calculator.admission.bucket.evictions", sessionBuckets,
+                    TokenBucketTable::getEvictions)
+                .tag("key", REASON_SESSION)
+                .register(registry);
+        }
+        if (ipBuckets != null) {
+            FunctionCounter.builder("calculator.admission.bucket.evictions", ipBuckets, TokenBucketTable::getEvictions)
+                .tag("key", REASON_IP)
+                .register(registry);
+        }
+    }
+
+    long getRejected(String reason) {
+        return switch (reason) {
+            case REASON_SESSION -> rejectedBySession.sum();
+            case REASON_IP -> rejectedByIp.sum();
+            default -> rejectedByConcurrency.sum();
+        };
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
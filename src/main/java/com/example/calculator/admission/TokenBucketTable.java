@@ -0,0 +1,151 @@
+package com.example.calculator.admission;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * キー（セッションID・IPアドレス）ごとのトークンバケット。
+ *
+ * キーの64ビットハッシュで固定長の表のスロットに割り当て、ロックを取らずにCASで更新する。
+ * <pre>
+ * tags[slot]   キーのハッシュ（0 は空き）
+ * states[slot] 最終更新時刻（ミリ秒、上位44ビット） | トークン数（1/1000単位、下位20ビット）
+ * </pre>
+ * キーはハッシュ位置から {@link #PROBES} 個のスロットを順に探し、見つからなければ空きスロットを使う。
+ * 空きがなければ最も長く更新されていないスロットを奪い、満タンのバケットから始める。
+ * 表が溢れた場合は制限が緩くなる方向にずれ、他のキーの巻き添えで拒否されることはない。
+ */
+final class TokenBucketTable {
+
+    static final int PROBES = 4;
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+    private static final long EMPTY = 0;
+
+    // 1/1000単位で20ビットに収まるバースト（トークン数）の上限
+    static final int MAX_BURST = (int) (TOKEN_MASK / ONE_TOKEN);
+
+    private final AtomicLongArray tags;
+    private final AtomicLongArray states;
+    private final int mask;
+    // 1ミリ秒あたりに補充するトークン（1/1000単位）。毎秒 rate 個なので rate と同じ値になる
+    private final long refillPerMilli;
+    private final long capacity;
+    private final long baseNanos = System.nanoTime();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param size  スロット数（2の累乗に切り上げる）
+     * @param rate  1秒あたりに補充するトークン数
+     * @param burst バケットの容量
+     */
+    TokenBucketTable(int size, int rate, int burst) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("スロット数は1以上を指定してください: " + size);
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("補充レートは1以上を指定してください: " + rate);
+        }
+        if (burst <= 0 || burst > MAX_BURST) {
+            throw new IllegalArgumentException("バーストは1から" + MAX_BURST + "の範囲で指定してください: " + burst);
+        }
+        int slots = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.tags = new AtomicLongArray(slots);
+        this.states = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.refillPerMilli = rate;
+        this.capacity = burst * ONE_TOKEN;
+    }
+
+    /**
+     * トークンを1つ取り出す。
+     *
+     * @return 0: 取り出せた。正の値: 次のトークンが貯まるまでのミリ秒
+     */
+    long tryAcquire(CharSequence key) {
+        return tryAcquire(hash(key), (System.nanoTime() - baseNanos) / 1_000_000);
+    }
+
+    long tryAcquire(long hash, long now) {
+        int start = (int) (hash ^ (hash >>> 32)) & mask;
+        int victim = -1;
+        long victimTime = Long.MAX_VALUE;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            long tag = tags.get(slot);
+            if (tag == hash) {
+                return take(slot, now);
+            }
+            if (tag == EMPTY) {
+                if (tags.compareAndSet(slot, EMPTY, hash)) {
+                    return fill(slot, now);
+                }
+                if (tags.get(slot) == hash) {
+                    return take(slot, now);
+                }
+                continue;
+            }
+            long time = states.get(slot) >>> TOKEN_BITS;
+            if (time < victimTime) {
+                victim = slot;
+                victimTime = time;
+            }
+        }
+
+        // 探索範囲が埋まっている場合は最も古いスロットを奪う。奪い合いに負けた場合も拒否はしない
+        if (victim >= 0) {
+            long victimTag = tags.get(victim);
+            if (victimTag != hash && tags.compareAndSet(victim, victimTag, hash)) {
+                evictions.increment();
+                return fill(victim, now);
+            }
+        }
+        return 0;
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+
+    int getSlots() {
+        return mask + 1;
+    }
+
+    // 新しいキーは満タンのバケットから1つ取り出した状態で始める
+    private long fill(int slot, long now) {
+        states.set(slot, (now << TOKEN_BITS) | (capacity - ONE_TOKEN));
+        return 0;
+    }
+
+    private long take(int slot, long now) {
+        while (true) {
+            long state = states.get(slot);
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            if (now > last) {
+                // 長時間アクセスがなかった場合に掛け算が溢れないよう、満タンになる時間で打ち切る
+                long elapsed = Math.min(now - last, capacity / refillPerMilli + 1);
+                tokens = Math.min(capacity, tokens + elapsed * refillPerMilli);
+            }
+            if (tokens < ONE_TOKEN) {
+                return Math.max(1, (ONE_TOKEN - tokens + refillPerMilli - 1) / refillPerMilli);
+            }
+            long next = (Math.max(now, last) << TOKEN_BITS) | (tokens - ONE_TOKEN);
+            if (states.compareAndSet(slot, state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // FNV-1a（64ビット）。0 は空きスロットを表すため使わない
+    static long hash(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == EMPTY ? 1 : hash;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.calculator.columnar;
+
+/**
+ * 列（配列）単位でまとめて計算するカーネル。
+ *
+ * 演算子は {@link com.example.calculator.service.CalculatorService#calculate} と同じ文字列で指定し、
+ * 未対応の演算子は同じメッセージの {@link IllegalArgumentException} を投げる。
+ * 行ごとの結果は {@code status} に {@link ColumnarFormat} の STATUS_* で書き込み、
+ * 失敗した行の結果はdoubleでは NaN、longでは 0 とする。
+ *
+ * 実装は {@link #best()} で取得する。
+ */
+public interface ArithmeticKernel {
+
+    /**
+     * double の2列を計算する。ゼロ除算（-0.0 を含む）は STATUS_DIVIDE_BY_ZERO、
+     * 有限の入力から無限大になった場合は STATUS_OVERFLOW。
+     */
+    void apply(String operation, double[] first, double[] second, double[] result, byte[] status, int length);
+
+    /**
+     * 同じスケールのスケール付きlongの2列を正確に計算する。対応する演算は +, -, * のみで、
+     * 結果のスケールは加減算では入力と同じ、乗算では2倍になる。longに収まらない行は STATUS_OVERFLOW。
+     */
+    void apply(String operation, long[] first, long[] second, long[] result, byte[] status, int length);
+
+    void percentage(double[] values, double[] result, int length);
+
+    void square(double[] values, double[] result, int length);
+
+    String name();
+
+    static ArithmeticKernel best() {
+        return ArithmeticKernels.BEST;
+    }
+
+    static ArithmeticKernel scalar() {
+        return ArithmeticKernels.SCALAR;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.calculator.columnar;
+
+import com.example.calculator.service.UnsupportedOperatorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * カーネルの選択と共通の処理。
+ */
+final class ArithmeticKernels {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArithmeticKernels.class);
+
+    static final ArithmeticKernel SCALAR = new ScalarArithmeticKernel();
+    static final ArithmeticKernel BEST = load();
+
+    private ArithmeticKernels() {}
+
+    // jdk.incubator.vector は --add-modules で有効にした場合のみ使える。
+    // ベクトル実装は別のソースセット（src/vector）でコンパイルするため、クラス名で読み込む
+    private static ArithmeticKernel load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (ArithmeticKernel) Class.forName(ArithmeticKernels.class.getPackageName() + ".VectorArithmeticKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Vector APIを利用できないため、スカラー実装で計算します", e);
+            }
+        }
+        return SCALAR;
+    }
+
+    static void checkLength(int length, int... arrayLengths) {
+        for (int arrayLength : arrayLengths) {
+            if (length < 0 || length > arrayLength) {
+                throw new IllegalArgumentException("配列の長さが足りません");
+            }
+        }
+    }
+
+    static IllegalArgumentException unsupported(String operation) {
+        return new UnsupportedOperatorException(operation);
+    }
+
+    // 以下はスカラーの1行分の計算。ベクトル実装の端数や、特殊な行の処理にも使う
+
+    static byte divide(double a, double b, double[] result, int i) {
+        if (b == 0.0) {
+            result[i] = Double.NaN;
+            return ColumnarFormat.STATUS_DIVIDE_BY_ZERO;
+        }
+        return checkOverflow(a, b, a / b, result, i);
+    }
+
+    static byte checkOverflow(double a, double b, double value, double[] result, int i) {
+        if (Double.isInfinite(value) && Double.isFinite(a) && Double.isFinite(b)) {
+            result[i] = Double.NaN;
+            return ColumnarFormat.STATUS_OVERFLOW;
+        }
+        result[i] = value;
+        return ColumnarFormat.STATUS_OK;
+    }
+
+    static byte add(long a, long b, long[] result, int i) {
+        long sum = a + b;
+        return checkOverflow(((a ^ sum) & (b ^ sum)) < 0, sum, result, i);
+    }
+
+    static byte subtract(long a, long b, long[] result, int i) {
+        long difference = a - b;
+        return checkOverflow(((a ^ b) & (a ^ difference)) < 0, difference, result, i);
+    }
+
+    static byte multiply(long a, long b, long[] result, int i) {
+        long product = a * b;
+        return checkOverflow(Math.multiplyHigh(a, b) != (product >> 63), product, result, i);
+    }
+
+    private static byte checkOverflow(boolean overflow, long value, long[] result, int i) {
+        if (overflow) {
+            result[i] = 0L;
+            return ColumnarFormat.STATUS_OVERFLOW;
+        }
+        result[i] = value;
+        return ColumnarFormat.STATUS_OK;
+    }
+}
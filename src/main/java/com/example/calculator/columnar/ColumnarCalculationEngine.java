@@ -0,0 +1,418 @@
+package com.example.calculator.columnar;
+
+import com.example.calculator.math.ScaledDecimal;
+import com.example.calculator.service.CalculatorService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.LongStream;
+
+/**
+ * 列指向形式の入力ファイル（{@link ColumnarFormat}）をメモリマップして計算し、結果ファイルに書き出す。
+ *
+ * 行は一定行数ごとのセグメントに分け、セグメント単位で各列の該当範囲だけをマップして並列に処理する。
+ * セグメント内で同じ演算子が続く範囲は {@link ArithmeticKernel#best()} でまとめて計算する。
+ * 1行ごとのオブジェクト生成はなく、演算は {@link CalculatorService#calculate} と同じ結果になる
+ * （加減乗算は正確に、除算は小数点以下10桁に四捨五入）。
+ * 結果のスケールは行ごとに決まり（{@link ColumnarFormat}）、その仮数がlongに収まらない場合は {@link ColumnarFormat#STATUS_OVERFLOW} とする。
+ *
+ * <pre>
+ * java -cp ... com.example.calculator.columnar.ColumnarCalculationEngine input.col output.res [parallelism]
+ * </pre>
+ */
+public class ColumnarCalculationEngine implements AutoCloseable {
+
+    // 1セグメントの行数。各列を1MB〜8MBずつマップする
+    static final int SEGMENT_ROWS = 1 << 20;
+
+    // 同じ演算子がこの行数以上続く範囲は {@link ArithmeticKernel} でまとめて計算し、短い範囲は行ごとに計算する
+    static final int MIN_KERNEL_ROWS = 16;
+
+    // カーネルでまとめて計算する最大の行数（作業用の配列の大きさ）
+    static final int BLOCK_ROWS = 4096;
+
+    // 剰余にこれを掛けてもlongに収まる上限
+    private static final long MAX_REMAINDER = Long.MAX_VALUE / ScaledDecimal.powerOfTen(CalculatorService.DIVISION_SCALE);
+
+    private final ForkJoinPool pool;
+    private final ArithmeticKernel kernel;
+
+    public ColumnarCalculationEngine(int parallelism) {
+        this(parallelism, ArithmeticKernel.best());
+    }
+
+    ColumnarCalculationEngine(int parallelism, ArithmeticKernel kernel) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.kernel = kernel;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("使い方: ColumnarCalculationEngine <入力ファイル> <結果ファイル> [並列数]");
+            System.exit(2);
+        }
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        try (ColumnarCalculationEngine engine = new ColumnarCalculationEngine(parallelism)) {
+            Summary summary = engine.evaluate(Path.of(args[0]), Path.of(args[1]));
+            System.out.println(summary);
+        }
+    }
+
+    public Summary evaluate(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(ColumnarFormat.HEADER_SIZE);
+            in.read(buffer, 0);
+            ColumnarFormat.Header header = ColumnarFormat.readHeader(buffer, ColumnarFormat.INPUT_MAGIC, in.size());
+            long rowCount = header.rowCount();
+            ColumnarFormat.checkRowCount(rowCount, ColumnarFormat.INPUT_ROW_SIZE, in.size());
+            boolean scaled = header.encoding() == ColumnarFormat.ENCODING_SCALED_LONG;
+            if (scaled && (header.scale() < 0 || header.scale() > ColumnarFormat.MAX_INPUT_SCALE)) {
+                throw new IllegalArgumentException("スケールは0から" + ColumnarFormat.MAX_INPUT_SCALE + "の範囲で指定してください");
+            }
+
+            out.write(ColumnarFormat.header(ColumnarFormat.RESULT_MAGIC, header.encoding(), header.scale(), rowCount), 0);
+            if (rowCount > 0) {
+                // マップする前にファイルを最終的な大きさまで広げておく
+                out.write(ByteBuffer.allocate(1), ColumnarFormat.resultFileSize(rowCount) - 1);
+            }
+
+            AtomicLongArray counts = new AtomicLongArray(4);
+            long segments = (rowCount + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+            try {
+                pool.submit(() -> LongStream.range(0, segments)
+                        .parallel()
+                        .forEach(segment -> evaluateSegment(in, out, header, segment, counts)))
+                    .get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("計算が中断されました", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IOException(e.getCause());
+            }
+            out.force(false);
+
+            return new Summary(rowCount,
+                counts.get(ColumnarFormat.STATUS_OK),
+                counts.get(ColumnarFormat.STATUS_DIVIDE_BY_ZERO),
+                counts.get(ColumnarFormat.STATUS_INVALID_OPERATION),
+                counts.get(ColumnarFormat.STATUS_OVERFLOW),
+                System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private void evaluateSegment(FileChannel in, FileChannel out, ColumnarFormat.Header header,
+                                 long segment, AtomicLongArray counts) {
+        long rowCount = header.rowCount();
+        long from = segment * SEGMENT_ROWS;
+        int rows = (int) Math.min(SEGMENT_ROWS, rowCount - from);
+        long[] segmentCounts = new long[4];
+
+        try {
+            MappedByteBuffer first = map(in, FileChannel.MapMode.READ_ONLY,
+                ColumnarFormat.firstColumn() + from * ColumnarFormat.VALUE_SIZE, (long) rows * ColumnarFormat.VALUE_SIZE);
+            MappedByteBuffer second = map(in, FileChannel.MapMode.READ_ONLY,
+                ColumnarFormat.secondColumn(rowCount) + from * ColumnarFormat.VALUE_SIZE, (long) rows * ColumnarFormat.VALUE_SIZE);
+            MappedByteBuffer operations = map(in, FileChannel.MapMode.READ_ONLY,
+                ColumnarFormat.operationColumn(rowCount) + from, rows);
+            MappedByteBuffer results = map(out, FileChannel.MapMode.READ_WRITE,
+                ColumnarFormat.resultColumn() + from * ColumnarFormat.VALUE_SIZE, (long) rows * ColumnarFormat.VALUE_SIZE);
+            MappedByteBuffer scales = map(out, FileChannel.MapMode.READ_WRITE,
+                ColumnarFormat.scaleColumn(rowCount) + from, rows);
+            MappedByteBuffer statuses = map(out, FileChannel.MapMode.READ_WRITE,
+                ColumnarFormat.statusColumn(rowCount) + from, rows);
+
+            Segment columns = new Segment(first, second, results, scales, statuses, header.scale(), segmentCounts);
+            boolean scaled = header.encoding() == ColumnarFormat.ENCODING_SCALED_LONG;
+            int start = 0;
+            while (start < rows) {
+                // 同じ演算子が続く範囲（最大 BLOCK_ROWS 行）を探す
+                byte operation = operations.get(start);
+                int end = start + 1;
+                int limit = Math.min(rows, start + BLOCK_ROWS);
+                while (end < limit && operations.get(end) == operation) {
+                    end++;
+                }
+                String kernelOperation = kernelOperation(operation, scaled);
+                if (kernelOperation == null || end - start < MIN_KERNEL_ROWS) {
+                    for (int i = start; i < end; i++) {
+                        columns.evaluateRow(operation, i, scaled);
+                    }
+                } else if (scaled) {
+                    columns.evaluateScaled(kernel, kernelOperation, operation, start, end - start);
+                } else {
+                    columns.evaluateDouble(kernel, kernelOperation, start, end - start);
+                }
+                start = end;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (int status = 0; status < segmentCounts.length; status++) {
+            counts.addAndGet(status, segmentCounts[status]);
+        }
+    }
+
+    // カーネルで計算できる演算子の文字列。スケール付きlongの除算は四捨五入があるため行ごとに計算する
+    private static String kernelOperation(byte operation, boolean scaled) {
+        return switch (operation) {
+            case '+' -> "+";
+            case '-' -> "-";
+            case '*' -> "*";
+            case '/' -> scaled ? null : "/";
+            default -> null;
+        };
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long size)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * スケール {@code scale} の2数を計算し、結果の仮数を {@code result[0]} に、スケールを {@code result[1]} に書き込む。
+     * オーバーフローは例外を使わずに検査する。
+     */
+    static byte evaluateScaled(byte operation, long a, long b, int scale, long[] result) {
+        switch (operation) {
+            case '+': {
+                long sum = a + b;
+                if (((a ^ sum) & (b ^ sum)) < 0) {
+                    return ColumnarFormat.STATUS_OVERFLOW;
+                }
+                return ok(sum, scale, result);
+            }
+            case '-': {
+                long difference = a - b;
+                if (((a ^ b) & (a ^ difference)) < 0) {
+                    return ColumnarFormat.STATUS_OVERFLOW;
+                }
+                return ok(difference, scale, result);
+            }
+            case '*': {
+                long product = a * b;
+                if (Math.multiplyHigh(a, b) != (product >> 63)) {
+                    return ColumnarFormat.STATUS_OVERFLOW;
+                }
+                return ok(product, 2 * scale, result);
+            }
+            case '/':
+                if (b == 0) {
+                    return ColumnarFormat.STATUS_DIVIDE_BY_ZERO;
+                }
+                // 両者のスケールが等しいため、商は仮数どうしの商に等しい
+                return divide(a, b, result);
+            default:
+                return ColumnarFormat.STATUS_INVALID_OPERATION;
+        }
+    }
+
+    static byte evaluateDouble(byte operation, double a, double b, long[] result) {
+        double value;
+        switch (operation) {
+            case '+' -> value = a + b;
+            case '-' -> value = a - b;
+            case '*' -> value = a * b;
+            case '/' -> {
+                if (b == 0.0) {
+                    return ColumnarFormat.STATUS_DIVIDE_BY_ZERO;
+                }
+                value = a / b;
+            }
+            default -> {
+                return ColumnarFormat.STATUS_INVALID_OPERATION;
+            }
+        }
+        if (Double.isInfinite(value) && Double.isFinite(a) && Double.isFinite(b)) {
+            return ColumnarFormat.STATUS_OVERFLOW;
+        }
+        result[0] = Double.doubleToRawLongBits(value);
+        return ColumnarFormat.STATUS_OK;
+    }
+
+    private static byte ok(long unscaled, int scale, long[] result) {
+        result[0] = unscaled;
+        result[1] = scale;
+        return ColumnarFormat.STATUS_OK;
+    }
+
+    // a / b を小数点以下10桁に四捨五入（HALF_UP）した値
+    private static byte divide(long a, long b, long[] result) {
+        if (a == Long.MIN_VALUE || b == Long.MIN_VALUE) {
+            return divideExact(a, b, result);
+        }
+        long quotient = a / b;
+        long remainder = Math.abs(a % b);
+        if (remainder > MAX_REMAINDER) {
+            return divideExact(a, b, result);
+        }
+        long divisor = Math.abs(b);
+        long scaledRemainder = remainder * ScaledDecimal.powerOfTen(CalculatorService.DIVISION_SCALE);
+        long fraction = scaledRemainder / divisor;
+        long rest = scaledRemainder % divisor;
+        if (rest >= divisor - rest) {
+            fraction++;
+        }
+        if ((a ^ b) < 0) {
+            fraction = -fraction;
+        }
+
+        long factor = ScaledDecimal.powerOfTen(CalculatorService.DIVISION_SCALE);
+        long integral = quotient * factor;
+        if (Math.multiplyHigh(quotient, factor) != (integral >> 63)) {
+            // スケール10ではlongに収まらない。末尾の0を除いて収まるかをBigDecimalで確かめる
+            return divideExact(a, b, result);
+        }
+        long value = integral + fraction;
+        if (((integral ^ value) & (fraction ^ value)) < 0) {
+            return divideExact(a, b, result);
+        }
+        return ok(value, CalculatorService.DIVISION_SCALE, result);
+    }
+
+    // 除数が大きく剰余の桁上げがlongに収まらない場合や、商が大きい場合のみBigDecimalで計算する
+    private static byte divideExact(long a, long b, long[] result) {
+        BigDecimal quotient = BigDecimal.valueOf(a)
+            .divide(BigDecimal.valueOf(b), CalculatorService.DIVISION_SCALE, CalculatorService.DIVISION_ROUNDING);
+        if (quotient.unscaledValue().bitLength() > 63) {
+            // 1e12 のように小数部が0なら、より小さいスケールで同じ値を表せる
+            quotient = quotient.stripTrailingZeros();
+            if (quotient.scale() < 0) {
+                quotient = quotient.setScale(0);
+            }
+            if (quotient.unscaledValue().bitLength() > 63) {
+                return ColumnarFormat.STATUS_OVERFLOW;
+            }
+        }
+        return ok(quotient.unscaledValue().longValue(), quotient.scale(), result);
+    }
+
+    /**
+     * 1セグメント分のマップした列と、カーネルに渡す作業用の配列。
+     */
+    private static final class Segment {
+
+        private final LongBuffer firstLongs;
+        private final LongBuffer secondLongs;
+        private final LongBuffer resultLongs;
+        private final DoubleBuffer firstDoubles;
+        private final DoubleBuffer secondDoubles;
+        private final DoubleBuffer resultDoubles;
+        private final MappedByteBuffer scales;
+        private final MappedByteBuffer statuses;
+        private final int scale;
+        private final long[] counts;
+        private final long[] result = new long[2];
+
+        private long[] longA;
+        private long[] longB;
+        private long[] longResult;
+        private double[] doubleA;
+        private double[] doubleB;
+        private double[] doubleResult;
+        private byte[] resultScales;
+        private byte[] status;
+
+        Segment(MappedByteBuffer first, MappedByteBuffer second, MappedByteBuffer results, MappedByteBuffer scales,
+                MappedByteBuffer statuses, int scale, long[] counts) {
+            this.firstLongs = first.asLongBuffer();
+            this.secondLongs = second.asLongBuffer();
+            this.resultLongs = results.asLongBuffer();
+            this.firstDoubles = first.asDoubleBuffer();
+            this.secondDoubles = second.asDoubleBuffer();
+            this.resultDoubles = results.asDoubleBuffer();
+            this.scales = scales;
+            this.statuses = statuses;
+            this.scale = scale;
+            this.counts = counts;
+        }
+
+        void evaluateRow(byte operation, int i, boolean scaled) {
+            byte rowStatus;
+            if (scaled) {
+                rowStatus = ColumnarCalculationEngine.evaluateScaled(operation, firstLongs.get(i), secondLongs.get(i),
+                    scale, result);
+                boolean ok = rowStatus == ColumnarFormat.STATUS_OK;
+                resultLongs.put(i, ok ? result[0] : 0L);
+                scales.put(i, ok ? (byte) result[1] : 0);
+            } else {
+                rowStatus = ColumnarCalculationEngine.evaluateDouble(operation, firstDoubles.get(i), secondDoubles.get(i),
+                    result);
+                resultDoubles.put(i, rowStatus == ColumnarFormat.STATUS_OK ? Double.longBitsToDouble(result[0]) : Double.NaN);
+            }
+            statuses.put(i, rowStatus);
+            counts[rowStatus]++;
+        }
+
+        // 結果のスケールは加減算では入力と同じ、乗算では2倍で、カーネルの結果をそのまま書き込める
+        void evaluateScaled(ArithmeticKernel kernel, String kernelOperation, byte operation, int from, int length) {
+            if (longA == null) {
+                longA = new long[BLOCK_ROWS];
+                longB = new long[BLOCK_ROWS];
+                longResult = new long[BLOCK_ROWS];
+                resultScales = new byte[BLOCK_ROWS];
+                status = new byte[BLOCK_ROWS];
+            }
+            firstLongs.get(from, longA, 0, length);
+            secondLongs.get(from, longB, 0, length);
+            kernel.apply(kernelOperation, longA, longB, longResult, status, length);
+            byte resultScale = (byte) (operation == '*' ? 2 * scale : scale);
+            for (int i = 0; i < length; i++) {
+                resultScales[i] = status[i] == ColumnarFormat.STATUS_OK ? resultScale : 0;
+                counts[status[i]]++;
+            }
+            resultLongs.put(from, longResult, 0, length);
+            scales.put(from, resultScales, 0, length);
+            statuses.put(from, status, 0, length);
+        }
+
+        void evaluateDouble(ArithmeticKernel kernel, String kernelOperation, int from, int length) {
+            if (doubleA == null) {
+                doubleA = new double[BLOCK_ROWS];
+                doubleB = new double[BLOCK_ROWS];
+                doubleResult = new double[BLOCK_ROWS];
+                status = new byte[BLOCK_ROWS];
+            }
+            firstDoubles.get(from, doubleA, 0, length);
+            secondDoubles.get(from, doubleB, 0, length);
+            kernel.apply(kernelOperation, doubleA, doubleB, doubleResult, status, length);
+            for (int i = 0; i < length; i++) {
+                counts[status[i]]++;
+            }
+            resultDoubles.put(from, doubleResult, 0, length);
+            statuses.put(from, status, 0, length);
+        }
+    }
+
+    public record Summary(long rows, long succeeded, long divideByZero, long invalidOperation, long overflow,
+                          long elapsedNanos) {}
+}
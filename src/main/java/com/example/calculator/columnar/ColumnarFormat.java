@@ -0,0 +1,145 @@
+package com.example.calculator.columnar;
+
+import com.example.calculator.service.CalculatorService;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 列指向のバイナリ形式の定義。数値はすべてリトルエンディアン。
+ *
+ * <pre>
+ * 入力ファイル:
+ *   0   magic "CALCCOL1"
+ *   8   encoding (byte)     0: スケール付きlong, 1: double
+ *   9   scale (byte)        スケール付きlongの場合の小数点以下の桁数（0〜5）
+ *   16  rowCount (long)
+ *   64  firstNumber 列      rowCount * 8 bytes
+ *   ..  secondNumber 列     rowCount * 8 bytes
+ *   ..  operation 列        rowCount * 1 byte（'+', '-', '*', '/'）
+ *
+ * 結果ファイル:
+ *   0   magic "CALCRES2"
+ *   8   encoding (byte)     入力と同じ
+ *   9   scale (byte)        入力と同じ
+ *   16  rowCount (long)
+ *   64  result 列           rowCount * 8 bytes
+ *   ..  scale 列            rowCount * 1 byte（スケール付きlongの結果の小数点以下の桁数。doubleでは0）
+ *   ..  status 列           rowCount * 1 byte
+ * </pre>
+ *
+ * スケール付きlongの結果のスケールは行ごとに決まる。加減算は入力と同じ、乗算は2倍、除算は10
+ * （10桁ではlongに収まらず、末尾の0を除くと収まる場合はそのスケール）。
+ * 結果を固定のスケールに揃えないため、加減乗算は入力と同じ範囲の値をそのまま表せる。
+ */
+public final class ColumnarFormat {
+
+    public static final byte ENCODING_SCALED_LONG = 0;
+    public static final byte ENCODING_DOUBLE = 1;
+
+    // 乗算の結果のスケール（入力の2倍）が除算の結果のスケールを超えない範囲
+    public static final int MAX_INPUT_SCALE = CalculatorService.DIVISION_SCALE / 2;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_DIVIDE_BY_ZERO = 1;
+    public static final byte STATUS_INVALID_OPERATION = 2;
+    public static final byte STATUS_OVERFLOW = 3;
+
+    static final int HEADER_SIZE = 64;
+    static final int VALUE_SIZE = Long.BYTES;
+
+    static final byte[] INPUT_MAGIC = "CALCCOL1".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] RESULT_MAGIC = "CALCRES2".getBytes(StandardCharsets.US_ASCII);
+
+    // 1行あたりのバイト数
+    static final int INPUT_ROW_SIZE = 2 * VALUE_SIZE + 1;
+    static final int RESULT_ROW_SIZE = VALUE_SIZE + 2;
+
+    private static final int ENCODING = 8;
+    private static final int SCALE = 9;
+    private static final int ROW_COUNT = 16;
+
+    private ColumnarFormat() {}
+
+    static long firstColumn() {
+        return HEADER_SIZE;
+    }
+
+    // 以下の位置と大きさは、行数が checkRowCount で確かめた範囲にあれば longに収まる。
+    // 収まらない行数が渡された場合は ArithmeticException を投げる
+
+    static long secondColumn(long rowCount) {
+        return Math.addExact(HEADER_SIZE, Math.multiplyExact(rowCount, VALUE_SIZE));
+    }
+
+    static long operationColumn(long rowCount) {
+        return Math.addExact(HEADER_SIZE, Math.multiplyExact(rowCount, 2L * VALUE_SIZE));
+    }
+
+    static long inputFileSize(long rowCount) {
+        return Math.addExact(HEADER_SIZE, Math.multiplyExact(rowCount, INPUT_ROW_SIZE));
+    }
+
+    static long resultColumn() {
+        return HEADER_SIZE;
+    }
+
+    static long scaleColumn(long rowCount) {
+        return Math.addExact(HEADER_SIZE, Math.multiplyExact(rowCount, VALUE_SIZE));
+    }
+
+    static long statusColumn(long rowCount) {
+        return Math.addExact(HEADER_SIZE, Math.multiplyExact(rowCount, VALUE_SIZE + 1L));
+    }
+
+    static long resultFileSize(long rowCount) {
+        return Math.addExact(HEADER_SIZE, Math.multiplyExact(rowCount, RESULT_ROW_SIZE));
+    }
+
+    /**
+     * ヘッダーの行数が、ファイルの大きさ {@code fileSize} に収まることを確かめる。
+     * 大きさを行数から計算すると、不正な行数ではオーバーフローするため、ファイルの大きさから行数の上限を求めて比べる。
+     */
+    static void checkRowCount(long rowCount, int rowSize, long fileSize) {
+        if (rowCount > (fileSize - HEADER_SIZE) / rowSize) {
+            throw new IllegalArgumentException("ファイルの形式が正しくありません");
+        }
+    }
+
+    static ByteBuffer header(byte[] magic, byte encoding, int scale, long rowCount) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(0, magic);
+        header.put(ENCODING, encoding);
+        header.put(SCALE, (byte) scale);
+        header.putLong(ROW_COUNT, rowCount);
+        return header;
+    }
+
+    /**
+     * ヘッダーを検証して読み込む。
+     */
+    static Header readHeader(ByteBuffer buffer, byte[] magic, long fileSize) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (fileSize < HEADER_SIZE) {
+            throw new IllegalArgumentException("ファイルの形式が正しくありません");
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (buffer.get(i) != magic[i]) {
+                throw new IllegalArgumentException("ファイルの形式が正しくありません");
+            }
+        }
+        byte encoding = buffer.get(ENCODING);
+        int scale = buffer.get(SCALE);
+        long rowCount = buffer.getLong(ROW_COUNT);
+        if (encoding != ENCODING_SCALED_LONG && encoding != ENCODING_DOUBLE) {
+            throw new IllegalArgumentException("サポートされていないエンコーディングです: " + encoding);
+        }
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("行数が正しくありません");
+        }
+        return new Header(encoding, scale, rowCount);
+    }
+
+    record Header(byte encoding, int scale, long rowCount) {}
+}
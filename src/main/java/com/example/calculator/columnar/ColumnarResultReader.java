@@ -0,0 +1,102 @@
+package com.example.calculator.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 結果ファイルを行番号で読む。スレッドセーフではない。
+ */
+public class ColumnarResultReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ColumnarFormat.Header header;
+    private final ByteBuffer scratch = ByteBuffer.allocate(ColumnarFormat.VALUE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private ColumnarResultReader(FileChannel channel, ColumnarFormat.Header header) {
+        this.channel = channel;
+        this.header = header;
+    }
+
+    public static ColumnarResultReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(ColumnarFormat.HEADER_SIZE);
+            channel.read(buffer, 0);
+            ColumnarFormat.Header header = ColumnarFormat.readHeader(buffer, ColumnarFormat.RESULT_MAGIC, channel.size());
+            ColumnarFormat.checkRowCount(header.rowCount(), ColumnarFormat.RESULT_ROW_SIZE, channel.size());
+            return new ColumnarResultReader(channel, header);
+        } catch (RuntimeException | IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getRowCount() {
+        return header.rowCount();
+    }
+
+    public byte getEncoding() {
+        return header.encoding();
+    }
+
+    public byte getStatus(long row) throws IOException {
+        read(ColumnarFormat.statusColumn(header.rowCount()) + checkRow(row), 1);
+        return scratch.get(0);
+    }
+
+    // スケール付きlongの結果のスケール
+    public int getScale(long row) throws IOException {
+        read(ColumnarFormat.scaleColumn(header.rowCount()) + checkRow(row), 1);
+        return scratch.get(0);
+    }
+
+    public long getUnscaled(long row) throws IOException {
+        read(ColumnarFormat.resultColumn() + checkRow(row) * ColumnarFormat.VALUE_SIZE, ColumnarFormat.VALUE_SIZE);
+        return scratch.getLong(0);
+    }
+
+    public double getDouble(long row) throws IOException {
+        read(ColumnarFormat.resultColumn() + checkRow(row) * ColumnarFormat.VALUE_SIZE, ColumnarFormat.VALUE_SIZE);
+        return scratch.getDouble(0);
+    }
+
+    /**
+     * @return 計算に失敗した行は null
+     */
+    public BigDecimal getResult(long row) throws IOException {
+        if (getStatus(row) != ColumnarFormat.STATUS_OK) {
+            return null;
+        }
+        if (header.encoding() == ColumnarFormat.ENCODING_DOUBLE) {
+            return BigDecimal.valueOf(getDouble(row));
+        }
+        return BigDecimal.valueOf(getUnscaled(row), getScale(row));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long checkRow(long row) {
+        if (row < 0 || row >= header.rowCount()) {
+            throw new IndexOutOfBoundsException("行番号が範囲外です: " + row);
+        }
+        return row;
+    }
+
+    private void read(long position, int length) throws IOException {
+        scratch.clear().limit(length);
+        while (scratch.hasRemaining()) {
+            if (channel.read(scratch, position + scratch.position()) < 0) {
+                throw new IOException("ファイルの終端に達しました");
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.calculator.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 列指向形式の入力ファイルを先頭から順に書き出す。
+ *
+ * 行数はヘッダーと列の位置を決めるため作成時に指定する。
+ * 列ごとに一定行数をバッファしてから書き込むため、行数によらずメモリ使用量は一定。
+ */
+public class ColumnarWriter implements Closeable {
+
+    private static final int BUFFER_ROWS = 64 * 1024;
+
+    private final FileChannel channel;
+    private final byte encoding;
+    private final int scale;
+    private final long rowCount;
+    private final ByteBuffer first;
+    private final ByteBuffer second;
+    private final ByteBuffer operations;
+    private long written;
+    private long flushed;
+
+    private ColumnarWriter(FileChannel channel, byte encoding, int scale, long rowCount) {
+        this.channel = channel;
+        this.encoding = encoding;
+        this.scale = scale;
+        this.rowCount = rowCount;
+        this.first = ByteBuffer.allocateDirect(BUFFER_ROWS * ColumnarFormat.VALUE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.second = ByteBuffer.allocateDirect(BUFFER_ROWS * ColumnarFormat.VALUE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.operations = ByteBuffer.allocateDirect(BUFFER_ROWS);
+    }
+
+    /**
+     * スケール付きlongの列を持つファイルを作成する。値は unscaled * 10^-scale を表す。
+     */
+    public static ColumnarWriter scaledLong(Path path, int scale, long rowCount) throws IOException {
+        if (scale < 0 || scale > ColumnarFormat.MAX_INPUT_SCALE) {
+            throw new IllegalArgumentException("スケールは0から" + ColumnarFormat.MAX_INPUT_SCALE + "の範囲で指定してください");
+        }
+        return create(path, ColumnarFormat.ENCODING_SCALED_LONG, scale, rowCount);
+    }
+
+    public static ColumnarWriter doubles(Path path, long rowCount) throws IOException {
+        return create(path, ColumnarFormat.ENCODING_DOUBLE, 0, rowCount);
+    }
+
+    private static ColumnarWriter create(Path path, byte encoding, int scale, long rowCount) throws IOException {
+        if (rowCount < 0 || rowCount > (Long.MAX_VALUE - ColumnarFormat.HEADER_SIZE) / ColumnarFormat.INPUT_ROW_SIZE) {
+            throw new IllegalArgumentException("行数が正しくありません");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        channel.write(ColumnarFormat.header(ColumnarFormat.INPUT_MAGIC, encoding, scale, rowCount), 0);
+        return new ColumnarWriter(channel, encoding, scale, rowCount);
+    }
+
+    public void append(long firstUnscaled, char operation, long secondUnscaled) throws IOException {
+        requireEncoding(ColumnarFormat.ENCODING_SCALED_LONG);
+        first.putLong(firstUnscaled);
+        second.putLong(secondUnscaled);
+        appendOperation(operation);
+    }
+
+    /**
+     * ファイルのスケールに正確に変換できない値（小数点以下の桁が多いなど）は {@link ArithmeticException} を投げる。
+     */
+    public void append(BigDecimal firstNumber, char operation, BigDecimal secondNumber) throws IOException {
+        append(firstNumber.setScale(scale).unscaledValue().longValueExact(), operation,
+            secondNumber.setScale(scale).unscaledValue().longValueExact());
+    }
+
+    public void append(double firstNumber, char operation, double secondNumber) throws IOException {
+        requireEncoding(ColumnarFormat.ENCODING_DOUBLE);
+        first.putDouble(firstNumber);
+        second.putDouble(secondNumber);
+        appendOperation(operation);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            if (written != rowCount) {
+                throw new IllegalStateException("書き込んだ行数(" + written + ")が指定した行数(" + rowCount + ")と一致しません");
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void requireEncoding(byte expected) {
+        if (encoding != expected) {
+            throw new IllegalStateException("ファイルのエンコーディングと一致しない値です");
+        }
+        if (written >= rowCount) {
+            throw new IllegalStateException("指定した行数を超えて書き込むことはできません");
+        }
+    }
+
+    private void appendOperation(char operation) throws IOException {
+        operations.put((byte) operation);
+        written++;
+        if (!operations.hasRemaining()) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        write(first, ColumnarFormat.firstColumn() + flushed * ColumnarFormat.VALUE_SIZE);
+        write(second, ColumnarFormat.secondColumn(rowCount) + flushed * ColumnarFormat.VALUE_SIZE);
+        write(operations, ColumnarFormat.operationColumn(rowCount) + flushed);
+        flushed = written;
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.calculator.columnar;
+
+/**
+ * Vector APIを使わない実装。jdk.incubator.vector が有効でない場合に使う。
+ */
+final class ScalarArithmeticKernel implements ArithmeticKernel {
+
+    @Override
+    public void apply(String operation, double[] first, double[] second, double[] result, byte[] status, int length) {
+        ArithmeticKernels.checkLength(length, first.length, second.length, result.length, status.length);
+        switch (operation) {
+            case "+" -> {
+                for (int i = 0; i < length; i++) {
+                    status[i] = ArithmeticKernels.checkOverflow(first[i], second[i], first[i] + second[i], result, i);
+                }
+            }
+            case "-" -> {
+                for (int i = 0; i < length; i++) {
+                    status[i] = ArithmeticKernels.checkOverflow(first[i], second[i], first[i] - second[i], result, i);
+                }
+            }
+            case "*" -> {
+                for (int i = 0; i < length; i++) {
+                    status[i] = ArithmeticKernels.checkOverflow(first[i], second[i], first[i] * second[i], result, i);
+                }
+            }
+            case "/" -> {
+                for (int i = 0; i < length; i++) {
+                    status[i] = ArithmeticKernels.divide(first[i], second[i], result, i);
+                }
+            }
+            default -> throw ArithmeticKernels.unsupported(operation);
+        }
+    }
+
+    @Override
+    public void apply(String operation, long[] first, long[] second, long[] result, byte[] status, int length) {
+        ArithmeticKernels.checkLength(length, first.length, second.length, result.length, status.length);
+        switch (operation) {
+            case "+" -> {
+                for (int i = 0; i < length; i++) {
+                    status[i] = ArithmeticKernels.add(first[i], second[i], result, i);
+                }
+            }
+            case "-" -> {
+                for (int i = 0; i < length; i++) {
+                    status[i] = ArithmeticKernels.subtract(first[i], second[i], result, i);
+                }
+            }
+            case "*" -> {
+                for (int i = 0; i < length; i++) {
+                    status[i] = ArithmeticKernels.multiply(first[i], second[i], result, i);
+                }
+            }
+            default -> throw ArithmeticKernels.unsupported(operation);
+        }
+    }
+
+    @Override
+    public void percentage(double[] values, double[] result, int length) {
+        ArithmeticKernels.checkLength(length, values.length, result.length);
+        for (int i = 0; i < length; i++) {
+            result[i] = values[i] / 100.0;
+        }
+    }
+
+    @Override
+    public void square(double[] values, double[] result, int length) {
+        ArithmeticKernels.checkLength(length, values.length, result.length);
+        for (int i = 0; i < length; i++) {
+            result[i] = values[i] * values[i];
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.calculator.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * 内容のハッシュを含むURL（例: /css/calculator-&lt;md5&gt;.css）を解決する {@link VersionResourceResolver}。
+ *
+ * URLのハッシュがファイルの内容と一致した場合だけ、応答に長期間・immutable の Cache-Control を付ける。
+ * ハッシュのないURL（/js/calculator.js）はこのヘッダーを付けず、ハンドラーに設定した Cache-Control のままにする。
+ */
+class FingerprintedResourceResolver extends VersionResourceResolver {
+
+    private final String cacheControl;
+
+    FingerprintedResourceResolver(CacheControl cacheControl) {
+        this.cacheControl = cacheControl.getHeaderValue();
+        addContentVersionStrategy("/**");
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = super.resolveResourceInternal(request, requestPath, locations, chain);
+        // ハッシュを取り除いて解決し、内容のハッシュと一致した場合だけ HttpResource（ETag付き）が返る
+        if (resource instanceof HttpResource versioned) {
+            return new FingerprintedResource(resource, versioned, cacheControl);
+        }
+        return resource;
+    }
+
+    /**
+     * ハッシュが一致したファイル。EncodedResourceResolver が .gz に置き換えても、このヘッダーは引き継がれる。
+     */
+    private static final class FingerprintedResource extends AbstractResource implements HttpResource {
+
+        private final Resource resource;
+        private final HttpResource headers;
+        private final String cacheControl;
+
+        FingerprintedResource(Resource resource, HttpResource headers, String cacheControl) {
+            this.resource = resource;
+            this.headers = headers;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders responseHeaders = new HttpHeaders();
+            responseHeaders.putAll(headers.getResponseHeaders());
+            responseHeaders.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return responseHeaders;
+        }
+
+        @Override
+        public boolean exists() {
+            return resource.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return resource.isReadable();
+        }
+
+        @Override
+        public boolean isFile() {
+            return resource.isFile();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return resource.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return resource.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return resource.getFile();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return resource.getInputStream();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return resource.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return resource.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return resource.createRelative(relativePath);
+        }
+
+        @Override
+        @Nullable
+        public String getFilename() {
+            return resource.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return resource.getDescription();
+        }
+    }
+}
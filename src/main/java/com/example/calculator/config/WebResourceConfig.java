@@ -0,0 +1,44 @@
+package com.example.calculator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * 静的ファイルのキャッシュ設定。
+ *
+ * CSS/JSはファイル内容のハッシュを含むURL（例: /css/calculator-&lt;md5&gt;.css）で参照し、
+ * 内容が変わればURLも変わるため、ハッシュが一致した応答はブラウザに再検証なしで長期間キャッシュさせる。
+ * ハッシュのないURL（/js/calculator.js）は内容が変わってもURLが変わらないため、毎回再検証させる（no-cache）。
+ * ビルド時に作った .gz があれば、Accept-Encoding に応じてそちらを返す。
+ * テンプレート中の @{/css/...} は ResourceUrlEncodingFilter がハッシュ付きのURLに書き換える。
+ * 画面（/）のETagは {@link com.example.calculator.controller.CalculatorController} がキーパッドの状態から作る。
+ */
+@Configuration
+public class WebResourceConfig implements WebMvcConfigurer {
+
+    @Value("${calculator.assets.cache-period:365d}")
+    private Duration cachePeriod = Duration.ofDays(365);
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        CacheControl fingerprinted = CacheControl.maxAge(cachePeriod).cachePublic().immutable();
+        registry.addResourceHandler("/css/**")
+            .addResourceLocations("classpath:/static/css/")
+            .setCacheControl(CacheControl.noCache())
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new FingerprintedResourceResolver(fingerprinted));
+        registry.addResourceHandler("/js/**")
+            .addResourceLocations("classpath:/static/js/")
+            .setCacheControl(CacheControl.noCache())
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new FingerprintedResourceResolver(fingerprinted));
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.calculator.controller;
+
+import com.example.calculator.admission.AdmissionControlFilter;
+import com.example.calculator.history.HistoryEntry;
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.keypad.KeypadEvent;
+import com.example.calculator.keypad.KeypadEventLog;
+import com.example.calculator.keypad.KeypadStateStore;
+import com.example.calculator.matrix.MatrixMode;
+import com.example.calculator.matrix.MatrixOperation;
+import com.example.calculator.matrix.MatrixResult;
+import com.example.calculator.matrix.MatrixService;
+import com.example.calculator.model.CalculationRequest;
+import com.example.calculator.model.CalculationResult;
+import com.example.calculator.model.ExpressionRequest;
+import com.example.calculator.model.ExpressionResult;
+import com.example.calculator.model.JobRequest;
+import com.example.calculator.service.BatchCalculationService;
+import com.example.calculator.service.CachingCalculatorService;
+import com.example.calculator.service.CalculationJob;
+import com.example.calculator.service.CalculatorService;
+import com.example.calculator.service.ExpressionService;
+import com.example.calculator.service.JobService;
+import com.example.calculator.service.StreamingCalculationService;
+import com.example.calculator.stats.StatisticsMode;
+import com.example.calculator.stats.StatisticsResult;
+import com.example.calculator.stats.StatisticsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@RestController
+@RequestMapping("/api")
+public class CalculatorApiController {
+
+    @Autowired
+    private BatchCalculationService batchCalculationService;
+
+    @Autowired
+    private ExpressionService expressionService;
+
+    @Autowired
+    private KeypadStateStore keypadStateStore;
+
+    @Autowired
+    private CalculatorService calculatorService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private StreamingCalculationService streamingCalculationService;
+
+    @Autowired
+    private KeypadEventLog keypadEventLog;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private MatrixService matrixService;
+
+    // calculator.admission.enabled=false の場合は存在しない
+    @Autowired(required = false)
+    private AdmissionControlFilter admissionControlFilter;
+
+    // 結果取得1回あたりの最大件数
+    private static final int MAX_RESULT_PAGE = 10000;
+
+    @PostMapping("/calculate/batch")
+    public ResponseEntity<Map<String, Object>> calculateBatch(@RequestBody List<CalculationRequest> requests) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<CalculationResult> results = batchCalculationService.calculateAll(requests);
+
+            response.put("success", true);
+            response.put("count", results.size());
+            response.put("results", results);
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping(value = "/calculate/stream", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> calculateStream(HttpServletRequest request) throws IOException {
+        StreamingCalculationService.Format format =
+            StreamingCalculationService.Format.of(MediaType.parseMediaType(request.getContentType()));
+        InputStream input = request.getInputStream();
+
+        StreamingResponseBody body = output -> streamingCalculationService.process(input, output, format);
+        // 大きなファイルは時間がかかるため、このエンドポイントだけ非同期処理のタイムアウトを延ばす
+        long timeout = streamingCalculationService.getTimeout().toMillis();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(body, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                ((AsyncWebRequest) webRequest).setTimeout(timeout);
+            }
+        });
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(body);
+    }
+
+    @PostMapping(value = "/stats", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> statistics(HttpServletRequest request,
+                                                          @RequestParam(defaultValue = "decimal") String mode,
+                                                          @RequestParam(required = false) List<BigDecimal> percentiles)
+            throws IOException {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            StatisticsResult result = statisticsService.compute(
+                request.getInputStream(), StatisticsMode.of(mode), percentiles);
+
+            response.put("success", true);
+            response.put("mode", result.mode().label());
+            response.put("count", result.count());
+            response.put("sum", result.sum());
+            response.put("mean", result.mean());
+            response.put("variance", result.variance());
+            response.put("sampleVariance", result.sampleVariance());
+            response.put("standardDeviation", result.standardDeviation());
+            response.put("min", result.min());
+            response.put("max", result.max());
+            response.put("median", result.median());
+            response.put("percentiles", result.percentiles());
+            response.put("readNanos", result.readNanos());
+            response.put("computeNanos", result.computeNanos());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping(value = "/matrix/{operation}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> matrix(HttpServletRequest request,
+                                                      @PathVariable String operation,
+                                                      @RequestParam(defaultValue = "double") String mode)
+            throws IOException {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            MatrixResult result = matrixService.compute(
+                request.getInputStream(), MatrixOperation.of(operation), MatrixMode.of(mode));
+
+            response.put("success", true);
+            response.put("operation", result.operation().label());
+            response.put("mode", result.mode().label());
+            response.put("result", result.result());
+            if (result.logAbsDeterminant() != null) {
+                response.put("logAbsDeterminant", result.logAbsDeterminant());
+                response.put("determinantSign", result.determinantSign());
+            }
+            response.put("readNanos", result.readNanos());
+            response.put("computeNanos", result.computeNanos());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/evaluate")
+    public ResponseEntity<Map<String, Object>> evaluate(@Valid @RequestBody ExpressionRequest request,
+                                                        BindingResult bindingResult) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (bindingResult.hasErrors()) {
+            response.put("success", false);
+            response.put("error", bindingResult.getAllErrors().get(0).getDefaultMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            ExpressionResult result = expressionService.evaluate(request.getExpression());
+
+            response.put("success", true);
+            response.put("expression", result.getExpression());
+            response.put("result", result.getResult());
+            response.put("cached", result.isCached());
+            response.put("parseNanos", result.getParseNanos());
+            response.put("evalNanos", result.getEvalNanos());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/evaluate/stats")
+    public Map<String, Object> evaluateStatistics() {
+        return expressionService.getStatistics();
+    }
+
+    @GetMapping("/keypad/store/stats")
+    public Map<String, Object> keypadStoreStatistics() {
+        return keypadStateStore.getStatistics();
+    }
+
+    @GetMapping("/keypad/events")
+    public Map<String, Object> keypadEvents(@RequestParam(defaultValue = "100") int limit) {
+        List<KeypadEvent> events = keypadEventLog.recent(limit);
+
+        Map<String, Object> response = new HashMap<>(keypadEventLog.getStatistics());
+        response.put("success", true);
+        response.put("count", events.size());
+        response.put("events", events);
+        return response;
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStatistics() {
+        if (calculatorService instanceof CachingCalculatorService cachingCalculatorService) {
+            return cachingCalculatorService.getStatistics();
+        }
+        return Map.of("enabled", false);
+    }
+
+    @GetMapping("/admission/stats")
+    public Map<String, Object> admissionStatistics() {
+        if (admissionControlFilter != null) {
+            return admissionControlFilter.getStatistics();
+        }
+        return Map.of("enabled", false);
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitJob(@Valid @RequestBody JobRequest request,
+                                                         BindingResult bindingResult) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (bindingResult.hasErrors()) {
+            response.put("success", false);
+            response.put("error", bindingResult.getAllErrors().get(0).getDefaultMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            CalculationJob job = jobService.submit(request.getOperations(), request.getConcurrency());
+            response.putAll(describeJob(job));
+            response.put("success", true);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> jobStatus(@PathVariable String id) {
+        CalculationJob job = jobService.getJob(id);
+        if (job == null) {
+            return jobNotFound();
+        }
+
+        Map<String, Object> response = describeJob(job);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/jobs/{id}/results")
+    public ResponseEntity<Map<String, Object>> jobResults(@PathVariable String id,
+                                                          @RequestParam(defaultValue = "0") int offset,
+                                                          @RequestParam(defaultValue = "1000") int limit) {
+        CalculationJob job = jobService.getJob(id);
+        if (job == null) {
+            return jobNotFound();
+        }
+
+        List<CalculationResult> results = job.getResults(offset, Math.min(limit, MAX_RESULT_PAGE));
+
+        Map<String, Object> response = describeJob(job);
+        response.put("success", true);
+        response.put("offset", Math.max(0, offset));
+        response.put("count", results.size());
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String id) {
+        CalculationJob job = jobService.cancel(id);
+        if (job == null) {
+            return jobNotFound();
+        }
+
+        Map<String, Object> response = describeJob(job);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> history(@RequestParam(defaultValue = "1") long from,
+                                                       @RequestParam(defaultValue = "100") int limit) {
+        Map<String, Object> response = new HashMap<>(historyService.getStatistics());
+        if (!historyService.isEnabled()) {
+            response.put("success", false);
+            response.put("error", "計算履歴は無効になっています");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+
+        List<HistoryEntry> entries = historyService.read(from, Math.min(limit, MAX_RESULT_PAGE));
+
+        response.put("success", true);
+        response.put("count", entries.size());
+        response.put("entries", entries);
+        // 次のページは from にこの値を指定する
+        long next = entries.isEmpty() ? Math.max(from, 1) : entries.get(entries.size() - 1).sequence() + 1;
+        response.put("nextSequence", next);
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> describeJob(CalculationJob job) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", job.getId());
+        status.put("status", job.getStatus());
+        status.put("total", job.getTotal());
+        status.put("completed", job.getCompleted());
+        status.put("failed", job.getFailed());
+        status.put("concurrency", job.getConcurrency());
+        status.put("submittedAt", job.getSubmittedAt());
+        if (job.getStartedAt() != null) {
+            status.put("startedAt", job.getStartedAt());
+        }
+        if (job.getFinishedAt() != null) {
+            status.put("finishedAt", job.getFinishedAt());
+        }
+        return status;
+    }
+
+    private ResponseEntity<Map<String, Object>> jobNotFound() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", "ジョブが見つかりません");
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+}
@@ -1,5 +1,12 @@
 package com.example.calculator.controller;
 
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.keypad.KeypadEngine;
+import com.example.calculator.keypad.KeypadEventLog;
+import com.example.calculator.keypad.KeypadSessionLock;
+import com.example.calculator.keypad.KeypadState;
+import com.example.calculator.keypad.KeypadStateCodec;
+import com.example.calculator.keypad.KeypadStateStore;
 import com.example.calculator.model.CalculationRequest;
 import com.example.calculator.service.CalculatorService;
 import jakarta.validation.Valid;
@@ -9,234 +16,294 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ResponseBody;
-import org.springframework.web.bind.annotation.SessionAttributes;
-import org.springframework.web.bind.annotation.SessionAttribute;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 @Controller
-@SessionAttributes("calculationRequest")
 public class CalculatorController {
 
+    // /button-sequence で1回に受け付けるボタン数の上限
+    static final int MAX_SEQUENCE_LENGTH = 64;
+
+    // 画面のETagに含める起動ごとの値
+    private final String pageVersion = Long.toString(System.currentTimeMillis(), 36);
+
     @Autowired
     private CalculatorService calculatorService;
 
+    @Autowired
+    private KeypadStateCodec keypadStateCodec;
+
+    @Autowired
+    private KeypadStateStore keypadStateStore;
+
+    @Autowired
+    private KeypadEventLog keypadEventLog;
+
+    @Autowired
+    private KeypadEngine keypadEngine;
+
+    @Autowired
+    private HistoryService historyService;
+
     @GetMapping("/")
-    public String index(Model model) {
+    public String index(Model model, HttpSession session, HttpServletResponse response, WebRequest webRequest) {
+        // 表示内容はセッションごとに異なるため共有キャッシュには置かせず、毎回ETagで再検証させる
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
         if (!model.containsAttribute("calculationRequest")) {
-            model.addAttribute("calculationRequest", new CalculationRequest());
+            // フラッシュ属性（メッセージや入力エラー）がなければ、画面はキーパッドの状態だけで決まる。
+            // ETagを描画前に作り、一致すればテンプレートを描画せずに304を返す
+            CalculationRequest request;
+            Lock lock = lockKeypadState(session);
+            try {
+                request = keypadStateStore.load(session).toRequest();
+            } finally {
+                lock.unlock();
+            }
+            if (webRequest.checkNotModified(pageEtag(request))) {
+                return null;
+            }
+            model.addAttribute("calculationRequest", request);
         }
         return "calculator";
     }
 
+    // 同じセッションの同時リクエストが KeypadState を同時に変更しないよう、load から save まで持つ
+    private static Lock lockKeypadState(HttpSession session) {
+        Lock lock = KeypadSessionLock.of(session);
+        lock.lock();
+        return lock;
+    }
+
+    // 強いETagが付いているとTomcatは応答を圧縮しないため、弱いETagにする。
+    // テンプレートや静的ファイルのURLは再起動しないと変わらないため、起動ごとの値も含める
+    private String pageEtag(CalculationRequest request) {
+        String key = request.getDisplayValue() + '\n' + request.getPreviousValue() + '\n'
+            + request.getCurrentOperation() + '\n' + request.isShouldResetDisplay();
+        return "W/\"" + pageVersion + '-' + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
     @PostMapping("/calculate")
     public String calculate(@Valid @ModelAttribute CalculationRequest request, 
                           BindingResult bindingResult, 
-                          RedirectAttributes redirectAttributes) {
+                          RedirectAttributes redirectAttributes,
+                          HttpSession session) {
         
-        if (bindingResult.hasErrors()) {
-            redirectAttributes.addFlashAttribute("org.springframework.validation.BindingResult.calculationRequest", bindingResult);
-            redirectAttributes.addFlashAttribute("calculationRequest", request);
-            redirectAttributes.addFlashAttribute("error", "入力値にエラーがあります");
-            return "redirect:/";
-        }
-
+        Lock lock = lockKeypadState(session);
         try {
-            BigDecimal result = calculatorService.calculate(
-                request.getFirstNumber(), 
-                request.getSecondNumber(), 
-                request.getOperation()
-            );
-            
-            request.setDisplayValue(result.toString());
-            redirectAttributes.addFlashAttribute("calculationRequest", request);
-            redirectAttributes.addFlashAttribute("success", "計算が完了しました");
-            
-        } catch (Exception e) {
-            redirectAttributes.addFlashAttribute("calculationRequest", request);
-            redirectAttributes.addFlashAttribute("error", e.getMessage());
-        }
+            // キーパッドの状態を引き継ぎ、計算結果を表示値として保存する
+            KeypadState state = keypadStateStore.load(session);
+            state.copyTo(request);
+
+            if (bindingResult.hasErrors()) {
+                keypadStateStore.save(session, state);
+                redirectAttributes.addFlashAttribute("org.springframework.validation.BindingResult.calculationRequest", bindingResult);
+                redirectAttributes.addFlashAttribute("calculationRequest", request);
+                redirectAttributes.addFlashAttribute("error", "入力値にエラーがあります");
+                return "redirect:/";
+            }
+
+            try {
+                BigDecimal result = calculatorService.calculate(
+                    request.getFirstNumber(), 
+                    request.getSecondNumber(), 
+                    request.getOperation()
+                );
 
-        return "redirect:/";
+                state.setDisplayValue(result);
+                request.setDisplayValue(state.getDisplayValue());
+                redirectAttributes.addFlashAttribute("calculationRequest", request);
+                redirectAttributes.addFlashAttribute("success", "計算が完了しました");
+                historyService.record("calculate", request.getOperation(),
+                    request.getFirstNumber(), request.getSecondNumber(), result, null);
+
+            } catch (Exception e) {
+                redirectAttributes.addFlashAttribute("calculationRequest", request);
+                redirectAttributes.addFlashAttribute("error", e.getMessage());
+                historyService.record("calculate", request.getOperation(),
+                    request.getFirstNumber(), request.getSecondNumber(), null, e.getMessage());
+            }
+
+            keypadStateStore.save(session, state);
+            return "redirect:/";
+        } finally {
+            lock.unlock();
+        }
     }
 
     @PostMapping("/button")
     public String handleButton(@RequestParam String button, 
-                             @SessionAttribute(value = "calculationRequest", required = false) CalculationRequest sessionRequest,
+                             HttpSession session,
                              RedirectAttributes redirectAttributes) {
         
+        Lock lock = lockKeypadState(session);
         try {
-            // セッションから状態を取得、なければ新しいインスタンスを作成
-            CalculationRequest request = sessionRequest != null ? sessionRequest : new CalculationRequest();
-            
-            // デバッグログを追加
-            System.out.println("Button clicked: " + button);
-            System.out.println("Current display: " + request.getDisplayValue());
-            
-            CalculationRequest updatedRequest = handleButtonClick(request, button);
-            
-            // 更新された状態をFlashAttributeに保存
-            redirectAttributes.addFlashAttribute("calculationRequest", updatedRequest);
-            redirectAttributes.addFlashAttribute("success", "ボタンがクリックされました: " + button);
-            
-            System.out.println("Updated display: " + updatedRequest.getDisplayValue());
-            
-        } catch (Exception e) {
-            CalculationRequest request = sessionRequest != null ? sessionRequest : new CalculationRequest();
-            redirectAttributes.addFlashAttribute("calculationRequest", request);
-            redirectAttributes.addFlashAttribute("error", "エラー: " + e.getMessage());
-            System.err.println("Button click error: " + e.getMessage());
-        }
+            long start = System.nanoTime();
+            // ストアから状態を取得、なければ新しいインスタンスを作成
+            KeypadState state = keypadStateStore.load(session);
+            String displayBefore = state.getDisplayValue();
 
-        return "redirect:/";
+            try {
+                keypadEngine.handleButtonClick(state, button);
+                keypadStateStore.save(session, state);
+
+                // 更新された状態をFlashAttributeに保存（次のリクエストで変更されないよう、フォームの形に変換する）
+                redirectAttributes.addFlashAttribute("calculationRequest", state.toRequest());
+                redirectAttributes.addFlashAttribute("success", "ボタンがクリックされました: " + button);
+
+                keypadEventLog.record("button", button, displayBefore, state.getDisplayValue(), null,
+                    System.nanoTime() - start);
+
+            } catch (Exception e) {
+                // 失敗した操作は状態を変更しない
+                keypadStateStore.save(session, state);
+                redirectAttributes.addFlashAttribute("calculationRequest", state.toRequest());
+                redirectAttributes.addFlashAttribute("error", "エラー: " + e.getMessage());
+                keypadEventLog.record("button", button, displayBefore, state.getDisplayValue(), e.getMessage(),
+                    System.nanoTime() - start);
+            }
+
+            return "redirect:/";
+        } finally {
+            lock.unlock();
+        }
     }
 
     @PostMapping("/button-ajax")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> handleButtonAjax(@RequestParam String button, 
-                                                               @SessionAttribute(value = "calculationRequest", required = false) CalculationRequest sessionRequest,
                                                                HttpSession session) {
-        Map<String, Object> response = new HashMap<>();
-        
+        Lock lock = lockKeypadState(session);
         try {
-            // セッションから状態を取得、なければ新しいインスタンスを作成
-            CalculationRequest request = sessionRequest != null ? sessionRequest : new CalculationRequest();
-            
-            System.out.println("AJAX Button clicked: " + button);
-            System.out.println("Current display: " + request.getDisplayValue());
-            
-            CalculationRequest updatedRequest = handleButtonClick(request, button);
-            
-            // セッションに状態を保存
-            session.setAttribute("calculationRequest", updatedRequest);
-            
-            response.put("success", true);
-            response.put("displayValue", updatedRequest.getDisplayValue());
-            response.put("message", "ボタンがクリックされました: " + button);
-            
-            System.out.println("Updated display: " + updatedRequest.getDisplayValue());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("error", e.getMessage());
-            System.err.println("AJAX Button click error: " + e.getMessage());
-            
-            return ResponseEntity.badRequest().body(response);
+            Map<String, Object> response = new HashMap<>();
+            long start = System.nanoTime();
+            String displayBefore = null;
+
+            try {
+                // ストアから状態を取得、なければ新しいインスタンスを作成
+                KeypadState state = keypadStateStore.load(session);
+                displayBefore = state.getDisplayValue();
+
+                keypadEngine.handleButtonClick(state, button);
+
+                // ストアに状態を保存
+                keypadStateStore.save(session, state);
+
+                response.put("success", true);
+                response.put("displayValue", state.getDisplayValue());
+                response.put("message", "ボタンがクリックされました: " + button);
+
+                keypadEventLog.record("button-ajax", button, displayBefore, state.getDisplayValue(), null,
+                    System.nanoTime() - start);
+
+                return ResponseEntity.ok(response);
+
+            } catch (Exception e) {
+                response.put("success", false);
+                response.put("error", e.getMessage());
+                keypadEventLog.record("button-ajax", button, displayBefore, displayBefore, e.getMessage(),
+                    System.nanoTime() - start);
+
+                return ResponseEntity.badRequest().body(response);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
-    private CalculationRequest handleButtonClick(CalculationRequest request, String button) {
-        if (request == null) {
-            request = new CalculationRequest();
+    // 複数のボタン操作を順に処理し、最後の表示状態だけを返す。途中でエラーになった場合はその直前の状態を保存する
+    @PostMapping("/button-sequence")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> handleButtonSequence(@RequestParam List<String> buttons,
+                                                                   HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (buttons.isEmpty() || buttons.size() > MAX_SEQUENCE_LENGTH) {
+            response.put("success", false);
+            response.put("error", "ボタンは1から" + MAX_SEQUENCE_LENGTH + "個まで指定してください");
+            return ResponseEntity.badRequest().body(response);
         }
 
-        switch (button) {
-            case "C":
-                return new CalculationRequest();
-                
-            case "CE":
-                request.setDisplayValue("0");
-                return request;
-                
-            case "±":
-                if (!request.getDisplayValue().equals("0")) {
-                    if (request.getDisplayValue().startsWith("-")) {
-                        request.setDisplayValue(request.getDisplayValue().substring(1));
-                    } else {
-                        request.setDisplayValue("-" + request.getDisplayValue());
-                    }
-                }
-                return request;
-                
-            case "%":
-                try {
-                    BigDecimal number = new BigDecimal(request.getDisplayValue());
-                    BigDecimal result = calculatorService.calculatePercentage(number);
-                    request.setDisplayValue(result.toString());
-                } catch (Exception e) {
-                    throw new RuntimeException("パーセント計算エラー: " + e.getMessage());
-                }
-                return request;
-                
-            case "√":
-                try {
-                    BigDecimal number = new BigDecimal(request.getDisplayValue());
-                    BigDecimal result = calculatorService.calculateSquareRoot(number);
-                    request.setDisplayValue(result.toString());
-                } catch (Exception e) {
-                    throw new RuntimeException("平方根計算エラー: " + e.getMessage());
-                }
-                return request;
-                
-            case "x²":
+        Lock lock = lockKeypadState(session);
+        try {
+            long start = System.nanoTime();
+            KeypadState state = keypadStateStore.load(session);
+            String displayBefore = state.getDisplayValue();
+            int processed = 0;
+            String error = null;
+
+            for (String button : buttons) {
                 try {
-                    BigDecimal number = new BigDecimal(request.getDisplayValue());
-                    BigDecimal result = calculatorService.calculatePower(number, new BigDecimal("2"));
-                    request.setDisplayValue(result.toString());
+                    keypadEngine.press(state, button);
+                    processed++;
                 } catch (Exception e) {
-                    throw new RuntimeException("二乗計算エラー: " + e.getMessage());
-                }
-                return request;
-                
-            case "=":
-                if (!request.getPreviousValue().isEmpty() && !request.getCurrentOperation().isEmpty()) {
-                    try {
-                        BigDecimal first = new BigDecimal(request.getPreviousValue());
-                        BigDecimal second = new BigDecimal(request.getDisplayValue());
-                        BigDecimal result = calculatorService.calculate(first, second, request.getCurrentOperation());
-                        request.setDisplayValue(result.toString());
-                        request.setPreviousValue("");
-                        request.setCurrentOperation("");
-                        request.setShouldResetDisplay(true);
-                    } catch (Exception e) {
-                        throw new RuntimeException("計算エラー: " + e.getMessage());
-                    }
-                }
-                return request;
-                
-            case "+":
-            case "-":
-            case "*":
-            case "/":
-                if (!request.getPreviousValue().isEmpty() && !request.getCurrentOperation().isEmpty()) {
-                    // 連続計算
-                    try {
-                        BigDecimal first = new BigDecimal(request.getPreviousValue());
-                        BigDecimal second = new BigDecimal(request.getDisplayValue());
-                        BigDecimal result = calculatorService.calculate(first, second, request.getCurrentOperation());
-                        request.setPreviousValue(result.toString());
-                        request.setCurrentOperation(button);
-                        request.setShouldResetDisplay(true);
-                    } catch (Exception e) {
-                        throw new RuntimeException("計算エラー: " + e.getMessage());
-                    }
-                } else {
-                    request.setPreviousValue(request.getDisplayValue());
-                    request.setCurrentOperation(button);
-                    request.setShouldResetDisplay(true);
-                    // 演算子ボタンをクリックした後は、ディスプレイをクリアしない
-                    // 次の数字入力まで現在の値を保持
+                    error = e.getMessage();
+                    break;
                 }
-                return request;
-                
-            default:
-                // 数字ボタン
-                if (request.isShouldResetDisplay() || request.getDisplayValue().equals("0")) {
-                    request.setDisplayValue(button);
-                    request.setShouldResetDisplay(false);
-                } else {
-                    if (request.getDisplayValue().length() < 15) { // 表示桁数制限
-                        request.setDisplayValue(request.getDisplayValue() + button);
-                    }
-                }
-                return request;
+            }
+            keypadStateStore.save(session, state);
+            keypadEventLog.record("button-sequence", String.join(" ", buttons.subList(0, Math.min(buttons.size(), processed + 1))),
+                displayBefore, state.getDisplayValue(), error, System.nanoTime() - start);
+
+            response.put("success", error == null);
+            response.put("processed", processed);
+            response.put("displayValue", state.getDisplayValue());
+            response.put("currentOperation", state.getCurrentOperation());
+            response.put("shouldResetDisplay", state.isShouldResetDisplay());
+            if (error != null) {
+                response.put("error", error);
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // セッションを使わないキーパッド。状態は改ざん検知付きトークンとしてクライアントが保持する
+    @PostMapping("/button-token")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> handleButtonToken(@RequestParam String button,
+                                                                @RequestParam(required = false) String token) {
+        Map<String, Object> response = new HashMap<>();
+        long start = System.nanoTime();
+        String displayBefore = null;
+
+        try {
+            KeypadState state = keypadStateCodec.decode(token);
+            displayBefore = state.getDisplayValue();
+            keypadEngine.handleButtonClick(state, button);
+
+            response.put("success", true);
+            response.put("displayValue", state.getDisplayValue());
+            response.put("token", keypadStateCodec.encode(state));
+            response.put("message", "ボタンがクリックされました: " + button);
+
+            keypadEventLog.record("button-token", button, displayBefore, state.getDisplayValue(), null,
+                System.nanoTime() - start);
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            keypadEventLog.record("button-token", button, displayBefore, displayBefore, e.getMessage(),
+                System.nanoTime() - start);
+
+            return ResponseEntity.badRequest().body(response);
         }
     }
 }
@@ -0,0 +1,61 @@
+package com.example.calculator.expression;
+
+import com.example.calculator.service.CalculatorService;
+
+import java.math.BigDecimal;
+
+/**
+ * 解析済みの式木。状態を持たないため、キャッシュして複数スレッドから再利用できる。
+ */
+public sealed interface ExpressionNode {
+
+    BigDecimal evaluate(CalculatorService calculatorService);
+
+    record Number(BigDecimal value) implements ExpressionNode {
+        @Override
+        public BigDecimal evaluate(CalculatorService calculatorService) {
+            return value;
+        }
+    }
+
+    record Negate(ExpressionNode operand) implements ExpressionNode {
+        @Override
+        public BigDecimal evaluate(CalculatorService calculatorService) {
+            return operand.evaluate(calculatorService).negate();
+        }
+    }
+
+    record Binary(String operation, ExpressionNode left, ExpressionNode right) implements ExpressionNode {
+        @Override
+        public BigDecimal evaluate(CalculatorService calculatorService) {
+            return calculatorService.calculate(
+                left.evaluate(calculatorService),
+                right.evaluate(calculatorService),
+                operation
+            );
+        }
+    }
+
+    record SquareRoot(ExpressionNode operand) implements ExpressionNode {
+        @Override
+        public BigDecimal evaluate(CalculatorService calculatorService) {
+            return calculatorService.calculateSquareRoot(operand.evaluate(calculatorService));
+        }
+    }
+
+    record Square(ExpressionNode operand) implements ExpressionNode {
+        private static final BigDecimal TWO = new BigDecimal("2");
+
+        @Override
+        public BigDecimal evaluate(CalculatorService calculatorService) {
+            return calculatorService.calculatePower(operand.evaluate(calculatorService), TWO);
+        }
+    }
+
+    record Percentage(ExpressionNode operand) implements ExpressionNode {
+        @Override
+        public BigDecimal evaluate(CalculatorService calculatorService) {
+            return calculatorService.calculatePercentage(operand.evaluate(calculatorService));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.calculator.expression;
+
+import java.math.BigDecimal;
+
+/**
+ * 中置記法の式を再帰下降で解析して {@link ExpressionNode} に変換する。
+ *
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/') unary)*
+ * unary      := ('-' | '+' | '√') unary | postfix
+ * postfix    := primary ('²' | '%')*
+ * primary    := number | '(' expression ')'
+ * </pre>
+ *
+ * 入力は {@link #normalize(String)} で正規化済みであることを前提とする。
+ */
+public class ExpressionParser {
+
+    // 深い入れ子によるスタックオーバーフローを防ぐ
+    private static final int MAX_DEPTH = 200;
+
+    private final String text;
+    private int position;
+    private int depth;
+
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    public static ExpressionNode parse(String normalized) {
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("式が空です");
+        }
+        ExpressionParser parser = new ExpressionParser(normalized);
+        ExpressionNode node = parser.parseExpression();
+        if (parser.position < normalized.length()) {
+            throw parser.error("予期しない文字です");
+        }
+        return node;
+    }
+
+    /**
+     * 空白を除去し、記号の表記ゆれ（×, ÷, sqrt, ^2 など）を統一する。
+     * キャッシュのキーとして使うため、解析よりも十分に安価であること。
+     */
+    public static String normalize(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("式は必須です");
+        }
+        StringBuilder sb = new StringBuilder(expression.length());
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            switch (c) {
+                case ' ', '\t', '\r', '\n' -> { }
+                case '×', '＊' -> sb.append('*');
+                case '÷', '／' -> sb.append('/');
+                case '－', '−' -> sb.append('-');
+                case '＋' -> sb.append('+');
+                case '^' -> {
+                    if (i + 1 < expression.length() && expression.charAt(i + 1) == '2') {
+                        sb.append('²');
+                        i++;
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                default -> {
+                    if (expression.startsWith("sqrt", i)) {
+                        sb.append('√');
+                        i += 3;
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private ExpressionNode parseExpression() {
+        enter();
+        ExpressionNode node = parseTerm();
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c != '+' && c != '-') {
+                break;
+            }
+            position++;
+            node = new ExpressionNode.Binary(String.valueOf(c), node, parseTerm());
+        }
+        depth--;
+        return node;
+    }
+
+    private ExpressionNode parseTerm() {
+        ExpressionNode node = parseUnary();
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c != '*' && c != '/') {
+                break;
+            }
+            position++;
+            node = new ExpressionNode.Binary(String.valueOf(c), node, parseUnary());
+        }
+        return node;
+    }
+
+    private ExpressionNode parseUnary() {
+        if (position >= text.length()) {
+            throw error("式が途中で終わっています");
+        }
+        char c = text.charAt(position);
+        switch (c) {
+            case '-' -> {
+                position++;
+                enter();
+                ExpressionNode operand = parseUnary();
+                depth--;
+                return new ExpressionNode.Negate(operand);
+            }
+            case '+' -> {
+                position++;
+                enter();
+                ExpressionNode operand = parseUnary();
+                depth--;
+                return operand;
+            }
+            case '√' -> {
+                position++;
+                enter();
+                ExpressionNode operand = parseUnary();
+                depth--;
+                return new ExpressionNode.SquareRoot(operand);
+            }
+            default -> {
+                return parsePostfix();
+            }
+        }
+    }
+
+    private ExpressionNode parsePostfix() {
+        ExpressionNode node = parsePrimary();
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '²') {
+                node = new ExpressionNode.Square(node);
+            } else if (c == '%') {
+                node = new ExpressionNode.Percentage(node);
+            } else {
+                break;
+            }
+            position++;
+        }
+        return node;
+    }
+
+    private ExpressionNode parsePrimary() {
+        if (position >= text.length()) {
+            throw error("式が途中で終わっています");
+        }
+        char c = text.charAt(position);
+        if (c == '(') {
+            position++;
+            ExpressionNode node = parseExpression();
+            if (position >= text.length() || text.charAt(position) != ')') {
+                throw error("閉じ括弧がありません");
+            }
+            position++;
+            return node;
+        }
+        if ((c >= '0' && c <= '9') || c == '.') {
+            return parseNumber();
+        }
+        throw error("予期しない文字です");
+    }
+
+    private ExpressionNode parseNumber() {
+        int start = position;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if ((c >= '0' && c <= '9') || c == '.') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        try {
+            return new ExpressionNode.Number(new BigDecimal(text.substring(start, position)));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("数値の形式が正しくありません");
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("式の入れ子が深すぎます");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("式の解析に失敗しました: " + message + " (位置 " + (position + 1) + ")");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.calculator.history;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 計算履歴の1件。数値は BigDecimal#toString の形式の文字列で保持する。
+ *
+ * @param sequence  履歴全体で一意な連番（1から始まる）
+ * @param timestamp 計算した時刻（エポックミリ秒）
+ * @param source    計算したエンドポイント（calculate, keypad, batch, stream, job）
+ * @param result    計算結果（エラーの場合は null）
+ * @param error     エラーメッセージ（成功した場合は null）
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HistoryEntry(long sequence,
+                           long timestamp,
+                           String source,
+                           String operation,
+                           String firstOperand,
+                           String secondOperand,
+                           String result,
+                           String error) {
+}
@@ -0,0 +1,162 @@
+package com.example.calculator.history;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * 計算履歴のセグメントファイルの形式。数値はすべてリトルエンディアン。
+ *
+ * <pre>
+ * セグメント（history-&lt;先頭のシーケンス番号20桁&gt;.log）:
+ *   0   magic "CALCHIS1"
+ *   8   baseSequence (long)  このセグメントの先頭エントリのシーケンス番号
+ *   16  エントリ ...
+ *
+ * エントリ:
+ *   0   length (int)         payload のバイト数
+ *   4   checksum (int)       payload のCRC32C
+ *   8   payload
+ *         sequence (long)
+ *         timestamp (long)   エポックミリ秒
+ *         source, operation, firstOperand, secondOperand, result, error
+ *                            それぞれ長さ (int, nullは-1) + UTF-8
+ * </pre>
+ */
+final class HistoryFormat {
+
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int ENTRY_HEADER_SIZE = 8;
+
+    // これを超える長さはファイルの破損とみなす
+    static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+
+    static final int FIELD_COUNT = 6;
+
+    private static final byte[] MAGIC = "CALCHIS1".getBytes(StandardCharsets.US_ASCII);
+    private static final int BASE_SEQUENCE = 8;
+    private static final int FIXED_PAYLOAD_SIZE = 2 * Long.BYTES;
+    private static final int NULL_LENGTH = -1;
+
+    private HistoryFormat() {}
+
+    static String segmentFileName(long baseSequence) {
+        return String.format("history-%020d.log", baseSequence);
+    }
+
+    static ByteBuffer segmentHeader(long baseSequence) {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(0, MAGIC);
+        header.putLong(BASE_SEQUENCE, baseSequence);
+        return header;
+    }
+
+    /**
+     * @return セグメントの先頭シーケンス番号
+     */
+    static long readSegmentHeader(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("履歴ファイルの形式が正しくありません");
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                throw new IllegalArgumentException("履歴ファイルの形式が正しくありません");
+            }
+        }
+        return buffer.getLong(BASE_SEQUENCE);
+    }
+
+    /**
+     * @param fields {@link #FIELD_COUNT} 個のUTF-8の値（nullを含んでよい）
+     * @return エントリ全体（ヘッダーを含む）のバイト数
+     */
+    static int entrySize(byte[][] fields) {
+        int size = ENTRY_HEADER_SIZE + FIXED_PAYLOAD_SIZE;
+        for (byte[] field : fields) {
+            size += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+        return size;
+    }
+
+    /**
+     * バッファの現在位置にエントリを書き込む。残り容量は呼び出し側で確保しておくこと。
+     */
+    static void writeEntry(ByteBuffer buffer, long sequence, long timestamp, byte[][] fields) {
+        int start = buffer.position();
+        buffer.position(start + ENTRY_HEADER_SIZE);
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putInt(NULL_LENGTH);
+            } else {
+                buffer.putInt(field.length);
+                buffer.put(field);
+            }
+        }
+        int end = buffer.position();
+        int length = end - start - ENTRY_HEADER_SIZE;
+        buffer.putInt(start, length);
+        buffer.putInt(start + Integer.BYTES, checksum(buffer, start + ENTRY_HEADER_SIZE, length));
+    }
+
+    /**
+     * position から始まるエントリの長さとチェックサムを検証する。
+     *
+     * @return エントリ全体のバイト数。途中で切れている・破損している場合は -1
+     */
+    static int validEntrySize(ByteBuffer buffer, int position, int limit) {
+        if (limit - position < ENTRY_HEADER_SIZE) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length < FIXED_PAYLOAD_SIZE || length > MAX_PAYLOAD_SIZE
+                || length > limit - position - ENTRY_HEADER_SIZE) {
+            return -1;
+        }
+        if (buffer.getInt(position + Integer.BYTES) != checksum(buffer, position + ENTRY_HEADER_SIZE, length)) {
+            return -1;
+        }
+        return ENTRY_HEADER_SIZE + length;
+    }
+
+    /**
+     * 検証済みのエントリの長さ（ヘッダーを含む）を返す。
+     */
+    static int entrySizeAt(ByteBuffer buffer, int position) {
+        return ENTRY_HEADER_SIZE + buffer.getInt(position);
+    }
+
+    static long sequenceAt(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + ENTRY_HEADER_SIZE);
+    }
+
+    static long timestampAt(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + ENTRY_HEADER_SIZE + Long.BYTES);
+    }
+
+    static HistoryEntry readEntry(ByteBuffer buffer, int position) {
+        int offset = position + ENTRY_HEADER_SIZE + FIXED_PAYLOAD_SIZE;
+        String[] values = new String[FIELD_COUNT];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            int length = buffer.getInt(offset);
+            offset += Integer.BYTES;
+            if (length != NULL_LENGTH) {
+                byte[] bytes = new byte[length];
+                buffer.get(offset, bytes);
+                values[i] = new String(bytes, StandardCharsets.UTF_8);
+                offset += length;
+            }
+        }
+        return new HistoryEntry(sequenceAt(buffer, position), timestampAt(buffer, position),
+            values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    private static int checksum(ByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,722 @@
+package com.example.calculator.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 追記専用の計算履歴。形式は {@link HistoryFormat} を参照。
+ *
+ * 書き込み（グループコミット）:
+ *   append はキューに積むだけで、fsyncを待たずに戻る。書き込みスレッドがキューにたまった分を
+ *   まとめて1回の write と1回の force で書き込むため、同時に多数のリクエストがあっても
+ *   fsyncの回数は増えない。永続化を待ちたい場合は戻り値の CompletableFuture を待つ。
+ *   キューが満杯の場合は空きができるまで呼び出し元を待たせ、記録は諦めない（監査のため、計算結果はすべて残す）。
+ *   待った回数は waits として数える。fork-joinのスレッドから呼ばれた場合は、待つ間プールに代わりのスレッドを足させる。
+ *   例外で完了するのは、書き込みに失敗した場合と、閉じた後に呼ばれた場合だけ。
+ *   セグメントが segmentSize に達すると次のセグメントに切り替える。
+ *
+ * 読み込み:
+ *   force が済んだ範囲だけをメモリマップして読む。書き込み中のセグメントも読める。
+ *
+ * 起動時の復旧:
+ *   最後のセグメントの末尾にある途中で切れたエントリ（チェックサムが合わないもの）を切り詰める。
+ */
+public class HistoryJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryJournal.class);
+
+    // 1回のコミットでまとめて書き込む最大件数
+    static final int MAX_BATCH_SIZE = 4096;
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 20;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("history-(\\d{20})\\.log");
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final String LOCK_FILE = "LOCK";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final BlockingQueue<Pending> queue;
+    private final FileChannel lockChannel;
+    private final FileLock directoryLock;
+    private final Thread writer;
+
+    // 先頭シーケンス番号 → セグメント。コンパクションでの入れ替えと読み込みは segmentsLock で排他する
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+
+    private volatile boolean closed;
+    private volatile Segment active;
+    private volatile long committedSequence;
+
+    // 以下は書き込みスレッドだけが使う
+    private FileChannel activeChannel;
+    private long writePosition;
+    private long nextSequence;
+    private long lastTimestamp;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+
+    private HistoryJournal(Path directory, long segmentSize, int queueCapacity,
+                           FileChannel lockChannel, FileLock directoryLock) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.lockChannel = lockChannel;
+        this.directoryLock = directoryLock;
+        this.writer = Thread.ofPlatform().name("history-writer").daemon().unstarted(this::writeLoop);
+    }
+
+    /**
+     * ディレクトリ内のセグメントを復旧して履歴を開く。ディレクトリは1つのプロセスだけが使える。
+     */
+    public static HistoryJournal open(Path directory, long segmentSize, int queueCapacity) throws IOException {
+        if (segmentSize <= HistoryFormat.SEGMENT_HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("セグメントサイズが正しくありません: " + segmentSize);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("キューの容量は1以上を指定してください");
+        }
+
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock directoryLock;
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("履歴ディレクトリは他で使用中です: " + directory);
+        }
+
+        HistoryJournal journal = new HistoryJournal(directory, segmentSize, queueCapacity, lockChannel, directoryLock);
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.releaseLock();
+            throw e;
+        }
+        journal.writer.start();
+        return journal;
+    }
+
+    /**
+     * 計算結果を履歴に追加する。fsyncは待たないが、キューが満杯の場合は空きができるまで待つ。
+     *
+     * @return 永続化されるとシーケンス番号で完了する
+     */
+    public CompletableFuture<Long> append(String source, String operation, BigDecimal firstOperand,
+                                         BigDecimal secondOperand, BigDecimal result, String error) {
+        Pending pending = new Pending(System.currentTimeMillis(), source, operation,
+            firstOperand, secondOperand, result, error);
+        if (closed) {
+            pending.future.completeExceptionally(new IllegalStateException("履歴は閉じられています"));
+            return pending.future;
+        }
+        if (!queue.offer(pending)) {
+            waits.incrementAndGet();
+            try {
+                ForkJoinPool.managedBlock(new QueueSpace(pending));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.future.completeExceptionally(new IllegalStateException("履歴の記録を待つ間に割り込まれました", e));
+            }
+        }
+        return pending.future;
+    }
+
+    /**
+     * fromSequence 以降の永続化済みのエントリをシーケンス番号順に返す。
+     */
+    public List<HistoryEntry> read(long fromSequence, int limit) throws IOException {
+        List<HistoryEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        if (limit <= 0) {
+            return entries;
+        }
+
+        segmentsLock.readLock().lock();
+        try {
+            Long first = segments.floorKey(fromSequence);
+            NavigableMap<Long, Segment> candidates = first == null ? segments : segments.tailMap(first, true);
+            for (Segment segment : candidates.values()) {
+                if (segment.lastSequence < fromSequence) {
+                    continue;
+                }
+                ByteBuffer map = segment.map();
+                int end = map.limit();
+                int position = HistoryFormat.SEGMENT_HEADER_SIZE;
+                while (position < end && entries.size() < limit) {
+                    if (HistoryFormat.sequenceAt(map, position) >= fromSequence) {
+                        entries.add(HistoryFormat.readEntry(map, position));
+                    }
+                    position += HistoryFormat.entrySizeAt(map, position);
+                }
+                if (entries.size() >= limit) {
+                    break;
+                }
+            }
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+        return entries;
+    }
+
+    /**
+     * 書き込みが終わったセグメントを整理する。
+     * 先頭から順に、expireBefore（エポックミリ秒）より前のエントリしか含まないセグメントを削除し、
+     * 残りは合計が segmentSize を超えない範囲で連続するセグメントを1つにまとめる。
+     *
+     * @return 削除・統合で減ったセグメント数
+     */
+    public synchronized int compact(long expireBefore) throws IOException {
+        Segment current = active;
+        List<Segment> sealed = new ArrayList<>(segments.headMap(current.baseSequence, false).values());
+
+        int expired = 0;
+        while (expired < sealed.size() && sealed.get(expired).lastTimestamp < expireBefore) {
+            expired++;
+        }
+        if (expired > 0) {
+            List<Segment> removed = sealed.subList(0, expired);
+            segmentsLock.writeLock().lock();
+            try {
+                removed.forEach(segment -> segments.remove(segment.baseSequence));
+            } finally {
+                segmentsLock.writeLock().unlock();
+            }
+            for (Segment segment : removed) {
+                Files.deleteIfExists(segment.path);
+            }
+            removed.clear();
+        }
+
+        int merged = 0;
+        int from = 0;
+        while (from < sealed.size()) {
+            long total = sealed.get(from).size;
+            int to = from;
+            while (to + 1 < sealed.size()
+                    && total + sealed.get(to + 1).size - HistoryFormat.SEGMENT_HEADER_SIZE <= segmentSize) {
+                to++;
+                total += sealed.get(to).size - HistoryFormat.SEGMENT_HEADER_SIZE;
+            }
+            if (to > from) {
+                merge(sealed.subList(from, to + 1), total);
+                merged += to - from;
+            }
+            from = to + 1;
+        }
+
+        if (expired + merged > 0) {
+            syncDirectory();
+        }
+        return expired + merged;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // キューに残っている分を書き終えるまで待つ
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (activeChannel != null) {
+                activeChannel.close();
+            }
+        } finally {
+            releaseLock();
+        }
+    }
+
+    public long getFirstSequence() {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        return first == null ? committedSequence + 1 : first.getKey();
+    }
+
+    public long getLastSequence() {
+        return committedSequence;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getTotalBytes() {
+        return segments.values().stream().mapToLong(segment -> segment.size).sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getAppended() {
+        return appended.get();
+    }
+
+    public long getCommits() {
+        return commits.get();
+    }
+
+    public long getCommitNanos() {
+        return commitNanos.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getWaits() {
+        return waits.get();
+    }
+
+    private void recover() throws IOException {
+        TreeMap<Long, Path> found = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(COMPACT_SUFFIX)) {
+                    // 中断したコンパクションの一時ファイル
+                    Files.delete(path);
+                    continue;
+                }
+                Matcher matcher = SEGMENT_NAME.matcher(name);
+                if (matcher.matches()) {
+                    found.put(Long.parseLong(matcher.group(1)), path);
+                }
+            }
+        }
+
+        long lastSequence = 0;
+        for (Map.Entry<Long, Path> entry : found.entrySet()) {
+            long base = entry.getKey();
+            Path path = entry.getValue();
+            if (base <= lastSequence) {
+                // コンパクションで統合した後、削除する前に止まったセグメント。内容は前のセグメントに含まれている
+                log.info("統合済みの履歴セグメントを削除します: {}", path);
+                Files.delete(path);
+                continue;
+            }
+            Segment segment = scan(path, base, base == found.lastKey());
+            if (segment != null) {
+                segments.put(base, segment);
+                lastSequence = Math.max(lastSequence, segment.lastSequence);
+            }
+        }
+
+        committedSequence = lastSequence;
+        nextSequence = lastSequence + 1;
+        if (segments.isEmpty()) {
+            openSegment(nextSequence);
+        } else {
+            Segment last = segments.lastEntry().getValue();
+            nextSequence = Math.max(nextSequence, last.baseSequence);
+            active = last;
+            activeChannel = FileChannel.open(last.path, StandardOpenOption.WRITE);
+            activeChannel.position(last.size);
+            writePosition = last.size;
+        }
+    }
+
+    private Segment scan(Path path, long base, boolean last) throws IOException {
+        if (Files.size(path) < HistoryFormat.SEGMENT_HEADER_SIZE) {
+            // セグメントの作成中に止まった
+            log.warn("ヘッダーのない履歴セグメントを削除します: {}", path);
+            Files.delete(path);
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IllegalStateException("履歴セグメントが大きすぎます: " + path);
+            }
+
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+            if (HistoryFormat.readSegmentHeader(map) != base) {
+                throw new IllegalStateException("履歴セグメントのシーケンス番号がファイル名と一致しません: " + path);
+            }
+
+            int limit = (int) fileSize;
+            int position = HistoryFormat.SEGMENT_HEADER_SIZE;
+            long lastSequence = base - 1;
+            long lastTimestamp = 0;
+            while (position < limit) {
+                int size = HistoryFormat.validEntrySize(map, position, limit);
+                if (size < 0) {
+                    break;
+                }
+                lastSequence = HistoryFormat.sequenceAt(map, position);
+                lastTimestamp = HistoryFormat.timestampAt(map, position);
+                position += size;
+            }
+
+            if (position < limit) {
+                if (last) {
+                    log.warn("途中で切れた履歴を切り詰めます: {} ({} bytes)", path, limit - position);
+                    channel.truncate(position);
+                    channel.force(true);
+                } else {
+                    log.warn("破損した履歴を検出しました。{} bytes 以降は読み込みません: {}", position, path);
+                }
+            }
+            return new Segment(path, base, position, lastSequence, lastTimestamp);
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                if (closed) {
+                    break;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        long start = System.nanoTime();
+        try {
+            buffer.clear();
+            for (Pending pending : batch) {
+                byte[][] fields = pending.fields();
+                int size = HistoryFormat.entrySize(fields);
+                if (size - HistoryFormat.ENTRY_HEADER_SIZE > HistoryFormat.MAX_PAYLOAD_SIZE) {
+                    pending.future.completeExceptionally(new IllegalArgumentException("履歴のエントリが大きすぎます"));
+                    failures.incrementAndGet();
+                    continue;
+                }
+
+                long position = writePosition + buffer.position();
+                if (position > HistoryFormat.SEGMENT_HEADER_SIZE && position + size > segmentSize) {
+                    flush();
+                    activeChannel.force(false);
+                    publish();
+                    activeChannel.close();
+                    openSegment(nextSequence);
+                }
+                if (buffer.remaining() < size) {
+                    flush();
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+                }
+
+                pending.sequence = nextSequence++;
+                lastTimestamp = pending.timestamp;
+                HistoryFormat.writeEntry(buffer, pending.sequence, pending.timestamp, fields);
+            }
+            flush();
+            activeChannel.force(false);
+            publish();
+        } catch (IOException | RuntimeException e) {
+            log.error("計算履歴の書き込みに失敗しました", e);
+            rollback();
+        }
+
+        // 統計を更新してから完了を通知する
+        long committed = committedSequence;
+        int succeeded = 0;
+        int failed = 0;
+        for (Pending pending : batch) {
+            if (!pending.future.isDone()) {
+                if (pending.sequence > 0 && pending.sequence <= committed) {
+                    succeeded++;
+                } else {
+                    failed++;
+                }
+            }
+        }
+        appended.addAndGet(succeeded);
+        failures.addAndGet(failed);
+        commits.incrementAndGet();
+        commitNanos.addAndGet(System.nanoTime() - start);
+
+        for (Pending pending : batch) {
+            if (pending.future.isDone()) {
+                continue;
+            }
+            if (pending.sequence > 0 && pending.sequence <= committed) {
+                pending.future.complete(pending.sequence);
+            } else {
+                pending.future.completeExceptionally(new IOException("計算履歴の書き込みに失敗しました"));
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            writePosition += activeChannel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * force が済んだ範囲を読み込み側に公開する。
+     */
+    private void publish() {
+        Segment segment = active;
+        segment.lastSequence = nextSequence - 1;
+        segment.lastTimestamp = lastTimestamp;
+        segment.size = writePosition;
+        committedSequence = nextSequence - 1;
+    }
+
+    /**
+     * 書き込みに失敗した場合に、最後に永続化した位置まで戻す。
+     */
+    private void rollback() {
+        Segment segment = active;
+        nextSequence = committedSequence + 1;
+        writePosition = segment.size;
+        buffer.clear();
+        try {
+            if (!activeChannel.isOpen()) {
+                activeChannel = FileChannel.open(segment.path, StandardOpenOption.WRITE);
+            }
+            activeChannel.truncate(segment.size);
+            activeChannel.position(segment.size);
+        } catch (IOException e) {
+            log.error("計算履歴の書き込み位置を戻せませんでした: {}", segment.path, e);
+        }
+    }
+
+    private void openSegment(long baseSequence) throws IOException {
+        Path path = directory.resolve(HistoryFormat.segmentFileName(baseSequence));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = HistoryFormat.segmentHeader(baseSequence);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        syncDirectory();
+
+        Segment segment = new Segment(path, baseSequence, HistoryFormat.SEGMENT_HEADER_SIZE, baseSequence - 1, 0);
+        segmentsLock.writeLock().lock();
+        try {
+            segments.put(baseSequence, segment);
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+        active = segment;
+        activeChannel = channel;
+        writePosition = HistoryFormat.SEGMENT_HEADER_SIZE;
+    }
+
+    private void merge(List<Segment> group, long totalSize) throws IOException {
+        Segment first = group.get(0);
+        Segment last = group.get(group.size() - 1);
+        Path temporary = directory.resolve(first.path.getFileName() + COMPACT_SUFFIX);
+
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = HistoryFormat.segmentHeader(first.baseSequence);
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            for (Segment segment : group) {
+                try (FileChannel in = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                    long position = HistoryFormat.SEGMENT_HEADER_SIZE;
+                    while (position < segment.size) {
+                        position += in.transferTo(position, segment.size - position, out);
+                    }
+                }
+            }
+            out.force(true);
+        }
+
+        Segment merged = new Segment(first.path, first.baseSequence, totalSize, last.lastSequence, last.lastTimestamp);
+        segmentsLock.writeLock().lock();
+        try {
+            Files.move(temporary, first.path, StandardCopyOption.ATOMIC_MOVE);
+            segments.put(first.baseSequence, merged);
+            for (Segment segment : group.subList(1, group.size())) {
+                segments.remove(segment.baseSequence);
+            }
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+        for (Segment segment : group.subList(1, group.size())) {
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // ディレクトリのfsyncに対応していないファイルシステム
+            log.debug("履歴ディレクトリを同期できませんでした: {}", directory, e);
+        }
+    }
+
+    private void releaseLock() throws IOException {
+        try {
+            directoryLock.release();
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    private static final class Segment {
+
+        final Path path;
+        final long baseSequence;
+
+        // force が済んだ範囲。書き込み中のセグメントでは書き込みスレッドが更新する
+        volatile long size;
+        volatile long lastSequence;
+        volatile long lastTimestamp;
+
+        private ByteBuffer mapped;
+
+        Segment(Path path, long baseSequence, long size, long lastSequence, long lastTimestamp) {
+            this.path = path;
+            this.baseSequence = baseSequence;
+            this.size = size;
+            this.lastSequence = lastSequence;
+            this.lastTimestamp = lastTimestamp;
+        }
+
+        /**
+         * 永続化済みの範囲をメモリマップする。サイズが変わっていなければ前回のマップを使い回す。
+         * 返すバッファは絶対位置でのみ読むこと。
+         */
+        synchronized ByteBuffer map() throws IOException {
+            long current = size;
+            if (mapped == null || mapped.limit() != current) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, current).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            return mapped;
+        }
+    }
+
+    // キューに空きができるまで待つ。閉じられた場合は例外で完了させて待つのをやめる
+    private final class QueueSpace implements ForkJoinPool.ManagedBlocker {
+
+        private final Pending pending;
+        private boolean done;
+
+        QueueSpace(Pending pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            while (!done) {
+                if (closed) {
+                    pending.future.completeExceptionally(new IllegalStateException("履歴は閉じられています"));
+                    done = true;
+                } else {
+                    done = queue.offer(pending, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!done) {
+                done = queue.offer(pending);
+            }
+            return done;
+        }
+    }
+
+    private static final class Pending {
+
+        final long timestamp;
+        final String source;
+        final String operation;
+        final BigDecimal firstOperand;
+        final BigDecimal secondOperand;
+        final BigDecimal result;
+        final String error;
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        long sequence;
+
+        Pending(long timestamp, String source, String operation, BigDecimal firstOperand,
+                BigDecimal secondOperand, BigDecimal result, String error) {
+            this.timestamp = timestamp;
+            this.source = source;
+            this.operation = operation;
+            this.firstOperand = firstOperand;
+            this.secondOperand = secondOperand;
+            this.result = result;
+            this.error = error;
+        }
+
+        // 数値の文字列化はリクエストスレッドではなく書き込みスレッドで行う
+        byte[][] fields() {
+            return new byte[][] {
+                utf8(source),
+                utf8(operation),
+                utf8(firstOperand == null ? null : firstOperand.toString()),
+                utf8(secondOperand == null ? null : secondOperand.toString()),
+                utf8(result == null ? null : result.toString()),
+                utf8(error)
+            };
+        }
+
+        private static byte[] utf8(String value) {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.calculator.history;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 計算結果を {@link HistoryJournal} に記録する。
+ *
+ * 記録はキューに積むだけなので、リクエストの処理時間にfsyncの待ち時間は加わらない。
+ * キューが満杯の場合は空きができるまで待ち、計算結果は必ず記録する。
+ */
+@Service
+public class HistoryService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryService.class);
+
+    @Value("${calculator.history.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${calculator.history.directory:data/history}")
+    private String directory = "data/history";
+
+    @Value("${calculator.history.segment-size:64MB}")
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    @Value("${calculator.history.queue-capacity:65536}")
+    private int queueCapacity = 65536;
+
+    // 0の場合は削除しない
+    @Value("${calculator.history.retention:0}")
+    private Duration retention = Duration.ZERO;
+
+    private HistoryJournal journal;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (enabled) {
+            journal = HistoryJournal.open(Path.of(directory), segmentSize.toBytes(), queueCapacity);
+            log.info("計算履歴を開きました: {} (シーケンス番号 {} まで)", directory, journal.getLastSequence());
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    public void record(String source, String operation, BigDecimal firstOperand, BigDecimal secondOperand,
+                       BigDecimal result, String error) {
+        if (journal != null) {
+            journal.append(source, operation, firstOperand, secondOperand, result, error);
+        }
+    }
+
+    public List<HistoryEntry> read(long fromSequence, int limit) {
+        if (journal == null) {
+            return List.of();
+        }
+        try {
+            return journal.read(fromSequence, limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${calculator.history.compaction-interval:600000}")
+    public void compact() {
+        if (journal == null) {
+            return;
+        }
+        long expireBefore = retention.isZero() || retention.isNegative()
+            ? Long.MIN_VALUE
+            : System.currentTimeMillis() - retention.toMillis();
+        try {
+            int removed = journal.compact(expireBefore);
+            if (removed > 0) {
+                log.info("計算履歴を整理しました（{}セグメント減少）", removed);
+            }
+        } catch (IOException e) {
+            log.warn("計算履歴の整理に失敗しました", e);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", journal != null);
+        if (journal != null) {
+            statistics.put("firstSequence", journal.getFirstSequence());
+            statistics.put("lastSequence", journal.getLastSequence());
+            statistics.put("segments", journal.getSegmentCount());
+            statistics.put("bytes", journal.getTotalBytes());
+            statistics.put("appended", journal.getAppended());
+            statistics.put("commits", journal.getCommits());
+            statistics.put("failures", journal.getFailures());
+            statistics.put("waits", journal.getWaits());
+        }
+        return statistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (journal == null) {
+            return;
+        }
+        FunctionCounter.builder("calculator.history.appended", journal, HistoryJournal::getAppended)
+            .register(registry);
+        FunctionCounter.builder("calculator.history.failures", journal, HistoryJournal::getFailures)
+            .register(registry);
+        // キューが満杯で空きを待った回数
+        FunctionCounter.builder("calculator.history.waits", journal, HistoryJournal::getWaits)
+            .register(registry);
+        // 1回のコミット（write + fsync）の時間。件数との比がグループコミットのまとめ具合になる
+        FunctionTimer.builder("calculator.history.commits", journal,
+                HistoryJournal::getCommits, HistoryJournal::getCommitNanos, TimeUnit.NANOSECONDS)
+            .register(registry);
+        Gauge.builder("calculator.history.queue", journal, HistoryJournal::getQueueSize)
+            .register(registry);
+        Gauge.builder("calculator.history.segments", journal, HistoryJournal::getSegmentCount)
+            .register(registry);
+        Gauge.builder("calculator.history.bytes", journal, HistoryJournal::getTotalBytes)
+            .register(registry);
+    }
+}
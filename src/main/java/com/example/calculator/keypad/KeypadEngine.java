@@ -0,0 +1,144 @@
+package com.example.calculator.keypad;
+
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.service.CalculatorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * キーパッドのボタン操作を {@link KeypadState} に適用する。HTTPとWebSocketの両方のキーパッドから使う。
+ *
+ * 数字・小数点・±・C・CE は状態を書き換えるだけでオブジェクトを作らない。
+ * 演算では表示値と前の値を解析済みの数値のまま使い、計算結果も数値のまま次の演算に渡す。
+ * 演算に失敗した場合は状態を変更せずに例外を投げる。
+ */
+@Component
+public class KeypadEngine {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    @Autowired
+    private CalculatorService calculatorService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    /**
+     * セッションやトークンから読み込んだ状態にボタン操作を適用する。状態がない場合は初期状態から始める。
+     * 状態はその場で更新して返すため、数字・小数点などの入力ではオブジェクトを作らない。
+     */
+    public KeypadState handleButtonClick(KeypadState state, String button) {
+        if (state == null) {
+            state = new KeypadState();
+        }
+        press(state, button);
+        return state;
+    }
+
+    public void press(KeypadState state, String button) {
+        KeypadKey key = KeypadKey.of(button);
+        if (key != null) {
+            press(state, key);
+        } else {
+            // 未知のボタン名は数字と同じく表示値に追加する
+            KeypadOperand display = state.display;
+            if (state.resetDisplay || display.isZero()) {
+                display.set(button);
+                state.resetDisplay = false;
+            } else if (display.length() < KeypadState.MAX_INPUT_LENGTH) {
+                display.append(button);
+            }
+        }
+    }
+
+    public void press(KeypadState state, KeypadKey key) {
+        KeypadOperand display = state.display;
+        switch (key) {
+            case CLEAR -> state.clear();
+            case CLEAR_ENTRY -> display.set(KeypadKey.DIGIT_0);
+            case NEGATE -> {
+                if (!display.isZero()) {
+                    display.negate();
+                }
+            }
+            case PERCENT -> {
+                BigDecimal result;
+                try {
+                    result = calculatorService.calculatePercentage(display.toBigDecimal());
+                } catch (Exception e) {
+                    throw new RuntimeException("パーセント計算エラー: " + e.getMessage());
+                }
+                display.setValue(result);
+            }
+            case SQUARE_ROOT -> {
+                BigDecimal result;
+                try {
+                    result = calculatorService.calculateSquareRoot(display.toBigDecimal());
+                } catch (Exception e) {
+                    throw new RuntimeException("平方根計算エラー: " + e.getMessage());
+                }
+                display.setValue(result);
+            }
+            case SQUARE -> {
+                BigDecimal result;
+                try {
+                    result = calculatorService.calculatePower(display.toBigDecimal(), TWO);
+                } catch (Exception e) {
+                    throw new RuntimeException("二乗計算エラー: " + e.getMessage());
+                }
+                display.setValue(result);
+            }
+            case EQUALS -> {
+                if (state.hasPendingOperation()) {
+                    display.setValue(calculatePending(state));
+                    state.previous.clear();
+                    state.operation = null;
+                    state.resetDisplay = true;
+                }
+            }
+            case ADD, SUBTRACT, MULTIPLY, DIVIDE -> {
+                if (state.hasPendingOperation()) {
+                    // 連続計算
+                    state.previous.setValue(calculatePending(state));
+                } else {
+                    // 演算子ボタンをクリックした後は、ディスプレイをクリアしない
+                    // 次の数字入力まで現在の値を保持
+                    state.previous.copyFrom(display);
+                }
+                state.operation = key;
+                state.resetDisplay = true;
+            }
+            default -> {
+                // 数字ボタン
+                if (state.resetDisplay || display.isZero()) {
+                    display.set(key);
+                    state.resetDisplay = false;
+                } else if (display.length() < KeypadState.MAX_INPUT_LENGTH) {
+                    display.append(key);
+                }
+            }
+        }
+    }
+
+    private BigDecimal calculatePending(KeypadState state) {
+        try {
+            return calculate(state.previous.toBigDecimal(), state.display.toBigDecimal(), state.operation.label());
+        } catch (Exception e) {
+            throw new RuntimeException("計算エラー: " + e.getMessage());
+        }
+    }
+
+    // = と連続計算の結果は計算履歴に残す
+    private BigDecimal calculate(BigDecimal first, BigDecimal second, String operation) {
+        try {
+            BigDecimal result = calculatorService.calculate(first, second, operation);
+            historyService.record("keypad", operation, first, second, result, null);
+            return result;
+        } catch (RuntimeException e) {
+            historyService.record("keypad", operation, first, second, null, e.getMessage());
+            throw e;
+        }
+    }
+}
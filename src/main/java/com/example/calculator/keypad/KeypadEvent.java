@@ -0,0 +1,21 @@
+package com.example.calculator.keypad;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * キーパッドのボタン操作1回分の記録。
+ *
+ * @param source       受け付けたエンドポイント（button, button-ajax, button-token）
+ * @param displayBefore 操作前の表示値
+ * @param displayAfter  操作後の表示値（エラーの場合は操作前と同じ）
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record KeypadEvent(long sequence,
+                          long timestamp,
+                          String source,
+                          String button,
+                          String displayBefore,
+                          String displayAfter,
+                          String error,
+                          long elapsedNanos) {
+}
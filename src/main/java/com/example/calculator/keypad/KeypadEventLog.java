@@ -0,0 +1,113 @@
+package com.example.calculator.keypad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * キーパッドの操作をリングバッファに記録し、別スレッドでログに書き出す。
+ *
+ * 記録側は連番を getAndIncrement で取り、その位置に上書きするだけでロックを取らない。
+ * ログへの書き出しは定期的に行い、DEBUGが無効な場合は文字列を組み立てずに読み飛ばす。
+ * 書き出しが追いつかず上書きされたイベントは dropped として数える。
+ */
+@Component
+public class KeypadEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(KeypadEventLog.class);
+
+    private final AtomicReferenceArray<KeypadEvent> events;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // 次にログへ書き出す連番。drain() からのみ更新する
+    private long drained;
+
+    public KeypadEventLog(@Value("${calculator.keypad.events.capacity:1024}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量は1以上を指定してください");
+        }
+        // インデックスをマスクで求めるため2の累乗に切り上げる
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void record(String source, String button, String displayBefore, String displayAfter, String error,
+                       long elapsedNanos) {
+        long next = sequence.getAndIncrement();
+        events.set((int) (next & mask), new KeypadEvent(next, System.currentTimeMillis(), source, button,
+            displayBefore, displayAfter, error, elapsedNanos));
+    }
+
+    /**
+     * 新しいものから最大 {@code limit} 件を古い順に返す。
+     */
+    public List<KeypadEvent> recent(int limit) {
+        long end = sequence.get();
+        long start = Math.max(0, end - Math.min(Math.max(0, limit), capacity()));
+        List<KeypadEvent> result = new ArrayList<>((int) (end - start));
+        for (long s = start; s < end; s++) {
+            KeypadEvent event = events.get((int) (s & mask));
+            // 書き込み途中や、読んでいる間に上書きされたものは除く
+            if (event != null && event.sequence() == s) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${calculator.keypad.events.drain-interval:200}")
+    public synchronized void drain() {
+        long end = sequence.get();
+        if (end - drained > capacity()) {
+            long skipped = end - capacity() - drained;
+            dropped.addAndGet(skipped);
+            drained += skipped;
+        }
+        if (!log.isDebugEnabled()) {
+            drained = end;
+            return;
+        }
+        for (; drained < end; drained++) {
+            KeypadEvent event = events.get((int) (drained & mask));
+            if (event == null || event.sequence() != drained) {
+                // 確保済みで未書き込みの位置。次回に回す
+                if (event == null || event.sequence() < drained) {
+                    break;
+                }
+                dropped.incrementAndGet();
+                continue;
+            }
+            log.debug("keypad source={} button={} before={} after={} error={} elapsedMicros={}",
+                event.source(), event.button(), event.displayBefore(), event.displayAfter(), event.error(),
+                event.elapsedNanos() / 1000);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity());
+        stats.put("recorded", sequence.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.calculator.keypad;
+
+/**
+ * キーパッドのボタン。画面・APIから送られるボタン名との変換は {@link #of(String)} と {@link #label()} で行う。
+ */
+public enum KeypadKey {
+
+    DIGIT_0("0"),
+    DIGIT_1("1"),
+    DIGIT_2("2"),
+    DIGIT_3("3"),
+    DIGIT_4("4"),
+    DIGIT_5("5"),
+    DIGIT_6("6"),
+    DIGIT_7("7"),
+    DIGIT_8("8"),
+    DIGIT_9("9"),
+    DECIMAL_POINT("."),
+    ADD("+"),
+    SUBTRACT("-"),
+    MULTIPLY("*"),
+    DIVIDE("/"),
+    EQUALS("="),
+    CLEAR("C"),
+    CLEAR_ENTRY("CE"),
+    NEGATE("±"),
+    PERCENT("%"),
+    SQUARE_ROOT("√"),
+    SQUARE("x²");
+
+    private final String label;
+
+    KeypadKey(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * 数字と小数点。表示値に1文字追加する
+     */
+    public boolean isInput() {
+        return ordinal() <= DECIMAL_POINT.ordinal();
+    }
+
+    /**
+     * 四則演算の演算子
+     */
+    public boolean isOperator() {
+        return ordinal() >= ADD.ordinal() && ordinal() <= DIVIDE.ordinal();
+    }
+
+    char symbol() {
+        return label.charAt(0);
+    }
+
+    /**
+     * @return 対応するボタン。該当しない場合は null
+     */
+    public static KeypadKey of(String button) {
+        return switch (button) {
+            case "0" -> DIGIT_0;
+            case "1" -> DIGIT_1;
+            case "2" -> DIGIT_2;
+            case "3" -> DIGIT_3;
+            case "4" -> DIGIT_4;
+            case "5" -> DIGIT_5;
+            case "6" -> DIGIT_6;
+            case "7" -> DIGIT_7;
+            case "8" -> DIGIT_8;
+            case "9" -> DIGIT_9;
+            case "." -> DECIMAL_POINT;
+            case "+" -> ADD;
+            case "-" -> SUBTRACT;
+            case "*" -> MULTIPLY;
+            case "/" -> DIVIDE;
+            case "=" -> EQUALS;
+            case "C" -> CLEAR;
+            case "CE" -> CLEAR_ENTRY;
+            case "±" -> NEGATE;
+            case "%" -> PERCENT;
+            case "√" -> SQUARE_ROOT;
+            case "x²" -> SQUARE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.calculator.keypad;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * キーパッドの表示値（または保留中の前の値）。文字列を組み立て直さず、文字バッファに直接追記する。
+ *
+ * 数値としての値は入力に合わせて更新し、演算のたびに文字列から解析し直さない。
+ * <ul>
+ *   <li>TYPED: 入力中の値。符号・小数点位置・仮数（long）から {@link BigDecimal} を組み立てる</li>
+ *   <li>VALUE: 計算結果。{@link #value} がそのまま数値（ストアから復元した直後は仮数とスケールから組み立てる）</li>
+ *   <li>TEXT: 上記で表せない文字列（小数点が2つある、桁が多すぎるなど）。使うときに文字列から解析する</li>
+ * </ul>
+ * TEXT の解析は {@code new BigDecimal(String)} と同じ処理で行うため、不正な値のエラーも同じになる。
+ *
+ * オフヒープのストアには {@link #writeTo} で数値の形ごと書き込み、{@link #readFrom} で文字列を作らずに復元する。
+ * <pre>
+ * operand ({@link #SERIALIZED_SIZE} bytes):
+ *   0   form (byte)
+ *   1   length (byte)
+ *   2   unscaled (long)     VALUE の仮数
+ *   10  scale (int)         VALUE のスケール
+ *   14  chars (ASCII, {@link #MAX_SERIALIZED_LENGTH} bytes)
+ * </pre>
+ */
+final class KeypadOperand {
+
+    private static final int INITIAL_CAPACITY = 32;
+    // 仮数を long で保持できる桁数
+    private static final int MAX_TYPED_DIGITS = 18;
+
+    private static final byte TYPED = 0;
+    private static final byte VALUE = 1;
+    private static final byte TEXT = 2;
+
+    static final int SERIALIZED_SIZE = 58;
+    static final int MAX_SERIALIZED_LENGTH = 44;
+
+    private static final int FORM = 0;
+    private static final int LENGTH = 1;
+    private static final int UNSCALED = 2;
+    private static final int SCALE = 10;
+    private static final int CHARS = 14;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private int length;
+
+    private byte form;
+    // TYPED では入力中の仮数とスケール。VALUE で value が null の場合は計算結果の仮数とスケール
+    private long unscaled;
+    private int scale;
+    private int digits;
+    private boolean decimalPoint;
+    private boolean negative;
+    // 数値のキャッシュ。VALUE では値そのもの
+    private BigDecimal value;
+    // 文字列のキャッシュ。変更されたら null に戻す
+    private String text;
+
+    KeypadOperand() {
+        clear();
+    }
+
+    int length() {
+        return length;
+    }
+
+    boolean isEmpty() {
+        return length == 0;
+    }
+
+    boolean isZero() {
+        return length == 1 && chars[0] == '0';
+    }
+
+    void clear() {
+        length = 0;
+        resetNumber(TEXT);
+        text = "";
+    }
+
+    void set(KeypadKey key) {
+        length = 0;
+        resetNumber(TYPED);
+        append(key.symbol());
+        text = key.label();
+    }
+
+    void append(KeypadKey key) {
+        append(key.symbol());
+    }
+
+    // ボタン名をそのまま表示値にする（数字・小数点以外のボタン名）
+    void set(String input) {
+        length = 0;
+        resetNumber(TYPED);
+        append(input);
+        text = input;
+    }
+
+    void append(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            append(input.charAt(i));
+        }
+    }
+
+    void setValue(BigDecimal result) {
+        String resultText = result.toString();
+        int resultLength = resultText.length();
+        ensureCapacity(resultLength);
+        resultText.getChars(0, resultLength, chars, 0);
+        length = resultLength;
+        resetNumber(VALUE);
+        value = result;
+        text = resultText;
+    }
+
+    void copyFrom(KeypadOperand other) {
+        ensureCapacity(other.length);
+        System.arraycopy(other.chars, 0, chars, 0, other.length);
+        length = other.length;
+        form = other.form;
+        unscaled = other.unscaled;
+        scale = other.scale;
+        digits = other.digits;
+        decimalPoint = other.decimalPoint;
+        negative = other.negative;
+        value = other.value;
+        text = other.text;
+    }
+
+    // 先頭の '-' を付け外しする
+    void negate() {
+        if (length > 0 && chars[0] == '-') {
+            System.arraycopy(chars, 1, chars, 0, length - 1);
+            length--;
+        } else {
+            ensureCapacity(length + 1);
+            System.arraycopy(chars, 0, chars, 1, length);
+            chars[0] = '-';
+            length++;
+        }
+        text = null;
+        if (form == TYPED) {
+            negative = !negative;
+            value = null;
+        } else if (form == VALUE) {
+            value = toBigDecimal().negate();
+        } else {
+            value = null;
+        }
+    }
+
+    /**
+     * @throws NumberFormatException 数値として解釈できない場合
+     */
+    BigDecimal toBigDecimal() {
+        if (value == null) {
+            if (form == TYPED && digits > 0) {
+                value = BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+            } else if (form == VALUE) {
+                value = BigDecimal.valueOf(unscaled, scale);
+            } else {
+                value = new BigDecimal(chars, 0, length);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        if (text == null) {
+            text = new String(chars, 0, length);
+        }
+        return text;
+    }
+
+    // ASCIIで MAX_SERIALIZED_LENGTH 文字以内ならオフヒープのスロットに書き込める
+    boolean isSerializable() {
+        if (length > MAX_SERIALIZED_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[i] >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@link #isSerializable()} の場合だけ呼び出す。
+     * 仮数がlongに収まらない計算結果は TEXT として書き込み、復元後に文字列から解析する。
+     */
+    void writeTo(ByteBuffer memory, int offset) {
+        byte writtenForm = form;
+        if (form == VALUE) {
+            if (value == null) {
+                memory.putLong(offset + UNSCALED, unscaled);
+                memory.putInt(offset + SCALE, scale);
+            } else if (value.precision() <= MAX_TYPED_DIGITS) {
+                memory.putLong(offset + UNSCALED, value.unscaledValue().longValue());
+                memory.putInt(offset + SCALE, value.scale());
+            } else {
+                writtenForm = TEXT;
+            }
+        }
+        memory.put(offset + FORM, writtenForm);
+        memory.put(offset + LENGTH, (byte) length);
+        for (int i = 0; i < length; i++) {
+            memory.put(offset + CHARS + i, (byte) chars[i]);
+        }
+    }
+
+    void readFrom(ByteBuffer memory, int offset) {
+        byte readForm = memory.get(offset + FORM);
+        int readLength = memory.get(offset + LENGTH);
+        ensureCapacity(readLength);
+        length = readLength;
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) memory.get(offset + CHARS + i);
+        }
+        text = length == 0 ? "" : null;
+        resetNumber(readForm);
+        if (readForm == TYPED) {
+            for (int i = 0; i < length && form == TYPED; i++) {
+                accept(chars[i], i);
+            }
+        } else if (readForm == VALUE) {
+            unscaled = memory.getLong(offset + UNSCALED);
+            scale = memory.getInt(offset + SCALE);
+        }
+    }
+
+    private void append(char c) {
+        ensureCapacity(length + 1);
+        chars[length++] = c;
+        text = null;
+        if (form == VALUE) {
+            // 計算結果に追記した場合は、入力中の値として読み直す
+            resetNumber(TYPED);
+            for (int i = 0; i < length && form == TYPED; i++) {
+                accept(chars[i], i);
+            }
+        } else {
+            value = null;
+            if (form == TYPED) {
+                accept(c, length - 1);
+            }
+        }
+    }
+
+    private void accept(char c, int position) {
+        if (c >= '0' && c <= '9') {
+            if (digits == MAX_TYPED_DIGITS) {
+                form = TEXT;
+                return;
+            }
+            unscaled = unscaled * 10 + (c - '0');
+            digits++;
+            if (decimalPoint) {
+                scale++;
+            }
+        } else if (c == '.' && !decimalPoint) {
+            decimalPoint = true;
+        } else if (c == '-' && position == 0) {
+            negative = true;
+        } else {
+            form = TEXT;
+        }
+    }
+
+    private void resetNumber(byte newForm) {
+        form = newForm;
+        unscaled = 0;
+        scale = 0;
+        digits = 0;
+        decimalPoint = false;
+        negative = false;
+        value = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > chars.length) {
+            char[] grown = new char[Math.max(capacity, chars.length * 2)];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+    }
+}
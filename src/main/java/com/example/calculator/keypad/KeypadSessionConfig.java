@@ -0,0 +1,19 @@
+package com.example.calculator.keypad;
+
+import org.springframework.boot.web.servlet.ServletListenerRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.util.HttpSessionMutexListener;
+
+@Configuration
+public class KeypadSessionConfig {
+
+    /**
+     * セッションごとに固定の排他用オブジェクトを置く（{@link KeypadSessionLock} がロックを作るときに使う）。
+     * これがないと HttpSession 自体で排他するが、コンテナによってはリクエストごとに別のオブジェクトになる。
+     */
+    @Bean
+    public ServletListenerRegistrationBean<HttpSessionMutexListener> sessionMutexListener() {
+        return new ServletListenerRegistrationBean<>(new HttpSessionMutexListener());
+    }
+}
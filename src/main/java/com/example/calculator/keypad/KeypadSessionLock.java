@@ -0,0 +1,36 @@
+package com.example.calculator.keypad;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.util.WebUtils;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 同じセッションのリクエストが {@link KeypadState} を同時に操作しないためのロック。
+ *
+ * {@link SessionKeypadStateStore} は保存している実体そのものを返し、KeypadState はスレッドセーフではないため、
+ * 複数のタブや /button-ajax と /button-sequence の同時リクエストが同じバッファを書き換えると状態が壊れる。
+ * 呼び出し元は load から save（表示だけの場合は読み終わる）までこのロックを持つ。
+ * ロックはセッションの属性として保持し、作成は {@link WebUtils#getSessionMutex} で排他する。
+ */
+public final class KeypadSessionLock {
+
+    static final String ATTRIBUTE_NAME = "keypadStateLock";
+
+    private KeypadSessionLock() {}
+
+    public static Lock of(HttpSession session) {
+        if (session.getAttribute(ATTRIBUTE_NAME) instanceof Lock lock) {
+            return lock;
+        }
+        synchronized (WebUtils.getSessionMutex(session)) {
+            if (session.getAttribute(ATTRIBUTE_NAME) instanceof Lock lock) {
+                return lock;
+            }
+            Lock lock = new ReentrantLock();
+            session.setAttribute(ATTRIBUTE_NAME, lock);
+            return lock;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.calculator.keypad;
+
+import com.example.calculator.model.CalculationRequest;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link KeypadEngine} が操作するキーパッドの状態。
+ *
+ * 表示値と前の値は数値に解析済みの形でも保持し、ボタンが押されるたびにインスタンスを作り直さずに更新する。
+ * WebSocketの接続や {@link KeypadStateStore} のセッションにはこのインスタンスをそのまま保持し、
+ * 画面のフォーム（{@link CalculationRequest}）との変換は {@link #from(CalculationRequest)} と
+ * {@link #copyTo(CalculationRequest)} で描画や入力のときだけ行う。
+ * スレッドセーフではない。
+ */
+public final class KeypadState {
+
+    // 表示桁数制限（符号・小数点を含む）
+    public static final int MAX_INPUT_LENGTH = 15;
+
+    final KeypadOperand display = new KeypadOperand();
+    final KeypadOperand previous = new KeypadOperand();
+    KeypadKey operation;
+    boolean resetDisplay;
+
+    public KeypadState() {
+        clear();
+    }
+
+    public static KeypadState from(CalculationRequest request) {
+        return of(request.getDisplayValue(), request.getPreviousValue(), request.getCurrentOperation(),
+            request.isShouldResetDisplay());
+    }
+
+    static KeypadState of(String displayValue, String previousValue, String currentOperation, boolean resetDisplay) {
+        KeypadState state = new KeypadState();
+        state.display.set(displayValue);
+        if (!previousValue.isEmpty()) {
+            state.previous.set(previousValue);
+        }
+        KeypadKey operation = KeypadKey.of(currentOperation);
+        state.operation = operation != null && operation.isOperator() ? operation : null;
+        state.resetDisplay = resetDisplay;
+        return state;
+    }
+
+    public void copyTo(CalculationRequest request) {
+        request.setDisplayValue(getDisplayValue());
+        request.setPreviousValue(getPreviousValue());
+        request.setCurrentOperation(getCurrentOperation());
+        request.setShouldResetDisplay(resetDisplay);
+    }
+
+    public CalculationRequest toRequest() {
+        CalculationRequest request = new CalculationRequest();
+        copyTo(request);
+        return request;
+    }
+
+    // 表示値を計算結果にする（フォームからの計算）。前の値と演算子はそのまま
+    public void setDisplayValue(BigDecimal value) {
+        display.setValue(value);
+    }
+
+    public String getDisplayValue() {
+        return display.toString();
+    }
+
+    public String getPreviousValue() {
+        return previous.toString();
+    }
+
+    public String getCurrentOperation() {
+        return operation == null ? "" : operation.label();
+    }
+
+    public boolean isShouldResetDisplay() {
+        return resetDisplay;
+    }
+
+    void copyFrom(KeypadState other) {
+        display.copyFrom(other.display);
+        previous.copyFrom(other.previous);
+        operation = other.operation;
+        resetDisplay = other.resetDisplay;
+    }
+
+    void clear() {
+        display.set(KeypadKey.DIGIT_0);
+        previous.clear();
+        operation = null;
+        resetDisplay = false;
+    }
+
+    boolean hasPendingOperation() {
+        return !previous.isEmpty() && operation != null;
+    }
+}
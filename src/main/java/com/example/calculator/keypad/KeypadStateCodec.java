@@ -0,0 +1,185 @@
+package com.example.calculator.keypad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * キーパッドの状態（表示値・前の値・演算子・表示リセットフラグ）を
+ * クライアントに持たせる改ざん検知付きトークンに変換する。
+ *
+ * <pre>
+ * token   := base64url(payload || HMAC-SHA256(payload)[0..16])
+ * payload := version(1) flags(1) operation(1) displayLength(varint) display(UTF-8)
+ *            previousLength(varint) previous(UTF-8)
+ * </pre>
+ */
+@Component
+public class KeypadStateCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(KeypadStateCodec.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int MAC_LENGTH = 16;
+    private static final int FLAG_RESET_DISPLAY = 1;
+    private static final String[] OPERATIONS = {"", "+", "-", "*", "/"};
+
+    // 異常に長いトークンはデコード前に拒否する
+    public static final int MAX_TOKEN_LENGTH = 4096;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public KeypadStateCodec(@Value("${calculator.keypad.token-secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // 秘密鍵が未設定の場合は起動ごとに生成する（複数ノード間ではトークンを共有できない）
+            log.warn("calculator.keypad.token-secret が未設定のため、ランダムな鍵を使用します");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String encode(KeypadState state) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(VERSION);
+        out.write(state.resetDisplay ? FLAG_RESET_DISPLAY : 0);
+        out.write(operationCode(state.getCurrentOperation()));
+        writeString(out, state.getDisplayValue());
+        writeString(out, state.getPreviousValue());
+
+        byte[] payload = out.toByteArray();
+        byte[] mac = mac(payload, payload.length);
+        byte[] token = new byte[payload.length + MAC_LENGTH];
+        System.arraycopy(payload, 0, token, 0, payload.length);
+        System.arraycopy(mac, 0, token, payload.length, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * トークンを検証して状態を復元する。空の場合は初期状態を返す。
+     *
+     * @throws IllegalArgumentException 形式が不正、または改ざんされている場合
+     */
+    public KeypadState decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return new KeypadState();
+        }
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            throw invalidToken();
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw invalidToken();
+        }
+        int payloadLength = bytes.length - MAC_LENGTH;
+        if (payloadLength < 3) {
+            throw invalidToken();
+        }
+
+        byte[] expected = mac(bytes, payloadLength);
+        byte[] actual = new byte[MAC_LENGTH];
+        System.arraycopy(bytes, payloadLength, actual, 0, MAC_LENGTH);
+        if (!MessageDigest.isEqual(actual, Arrays.copyOf(expected, MAC_LENGTH))) {
+            throw invalidToken();
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, payloadLength);
+            if (buffer.get() != VERSION) {
+                throw invalidToken();
+            }
+            int flags = buffer.get();
+            int operation = buffer.get();
+            if (operation < 0 || operation >= OPERATIONS.length) {
+                throw invalidToken();
+            }
+
+            String display = readString(buffer);
+            String previous = readString(buffer);
+            if (buffer.hasRemaining()) {
+                throw invalidToken();
+            }
+            return KeypadState.of(display, previous, OPERATIONS[operation], (flags & FLAG_RESET_DISPLAY) != 0);
+        } catch (RuntimeException e) {
+            throw e instanceof IllegalArgumentException ? e : invalidToken();
+        }
+    }
+
+    private byte[] mac(byte[] data, int length) {
+        Mac mac = macs.get();
+        mac.update(data, 0, length);
+        return mac.doFinal();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMACを初期化できません", e);
+        }
+    }
+
+    private static int operationCode(String operation) {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            if (OPERATIONS[i].equals(operation)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("サポートされていない演算子です: " + operation);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        while (length >= 0x80) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 28);
+        if (length < 0 || length > buffer.remaining()) {
+            throw invalidToken();
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static IllegalArgumentException invalidToken() {
+        return new IllegalArgumentException("状態トークンが不正です");
+    }
+}
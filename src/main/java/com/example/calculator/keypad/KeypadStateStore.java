@@ -0,0 +1,24 @@
+package com.example.calculator.keypad;
+
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Map;
+
+/**
+ * セッションごとのキーパッド状態の保存先。
+ * {@code calculator.keypad.state-store} で実装を切り替える（session / off-heap）。
+ */
+public interface KeypadStateStore {
+
+    /**
+     * 保存されている状態を返す。保存されていない場合は初期状態を返す。
+     * 返した状態を変更した場合は {@link #save} で保存し直す（ストアによっては保存されている実体そのものを返す）。
+     * 同じセッションの同時リクエストが同じ実体を変更しないよう、呼び出し元は load から save までの間
+     * {@link KeypadSessionLock} を持つ。
+     */
+    KeypadState load(HttpSession session);
+
+    void save(HttpSession session, KeypadState state);
+
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,20 @@
+package com.example.calculator.keypad;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class KeypadWebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private KeypadWebSocketHandler keypadWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(keypadWebSocketHandler, "/ws/keypad");
+    }
+}
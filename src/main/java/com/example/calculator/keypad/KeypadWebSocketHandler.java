@@ -0,0 +1,108 @@
+package com.example.calculator.keypad;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocketのキーパッド（/ws/keypad）。状態は接続ごとに {@link KeypadState} として保持し、HTTPセッションは使わない。
+ *
+ * <pre>
+ * クライアント → サーバー: ボタンを空白区切りで並べたテキスト（例: "1", "1 2 + 3 ="）
+ * サーバー → クライアント: "=" + 表示値（成功）
+ *                         "!" + 表示値 + タブ + エラーメッセージ（途中のボタンでエラー。以降のボタンは処理しない）
+ * </pre>
+ *
+ * 接続直後に現在の表示値（"=0"）を送る。
+ */
+@Component
+public class KeypadWebSocketHandler extends TextWebSocketHandler implements MeterBinder {
+
+    static final String STATE_ATTRIBUTE = "keypadState";
+    static final int MAX_FRAME_LENGTH = 1024;
+    static final int MAX_KEYS_PER_FRAME = 64;
+
+    @Autowired
+    private KeypadEngine keypadEngine;
+
+    @Autowired
+    private KeypadEventLog keypadEventLog;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile Timer messageTimer;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        connections.incrementAndGet();
+        KeypadState state = new KeypadState();
+        session.getAttributes().put(STATE_ATTRIBUTE, state);
+        session.sendMessage(new TextMessage("=" + state.getDisplayValue()));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        connections.decrementAndGet();
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        long start = System.nanoTime();
+        KeypadState state = (KeypadState) session.getAttributes().get(STATE_ATTRIBUTE);
+        String displayBefore = state.getDisplayValue();
+        String payload = message.getPayload().strip();
+        String error = null;
+
+        if (payload.length() > MAX_FRAME_LENGTH) {
+            error = "メッセージが長すぎます";
+        } else if (!payload.isEmpty()) {
+            String[] keys = payload.split(" +");
+            if (keys.length > MAX_KEYS_PER_FRAME) {
+                error = "ボタンは" + MAX_KEYS_PER_FRAME + "個まで指定してください";
+            } else {
+                for (String key : keys) {
+                    try {
+                        keypadEngine.press(state, key);
+                    } catch (Exception e) {
+                        error = e.getMessage();
+                        break;
+                    }
+                }
+            }
+        }
+
+        String display = state.getDisplayValue();
+        session.sendMessage(new TextMessage(error == null ? "=" + display : "!" + display + "\t" + error));
+
+        long elapsed = System.nanoTime() - start;
+        Timer timer = messageTimer;
+        if (timer != null) {
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        keypadEventLog.record("websocket", payload.length() > MAX_FRAME_LENGTH ? null : payload, displayBefore,
+            display, error, elapsed);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calculator.keypad.websocket.connections", connections, AtomicInteger::get)
+            .register(registry);
+        messageTimer = Timer.builder("calculator.keypad.websocket.messages")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+}
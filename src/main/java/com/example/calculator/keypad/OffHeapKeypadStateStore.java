@@ -0,0 +1,343 @@
+package com.example.calculator.keypad;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * キーパッド状態をダイレクトバッファ上の固定長スロットに詰めて保存する。
+ *
+ * <pre>
+ * slot (128 bytes):
+ *   0   lastAccess (long)
+ *   8   flags (byte)        bit0: shouldResetDisplay, bit1: overflow
+ *   9   operation (byte)    0: なし, 1: +, 2: -, 3: *, 4: /
+ *   10  未使用 (2 bytes)
+ *   12  display (58 bytes)
+ *   70  previous (58 bytes)
+ * </pre>
+ *
+ * 表示値と前の値は {@link KeypadOperand#writeTo} の形式（入力中・計算結果などの形と、計算結果の仮数・スケール）で書き込み、
+ * 読み込み時に文字列の解析や中間の文字列を作らずに {@link KeypadState} を復元する。
+ *
+ * スロットの確保はCASで行い、読み書きはスロット番号で分割したロックで保護する。
+ * スロットに収まらない値（{@value KeypadOperand#MAX_SERIALIZED_LENGTH} 文字を超える計算結果など）や、
+ * スロットが満杯の場合はヒープ上のマップに退避する。
+ * 一定時間アクセスのないセッションは定期的に削除する。
+ */
+@Component
+@ConditionalOnProperty(name = "calculator.keypad.state-store", havingValue = "off-heap")
+public class OffHeapKeypadStateStore implements KeypadStateStore, MeterBinder {
+
+    static final int SLOT_SIZE = 128;
+
+    private static final int LAST_ACCESS = 0;
+    private static final int FLAGS = 8;
+    private static final int OPERATION = 9;
+    private static final int DISPLAY = 12;
+    private static final int PREVIOUS = DISPLAY + KeypadOperand.SERIALIZED_SIZE;
+
+    private static final int FLAG_RESET_DISPLAY = 1;
+    private static final int FLAG_OVERFLOW = 2;
+    private static final KeypadKey[] OPERATIONS = {null, KeypadKey.ADD, KeypadKey.SUBTRACT, KeypadKey.MULTIPLY,
+        KeypadKey.DIVIDE};
+    private static final int STRIPES = 64;
+
+    private final int capacity;
+    private final long ttlMillis;
+    private final ByteBuffer memory;
+    private final AtomicIntegerArray slotUsed;
+    private final String[] slotKeys;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ConcurrentHashMap<String, Integer> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, OverflowEntry> overflow = new ConcurrentHashMap<>();
+    private final AtomicInteger usedSlots = new AtomicInteger();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final LongAdder evictions = new LongAdder();
+
+    public OffHeapKeypadStateStore(@Value("${calculator.keypad.state-store.capacity:100000}") int capacity,
+                                   @Value("${calculator.keypad.state-store.ttl:30m}") Duration ttl) {
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE / SLOT_SIZE) {
+            throw new IllegalArgumentException("キーパッド状態ストアの容量が不正です: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ttlMillis = ttl.toMillis();
+        this.memory = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        this.slotUsed = new AtomicIntegerArray(capacity);
+        this.slotKeys = new String[capacity];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public KeypadState load(HttpSession session) {
+        return load(session.getId(), System.currentTimeMillis());
+    }
+
+    @Override
+    public void save(HttpSession session, KeypadState state) {
+        save(session.getId(), state, System.currentTimeMillis());
+    }
+
+    KeypadState load(String key, long now) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            OverflowEntry entry = overflow.get(key);
+            if (entry == null || isExpired(entry.lastAccess, now)) {
+                return new KeypadState();
+            }
+            entry.lastAccess = now;
+            return copy(entry.state);
+        }
+
+        ReentrantLock lock = lockFor(slot);
+        lock.lock();
+        try {
+            // ロック待ちの間に削除・再利用されたスロットは読まない
+            if (!key.equals(slotKeys[slot])) {
+                return new KeypadState();
+            }
+            int base = slot * SLOT_SIZE;
+            if (isExpired(memory.getLong(base + LAST_ACCESS), now)) {
+                return new KeypadState();
+            }
+            memory.putLong(base + LAST_ACCESS, now);
+            int flags = memory.get(base + FLAGS);
+            if ((flags & FLAG_OVERFLOW) != 0) {
+                OverflowEntry entry = overflow.get(key);
+                if (entry == null) {
+                    return new KeypadState();
+                }
+                entry.lastAccess = now;
+                return copy(entry.state);
+            }
+            KeypadState state = new KeypadState();
+            state.resetDisplay = (flags & FLAG_RESET_DISPLAY) != 0;
+            state.operation = OPERATIONS[memory.get(base + OPERATION)];
+            state.display.readFrom(memory, base + DISPLAY);
+            state.previous.readFrom(memory, base + PREVIOUS);
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void save(String key, KeypadState state, long now) {
+        while (true) {
+            int slot = slotFor(key);
+            if (slot < 0) {
+                // 満杯の場合はヒープに退避する
+                overflow.put(key, new OverflowEntry(copy(state), now));
+                return;
+            }
+
+            ReentrantLock lock = lockFor(slot);
+            lock.lock();
+            try {
+                if (!key.equals(slotKeys[slot])) {
+                    continue;
+                }
+                write(slot, key, state, now);
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${calculator.keypad.state-store.sweep-interval:60000}")
+    public void evictExpired() {
+        evictExpired(System.currentTimeMillis());
+    }
+
+    void evictExpired(long now) {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (slotUsed.get(slot) == 0) {
+                continue;
+            }
+            ReentrantLock lock = lockFor(slot);
+            lock.lock();
+            try {
+                String key = slotKeys[slot];
+                if (key == null || !isExpired(memory.getLong(slot * SLOT_SIZE + LAST_ACCESS), now)) {
+                    continue;
+                }
+                index.remove(key, slot);
+                overflow.remove(key);
+                release(slot);
+                evictions.increment();
+            } finally {
+                lock.unlock();
+            }
+        }
+        overflow.entrySet().removeIf(entry -> {
+            boolean expired = isExpired(entry.getValue().lastAccess, now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        int used = usedSlots.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "off-heap");
+        stats.put("capacity", capacity);
+        stats.put("usedSlots", used);
+        stats.put("occupancy", (double) used / capacity);
+        stats.put("overflowEntries", overflow.size());
+        stats.put("evictions", evictions.sum());
+        stats.put("offHeapBytes", (long) capacity * SLOT_SIZE);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calculator.keypad.store.slots", usedSlots, AtomicInteger::get)
+            .tag("state", "used")
+            .register(registry);
+        Gauge.builder("calculator.keypad.store.slots", this, OffHeapKeypadStateStore::getCapacity)
+            .tag("state", "capacity")
+            .register(registry);
+        Gauge.builder("calculator.keypad.store.overflow", overflow, Map::size)
+            .register(registry);
+        FunctionCounter.builder("calculator.keypad.store.evictions", evictions, LongAdder::sum)
+            .register(registry);
+    }
+
+    int getUsedSlots() {
+        return usedSlots.get();
+    }
+
+    int getOverflowEntries() {
+        return overflow.size();
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    private int slotFor(String key) {
+        Integer existing = index.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int claimed = claimFreeSlot();
+        if (claimed < 0) {
+            return -1;
+        }
+        ReentrantLock lock = lockFor(claimed);
+        lock.lock();
+        try {
+            existing = index.putIfAbsent(key, claimed);
+            if (existing != null) {
+                slotUsed.set(claimed, 0);
+                usedSlots.decrementAndGet();
+                return existing;
+            }
+            slotKeys[claimed] = key;
+            overflow.remove(key);
+            return claimed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int claimFreeSlot() {
+        if (usedSlots.get() >= capacity) {
+            return -1;
+        }
+        int start = Math.floorMod(cursor.getAndIncrement(), capacity);
+        for (int i = 0; i < capacity; i++) {
+            int slot = start + i < capacity ? start + i : start + i - capacity;
+            if (slotUsed.get(slot) == 0 && slotUsed.compareAndSet(slot, 0, 1)) {
+                usedSlots.incrementAndGet();
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // ロックを保持した状態で呼び出す
+    private void release(int slot) {
+        slotKeys[slot] = null;
+        slotUsed.set(slot, 0);
+        usedSlots.decrementAndGet();
+    }
+
+    // ロックを保持した状態で呼び出す
+    private void write(int slot, String key, KeypadState state, long now) {
+        int base = slot * SLOT_SIZE;
+        memory.putLong(base + LAST_ACCESS, now);
+
+        int flags = state.resetDisplay ? FLAG_RESET_DISPLAY : 0;
+        if (!state.display.isSerializable() || !state.previous.isSerializable()) {
+            memory.put(base + FLAGS, (byte) (flags | FLAG_OVERFLOW));
+            overflow.put(key, new OverflowEntry(copy(state), now));
+            return;
+        }
+
+        memory.put(base + FLAGS, (byte) flags);
+        memory.put(base + OPERATION, (byte) operationCode(state.operation));
+        state.display.writeTo(memory, base + DISPLAY);
+        state.previous.writeTo(memory, base + PREVIOUS);
+        overflow.remove(key);
+    }
+
+    private boolean isExpired(long lastAccess, long now) {
+        return now - lastAccess > ttlMillis;
+    }
+
+    private ReentrantLock lockFor(int slot) {
+        return locks[slot & (STRIPES - 1)];
+    }
+
+    private static int operationCode(KeypadKey operation) {
+        for (int i = 1; i < OPERATIONS.length; i++) {
+            if (OPERATIONS[i] == operation) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    // 呼び出し側による変更がストアに反映されないよう、状態を複製する
+    private static KeypadState copy(KeypadState state) {
+        KeypadState copy = new KeypadState();
+        copy.copyFrom(state);
+        return copy;
+    }
+
+    private static final class OverflowEntry {
+        private final KeypadState state;
+        private volatile long lastAccess;
+
+        private OverflowEntry(KeypadState state, long lastAccess) {
+            this.state = state;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
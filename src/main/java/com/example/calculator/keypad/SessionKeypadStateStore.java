@@ -0,0 +1,39 @@
+package com.example.calculator.keypad;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * サーブレットコンテナのHttpSessionに {@link KeypadState} をそのまま保存する（既定）。
+ * 読み込みのたびに状態を作り直さず、計算結果も解析済みの数値のまま次のリクエストに引き継ぐ。
+ * 保存されている実体をそのまま返すため、呼び出し元は {@link KeypadSessionLock} で同じセッションのリクエストを排他する。
+ */
+@Component
+@ConditionalOnProperty(name = "calculator.keypad.state-store", havingValue = "session", matchIfMissing = true)
+public class SessionKeypadStateStore implements KeypadStateStore {
+
+    static final String ATTRIBUTE_NAME = "keypadState";
+
+    @Override
+    public KeypadState load(HttpSession session) {
+        Object state = session.getAttribute(ATTRIBUTE_NAME);
+        return state instanceof KeypadState keypadState ? keypadState : new KeypadState();
+    }
+
+    // 同じインスタンスでも設定し直し、セッションの変更としてコンテナに通知する
+    @Override
+    public void save(HttpSession session, KeypadState state) {
+        session.setAttribute(ATTRIBUTE_NAME, state);
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "session");
+        return stats;
+    }
+}
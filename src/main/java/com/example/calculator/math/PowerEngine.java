@@ -0,0 +1,260 @@
+package com.example.calculator.math;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * 任意精度のべき乗。
+ *
+ * 整数の指数は二乗を繰り返す方法（binary exponentiation）で計算する。精度の指定がない場合
+ * （{@link MathContext#UNLIMITED}）は {@link java.math.BigInteger} 上で厳密に計算し、
+ * 指定がある場合は各乗算を作業精度で丸めながら計算する。
+ * 非整数の指数は x^y = exp(y * ln(x)) として指定された精度で計算する。
+ * いずれも結果の桁数・指数が上限を超える場合は計算前に例外とする。
+ */
+public final class PowerEngine {
+
+    // 厳密計算・精度指定で許容する結果の最大桁数の既定値
+    public static final int DEFAULT_MAX_RESULT_DIGITS = 100_000;
+
+    // BigDecimalで表現できる指数（10の何乗か）の上限
+    private static final long MAX_EXPONENT = 999_999_999L;
+
+    private static final int GUARD_DIGITS = 5;
+
+    // exp の引数を 2^8 で割ってからテイラー展開し、8回二乗して戻す
+    private static final int EXP_SQUARINGS = 8;
+
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+    private static final BigDecimal EXP_REDUCTION = HALF.pow(EXP_SQUARINGS);
+    private static final BigDecimal ONE_THIRD_DENOMINATOR = new BigDecimal("3");
+    private static final BigDecimal ONE_NINTH_DENOMINATOR = new BigDecimal("9");
+    private static final double LN10_DOUBLE = Math.log(10);
+
+    // ln2, ln10 は計算済みの最も高い精度の値を使い回す
+    private static volatile BigDecimal cachedLn2 = BigDecimal.ZERO;
+    private static volatile BigDecimal cachedLn10 = BigDecimal.ZERO;
+
+    private PowerEngine() {}
+
+    public static BigDecimal pow(BigDecimal base, BigDecimal exponent, MathContext mathContext) {
+        return pow(base, exponent, mathContext, DEFAULT_MAX_RESULT_DIGITS);
+    }
+
+    public static BigDecimal pow(BigDecimal base, BigDecimal exponent, MathContext mathContext, int maxResultDigits) {
+        if (base == null || exponent == null || mathContext == null) {
+            throw new IllegalArgumentException("底と指数と精度は必須です");
+        }
+        if (mathContext.getPrecision() > maxResultDigits) {
+            throw new IllegalArgumentException("精度は" + maxResultDigits + "桁以下である必要があります");
+        }
+        if (isInteger(exponent)) {
+            int n;
+            try {
+                n = exponent.intValueExact();
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException("指数が大きすぎます");
+            }
+            return integerPower(base, n, mathContext, maxResultDigits);
+        }
+        return fractionalPower(base, exponent, mathContext);
+    }
+
+    public static boolean isInteger(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static BigDecimal integerPower(BigDecimal base, int n, MathContext mathContext, int maxResultDigits) {
+        if (n == 0) {
+            return BigDecimal.ONE;
+        }
+        if (base.signum() == 0) {
+            if (n < 0) {
+                throw new ArithmeticException("ゼロの負のべき乗は計算できません");
+            }
+            return BigDecimal.ZERO;
+        }
+        long magnitude = Math.abs((long) n);
+        checkExponent((adjustedExponent(base) + 1) * magnitude);
+
+        if (mathContext.getPrecision() == 0) {
+            // 厳密計算: 結果の桁数は高々 base.precision() * |n|
+            if (base.precision() * magnitude > maxResultDigits) {
+                throw new ArithmeticException("結果の桁数が上限(" + maxResultDigits + "桁)を超えます");
+            }
+            long scale = base.scale() * magnitude;
+            checkExponent(scale);
+            BigDecimal exact = new BigDecimal(base.unscaledValue().pow((int) magnitude), (int) scale);
+            if (n > 0) {
+                return exact;
+            }
+            try {
+                return BigDecimal.ONE.divide(exact);
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException("負の指数の結果が割り切れないため、精度の指定が必要です");
+            }
+        }
+
+        // 乗算ごとの丸め誤差が蓄積するため、指数の桁数分だけ作業精度を上げる
+        MathContext work = new MathContext(
+            mathContext.getPrecision() + digits(magnitude) + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal result = BigDecimal.ONE;
+        BigDecimal square = base;
+        long remaining = magnitude;
+        while (true) {
+            if ((remaining & 1) != 0) {
+                result = result.multiply(square, work);
+            }
+            remaining >>>= 1;
+            if (remaining == 0) {
+                break;
+            }
+            square = square.multiply(square, work);
+        }
+        if (n < 0) {
+            result = BigDecimal.ONE.divide(result, work);
+        }
+        return result.round(mathContext);
+    }
+
+    private static BigDecimal fractionalPower(BigDecimal base, BigDecimal exponent, MathContext mathContext) {
+        if (mathContext.getPrecision() == 0) {
+            throw new IllegalArgumentException("非整数の指数には精度の指定が必要です");
+        }
+        if (base.signum() < 0) {
+            throw new ArithmeticException("負の数の非整数乗は計算できません");
+        }
+        if (base.signum() == 0) {
+            if (exponent.signum() < 0) {
+                throw new ArithmeticException("ゼロの負のべき乗は計算できません");
+            }
+            return BigDecimal.ZERO;
+        }
+        if (exponent.compareTo(HALF) == 0) {
+            return SquareRootEngine.sqrt(base, mathContext);
+        }
+
+        // 結果の相対誤差は y * ln(x) の絶対誤差にほぼ等しいため、その整数部の桁数分だけ精度を上げる
+        double estimate = Math.abs(exponent.doubleValue()) * (Math.abs(adjustedExponent(base)) + 1) * LN10_DOUBLE;
+        if (!(estimate / LN10_DOUBLE <= MAX_EXPONENT)) {
+            throw new ArithmeticException("結果が大きすぎます");
+        }
+        MathContext work = new MathContext(
+            mathContext.getPrecision() + digits((long) estimate) + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal t = exponent.multiply(ln(base, work), work);
+        return exp(t, work).round(mathContext);
+    }
+
+    /**
+     * 自然対数。x = r * 2^k * 10^e (0.7 < r < 1.5) に分解し、
+     * ln(r) = 2 * atanh((r - 1) / (r + 1)) の級数で求める。
+     */
+    public static BigDecimal ln(BigDecimal x, MathContext mathContext) {
+        if (x.signum() <= 0) {
+            throw new ArithmeticException("0以下の数の対数は計算できません");
+        }
+        int e = adjustedExponent(x);
+        BigDecimal m = x.scaleByPowerOfTen(-e);
+        int k = (int) Math.round(Math.log(m.doubleValue()) / Math.log(2));
+        BigDecimal r = m.multiply(HALF.pow(k));
+
+        MathContext work = new MathContext(
+            mathContext.getPrecision() + digits(Math.abs((long) e)) + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal z = r.subtract(BigDecimal.ONE).divide(r.add(BigDecimal.ONE), work);
+        BigDecimal result = atanh(z, work).multiply(BigDecimal.TWO)
+            .add(ln2(work).multiply(BigDecimal.valueOf(k)), work)
+            .add(ln10(work).multiply(BigDecimal.valueOf(e)), work);
+        return result.round(mathContext);
+    }
+
+    /**
+     * 指数関数。t = q * ln(10) + r (0 <= r < ln(10)) と分解して e^t = 10^q * e^r とし、
+     * e^r は r / 2^8 のテイラー展開を8回二乗して求める。
+     */
+    public static BigDecimal exp(BigDecimal t, MathContext mathContext) {
+        if (t.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        int integerDigits = Math.max(0, t.precision() - t.scale());
+        MathContext work = new MathContext(
+            mathContext.getPrecision() + integerDigits + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal ln10 = ln10(work);
+        BigDecimal q = t.divide(ln10, 0, RoundingMode.FLOOR);
+        checkExponent(q.longValue());
+        BigDecimal r = t.subtract(q.multiply(ln10), work);
+
+        BigDecimal x = r.multiply(EXP_REDUCTION);
+        BigDecimal threshold = BigDecimal.ONE.movePointLeft(work.getPrecision() + 1);
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        for (int i = 1; term.abs().compareTo(threshold) > 0; i++) {
+            term = term.multiply(x, work).divide(BigDecimal.valueOf(i), work);
+            sum = sum.add(term, work);
+        }
+        for (int i = 0; i < EXP_SQUARINGS; i++) {
+            sum = sum.multiply(sum, work);
+        }
+        return sum.round(mathContext).scaleByPowerOfTen(q.intValue());
+    }
+
+    // atanh(z) = z + z^3/3 + z^5/5 + ...
+    private static BigDecimal atanh(BigDecimal z, MathContext work) {
+        if (z.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal threshold = z.abs().movePointLeft(work.getPrecision() + 1);
+        BigDecimal z2 = z.multiply(z, work);
+        BigDecimal power = z;
+        BigDecimal sum = z;
+        for (int i = 3; ; i += 2) {
+            power = power.multiply(z2, work);
+            BigDecimal term = power.divide(BigDecimal.valueOf(i), work);
+            if (term.abs().compareTo(threshold) <= 0) {
+                break;
+            }
+            sum = sum.add(term, work);
+        }
+        return sum;
+    }
+
+    // ln2 = 2 * atanh(1/3)
+    private static BigDecimal ln2(MathContext mathContext) {
+        BigDecimal cached = cachedLn2;
+        if (cached.precision() >= mathContext.getPrecision() + GUARD_DIGITS) {
+            return cached.round(mathContext);
+        }
+        MathContext work = new MathContext(mathContext.getPrecision() + 2 * GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal value = atanh(BigDecimal.ONE.divide(ONE_THIRD_DENOMINATOR, work), work).multiply(BigDecimal.TWO);
+        cachedLn2 = value;
+        return value.round(mathContext);
+    }
+
+    // ln10 = 3 * ln2 + ln(1.25) = 3 * ln2 + 2 * atanh(1/9)
+    private static BigDecimal ln10(MathContext mathContext) {
+        BigDecimal cached = cachedLn10;
+        if (cached.precision() >= mathContext.getPrecision() + GUARD_DIGITS) {
+            return cached.round(mathContext);
+        }
+        MathContext work = new MathContext(mathContext.getPrecision() + 2 * GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal value = ln2(work).multiply(ONE_THIRD_DENOMINATOR)
+            .add(atanh(BigDecimal.ONE.divide(ONE_NINTH_DENOMINATOR, work), work).multiply(BigDecimal.TWO), work);
+        cachedLn10 = value;
+        return value.round(mathContext);
+    }
+
+    // floor(log10(|value|))
+    private static int adjustedExponent(BigDecimal value) {
+        return value.precision() - value.scale() - 1;
+    }
+
+    private static int digits(long value) {
+        return value < 10 ? 1 : (int) Math.floor(Math.log10(value)) + 1;
+    }
+
+    private static void checkExponent(long exponent) {
+        if (Math.abs(exponent) > MAX_EXPONENT) {
+            throw new ArithmeticException("結果が大きすぎます");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.calculator.math;
+
+import java.math.BigDecimal;
+
+/**
+ * 10進数を「long の仮数 + スケール」の組で扱うための演算。
+ *
+ * 値は unscaled * 10^-scale を表し、加減算の結果のスケールは両者の大きい方、乗算は和となる
+ * （{@link BigDecimal} と同じ規則）。演算はすべてオーバーフロー検査付きのプリミティブ演算で、
+ * 桁あふれした場合は {@link ArithmeticException} を投げるため、呼び出し側でBigDecimalに切り替える。
+ *
+ * 値をlongの配列で保持する一括処理（列指向の計算や統計）のためのもので、BigDecimalどうしの演算には使わない。
+ * BigDecimalは仮数がlongに収まる間はlongで計算するため、仮数を取り出して計算し直すとかえって割り当てが増える。
+ */
+public final class ScaledDecimal {
+
+    // longの仮数で扱う最大のスケール（10^18 まではlongに収まる）
+    public static final int MAX_SCALE = 18;
+
+    // longで常に表現できる最大の桁数
+    public static final int MAX_PRECISION = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private ScaledDecimal() {}
+
+    public static boolean fits(BigDecimal value) {
+        int scale = value.scale();
+        return scale >= 0 && scale <= MAX_SCALE && value.precision() <= MAX_PRECISION;
+    }
+
+    public static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    public static long rescale(long unscaled, int fromScale, int toScale) {
+        int increase = toScale - fromScale;
+        if (increase < 0 || increase > MAX_SCALE) {
+            throw new ArithmeticException("スケールを変換できません");
+        }
+        return Math.multiplyExact(unscaled, POWERS_OF_TEN[increase]);
+    }
+
+    // 結果のスケールは Math.max(aScale, bScale)
+    public static long add(long a, int aScale, long b, int bScale) {
+        if (aScale == bScale) {
+            return Math.addExact(a, b);
+        }
+        if (aScale < bScale) {
+            return Math.addExact(rescale(a, aScale, bScale), b);
+        }
+        return Math.addExact(a, rescale(b, bScale, aScale));
+    }
+
+    // 結果のスケールは Math.max(aScale, bScale)
+    public static long subtract(long a, int aScale, long b, int bScale) {
+        if (aScale == bScale) {
+            return Math.subtractExact(a, b);
+        }
+        if (aScale < bScale) {
+            return Math.subtractExact(rescale(a, aScale, bScale), b);
+        }
+        return Math.subtractExact(a, rescale(b, bScale, aScale));
+    }
+
+    // 結果のスケールは aScale + bScale
+    public static long multiply(long a, long b) {
+        return Math.multiplyExact(a, b);
+    }
+}
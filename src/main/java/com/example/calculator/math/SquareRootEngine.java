@@ -0,0 +1,128 @@
+package com.example.calculator.math;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * 任意精度の平方根。
+ *
+ * 要求精度がdoubleで足りる場合は {@link Math#sqrt(double)} の結果をそのまま候補とし、
+ * それ以外はdoubleの値を初期値としたニュートン法で、反復ごとに精度を倍にしながら求める。
+ * 候補は最後に検算して補正するため、どちらの経路でも指定した丸めモードで正しく丸められる。
+ * 値は 10^(2k) で正規化してから計算するため、doubleの範囲を超える値でもオーバーフローしない。
+ */
+public final class SquareRootEngine {
+
+    // Math.sqrtの結果を候補として使える最大の桁数
+    static final int DOUBLE_PRECISION_DIGITS = 15;
+
+    // ニュートン法の初期値（doubleの平方根）が持つ正しい桁数
+    private static final int SEED_DIGITS = 15;
+
+    // 丸め前の候補に持たせるガード桁数
+    private static final int GUARD_DIGITS = 2;
+
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    private SquareRootEngine() {}
+
+    public static BigDecimal sqrt(BigDecimal value, int precision) {
+        return sqrt(value, new MathContext(precision, RoundingMode.HALF_UP));
+    }
+
+    public static BigDecimal sqrt(BigDecimal value, MathContext mathContext) {
+        if (value == null || mathContext == null) {
+            throw new IllegalArgumentException("数値と精度は必須です");
+        }
+        if (mathContext.getPrecision() <= 0) {
+            throw new IllegalArgumentException("精度は1桁以上を指定してください");
+        }
+        if (value.signum() < 0) {
+            throw new ArithmeticException("負の数の平方根は計算できません");
+        }
+        if (value.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+
+        // value = m * 10^(2k), 1 <= m < 100 に正規化する（平方根は 1 <= √m < 10）
+        int exponent = value.precision() - value.scale() - 1;
+        int k = Math.floorDiv(exponent, 2);
+        BigDecimal m = value.scaleByPowerOfTen(-2 * k);
+        double seed = Math.sqrt(m.doubleValue());
+
+        BigDecimal candidate = mathContext.getPrecision() <= DOUBLE_PRECISION_DIGITS
+            ? new BigDecimal(seed)
+            : newton(m, seed, mathContext.getPrecision() + GUARD_DIGITS);
+
+        // 1 <= √m < 10 なので、精度pでの1単位は常に 10^-(p-1)
+        BigDecimal ulp = BigDecimal.ONE.scaleByPowerOfTen(1 - mathContext.getPrecision());
+        BigDecimal floor = floor(candidate.setScale(mathContext.getPrecision() - 1, RoundingMode.DOWN), m, ulp);
+        boolean exact = floor.multiply(floor).compareTo(m) == 0;
+        BigDecimal root = exact ? floor : round(floor, m, ulp, mathContext.getRoundingMode());
+
+        BigDecimal result = root.round(mathContext).scaleByPowerOfTen(k);
+        return exact ? stripTrailingZeros(result) : result;
+    }
+
+    private static BigDecimal newton(BigDecimal m, double seed, int target) {
+        BigDecimal x = new BigDecimal(seed);
+        int precision = SEED_DIGITS;
+        boolean done = false;
+        while (!done) {
+            // 反復ごとに正しい桁数はおよそ倍になる。最後は目標精度でもう一度反復して収束させる
+            done = precision >= target;
+            precision = Math.min(precision * 2, target);
+            MathContext step = new MathContext(precision, RoundingMode.HALF_EVEN);
+            x = x.add(m.divide(x, step), step).multiply(HALF, step);
+        }
+        return x;
+    }
+
+    // 候補は真の値から数単位以内にあるため、floor^2 <= m < (floor + ulp)^2 となるまで補正する
+    private static BigDecimal floor(BigDecimal candidate, BigDecimal m, BigDecimal ulp) {
+        BigDecimal floor = candidate;
+        while (floor.multiply(floor).compareTo(m) > 0) {
+            floor = floor.subtract(ulp);
+        }
+        BigDecimal next = floor.add(ulp);
+        while (next.multiply(next).compareTo(m) <= 0) {
+            floor = next;
+            next = floor.add(ulp);
+        }
+        return floor;
+    }
+
+    // 割り切れない場合の丸め。真の値は floor と floor + ulp の間にある
+    private static BigDecimal round(BigDecimal floor, BigDecimal m, BigDecimal ulp, RoundingMode mode) {
+        BigDecimal ceiling = floor.add(ulp);
+        return switch (mode) {
+            case DOWN, FLOOR -> floor;
+            case UP, CEILING -> ceiling;
+            case UNNECESSARY -> throw new ArithmeticException("平方根が指定した精度で割り切れません");
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                BigDecimal middle = floor.add(ulp.multiply(HALF));
+                int comparison = m.compareTo(middle.multiply(middle));
+                if (comparison < 0) {
+                    yield floor;
+                }
+                if (comparison > 0) {
+                    yield ceiling;
+                }
+                if (mode == RoundingMode.HALF_UP) {
+                    yield ceiling;
+                }
+                if (mode == RoundingMode.HALF_DOWN) {
+                    yield floor;
+                }
+                yield floor.unscaledValue().testBit(0) ? ceiling : floor;
+            }
+        };
+    }
+
+    // 割り切れる場合は末尾の0を取り除く（例: √16 = 4, √10000 = 100）
+    private static BigDecimal stripTrailingZeros(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
+}
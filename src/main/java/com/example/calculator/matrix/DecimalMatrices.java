@@ -0,0 +1,184 @@
+package com.example.calculator.matrix;
+
+import com.example.calculator.service.CalculatorService;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * BigDecimalの行列（小さい行列向けの正確な計算）。
+ *
+ * 加算・乗算・転置は正確に計算する。行列式と連立方程式は、全体に10の累乗を掛けて整数の行列にしてから
+ * 除算が常に割り切れる消去法（Bareissの分数を使わないガウス・ジョルダン消去）で求める。
+ * 途中で丸めが起きないため、行列式は正確な値になり、連立方程式の解は
+ * 正確な分数を {@link CalculatorService} の除算と同じく小数点以下10桁に四捨五入した値になる。
+ */
+final class DecimalMatrices {
+
+    private DecimalMatrices() {}
+
+    static BigDecimal[][] add(BigDecimal[][] a, BigDecimal[][] b) {
+        if (a.length != b.length || a[0].length != b[0].length) {
+            throw mismatch(a, b);
+        }
+        BigDecimal[][] c = new BigDecimal[a.length][a[0].length];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a[0].length; j++) {
+                c[i][j] = a[i][j].add(b[i][j]);
+            }
+        }
+        return c;
+    }
+
+    static BigDecimal[][] transpose(BigDecimal[][] a) {
+        BigDecimal[][] c = new BigDecimal[a[0].length][a.length];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a[0].length; j++) {
+                c[j][i] = a[i][j];
+            }
+        }
+        return c;
+    }
+
+    static BigDecimal[][] multiply(ForkJoinPool pool, BigDecimal[][] a, BigDecimal[][] b) {
+        if (a[0].length != b.length) {
+            throw new IllegalArgumentException("左の行列の列数と右の行列の行数が一致しません: "
+                + a.length + "×" + a[0].length + " と " + b.length + "×" + b[0].length);
+        }
+        BigDecimal[][] c = new BigDecimal[a.length][b[0].length];
+        pool.submit(() -> IntStream.range(0, a.length).parallel().forEach(i -> {
+            for (int j = 0; j < b[0].length; j++) {
+                BigDecimal sum = BigDecimal.ZERO;
+                for (int k = 0; k < b.length; k++) {
+                    sum = sum.add(a[i][k].multiply(b[k][j]));
+                }
+                c[i][j] = sum;
+            }
+        })).join();
+        return c;
+    }
+
+    static BigDecimal determinant(ForkJoinPool pool, BigDecimal[][] a) {
+        checkSquare(a);
+        int scale = maxScale(a, null);
+        BigInteger[][] m = toIntegers(a, null, scale);
+        BigInteger det = eliminate(pool, m, a.length);
+        // 各行に 10^scale を掛けたので、行列式は 10^(scale·n) 倍になっている
+        BigDecimal result = new BigDecimal(det, scale * a.length).stripTrailingZeros();
+        return result.scale() < 0 ? result.setScale(0) : result;
+    }
+
+    // a·x = b の x
+    static BigDecimal[][] solve(ForkJoinPool pool, BigDecimal[][] a, BigDecimal[][] b) {
+        checkSquare(a);
+        if (a.length != b.length) {
+            throw mismatch(a, b);
+        }
+        int n = a.length;
+        int columns = b[0].length;
+        // a と b の両方に同じ 10^scale を掛けても解は変わらない
+        BigInteger[][] m = toIntegers(a, b, maxScale(a, b));
+        BigInteger det = eliminate(pool, m, n);
+        if (det.signum() == 0) {
+            throw new ArithmeticException("行列が特異なため、解が一意に定まりません");
+        }
+
+        // 消去後は [d·I | d·x]（d は行の入れ替えを含めた最後のピボット）
+        BigDecimal divisor = new BigDecimal(m[n - 1][n - 1]);
+        BigDecimal[][] x = new BigDecimal[n][columns];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < columns; j++) {
+                x[i][j] = new BigDecimal(m[i][n + j])
+                    .divide(divisor, CalculatorService.DIVISION_SCALE, CalculatorService.DIVISION_ROUNDING);
+            }
+        }
+        return x;
+    }
+
+    /**
+     * 分数を使わないガウス・ジョルダン消去。各ステップの更新
+     * m[i][j] = (m[k][k]·m[i][j] − m[i][k]·m[k][j]) / 前のピボット
+     * は常に割り切れ、終了時に左側の n 列は対角成分がすべて同じ値（行の入れ替え後の行列式）の対角行列になる。
+     *
+     * @return 行列式（特異な場合は0）
+     */
+    static BigInteger eliminate(ForkJoinPool pool, BigInteger[][] m, int n) {
+        int width = m[0].length;
+        BigInteger previous = BigInteger.ONE;
+        boolean negate = false;
+        for (int k = 0; k < n; k++) {
+            int pivot = k;
+            while (pivot < n && m[pivot][k].signum() == 0) {
+                pivot++;
+            }
+            if (pivot == n) {
+                return BigInteger.ZERO;
+            }
+            if (pivot != k) {
+                BigInteger[] row = m[pivot];
+                m[pivot] = m[k];
+                m[k] = row;
+                negate = !negate;
+            }
+
+            int step = k;
+            BigInteger divisor = previous;
+            BigInteger[] pivotRow = m[k];
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> {
+                if (i == step) {
+                    return;
+                }
+                BigInteger[] row = m[i];
+                BigInteger factor = row[step];
+                for (int j = 0; j < width; j++) {
+                    if (j != step) {
+                        row[j] = pivotRow[step].multiply(row[j]).subtract(factor.multiply(pivotRow[j])).divide(divisor);
+                    }
+                }
+                row[step] = BigInteger.ZERO;
+            })).join();
+            // ピボットの行より上の対角成分も同じ値になるよう、ピボットの行以外をすべて更新している
+            previous = pivotRow[k];
+        }
+        return negate ? previous.negate() : previous;
+    }
+
+    private static int maxScale(BigDecimal[][] a, BigDecimal[][] b) {
+        int scale = 0;
+        for (BigDecimal[][] matrix : b == null ? new BigDecimal[][][] {a} : new BigDecimal[][][] {a, b}) {
+            for (BigDecimal[] row : matrix) {
+                for (BigDecimal value : row) {
+                    scale = Math.max(scale, value.stripTrailingZeros().scale());
+                }
+            }
+        }
+        return scale;
+    }
+
+    // [a | b] に 10^scale を掛けた整数の行列
+    private static BigInteger[][] toIntegers(BigDecimal[][] a, BigDecimal[][] b, int scale) {
+        int n = a.length;
+        int columns = a[0].length + (b == null ? 0 : b[0].length);
+        BigInteger[][] m = new BigInteger[n][columns];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < columns; j++) {
+                BigDecimal value = j < a[0].length ? a[i][j] : b[i][j - a[0].length];
+                m[i][j] = value.movePointRight(scale).toBigIntegerExact();
+            }
+        }
+        return m;
+    }
+
+    private static void checkSquare(BigDecimal[][] a) {
+        if (a.length != a[0].length) {
+            throw new IllegalArgumentException("正方行列を指定してください: " + a.length + "×" + a[0].length);
+        }
+    }
+
+    private static IllegalArgumentException mismatch(BigDecimal[][] a, BigDecimal[][] b) {
+        return new IllegalArgumentException("行列の大きさが一致しません: "
+            + a.length + "×" + a[0].length + " と " + b.length + "×" + b[0].length);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.calculator.matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 部分ピボット選択付きのLU分解（PA = LU）。
+ *
+ * 行優先の配列の上で、{@link #BLOCK} 列ずつのブロックに分けて分解する（右方向の更新をまとめるブロックLU）。
+ * <ol>
+ *   <li>ブロックの列だけを通常のガウス消去で分解する。ピボットの行の入れ替えは行全体に適用する</li>
+ *   <li>ブロックの右側の行（U12）を L11 で前進消去する</li>
+ *   <li>残りの部分行列を A22 −= L21·U12 で更新する</li>
+ * </ol>
+ * 計算量のほとんどを占める3の更新は、行のまとまりごとに並列に行い、列も {@link #UPDATE_COLUMNS} 列ずつに区切って
+ * U12 の該当部分がキャッシュに載ったまま使い回されるようにする。
+ * 分解後の配列は対角より下に L（対角の1は省略）、対角以上に U を持つ。
+ */
+final class LuDecomposition {
+
+    static final int BLOCK = 64;
+
+    // 残りの部分行列の更新で、1タスクが受け持つ行数
+    private static final int UPDATE_ROWS = 16;
+
+    // 残りの部分行列の更新で、まとめて処理する列数
+    private static final int UPDATE_COLUMNS = 256;
+
+    // 前進・後退代入で、1タスクが受け持つ右辺の列数
+    private static final int SOLVE_COLUMNS = 64;
+
+    // 行列式の途中の積が溢れないよう、指数がこの範囲を超えたら仮数と指数に分ける
+    private static final int MAX_EXPONENT = 512;
+
+    private final ForkJoinPool pool;
+    private final double[] lu;
+    private final int n;
+    private final int[] pivots;
+    private final boolean singular;
+    private final int sign;
+
+    private LuDecomposition(ForkJoinPool pool, double[] lu, int n, int[] pivots, boolean singular, int sign) {
+        this.pool = pool;
+        this.lu = lu;
+        this.n = n;
+        this.pivots = pivots;
+        this.singular = singular;
+        this.sign = sign;
+    }
+
+    /**
+     * @param a 行優先の n×n 行列。分解の結果で上書きされる
+     */
+    static LuDecomposition decompose(ForkJoinPool pool, double[] a, int n) {
+        int[] pivots = new int[n];
+        boolean singular = false;
+        int sign = 1;
+
+        for (int k0 = 0; k0 < n; k0 += BLOCK) {
+            int k1 = Math.min(k0 + BLOCK, n);
+
+            // 1. ブロックの列の分解
+            for (int j = k0; j < k1; j++) {
+                int pivot = j;
+                double max = Math.abs(a[j * n + j]);
+                for (int i = j + 1; i < n; i++) {
+                    double value = Math.abs(a[i * n + j]);
+                    if (value > max) {
+                        max = value;
+                        pivot = i;
+                    }
+                }
+                pivots[j] = pivot;
+                if (max == 0) {
+                    // この列は消去済み。特異であることだけ記録して次の列に進む
+                    singular = true;
+                    continue;
+                }
+                if (pivot != j) {
+                    swapRows(a, n, j, pivot);
+                    sign = -sign;
+                }
+                double diagonal = a[j * n + j];
+                for (int i = j + 1; i < n; i++) {
+                    int row = i * n;
+                    double l = a[row + j] / diagonal;
+                    a[row + j] = l;
+                    if (l != 0) {
+                        for (int c = j + 1; c < k1; c++) {
+                            a[row + c] -= l * a[j * n + c];
+                        }
+                    }
+                }
+            }
+            if (k1 == n) {
+                break;
+            }
+
+            // 2. U12 = L11^-1 · A12
+            for (int j = k0; j < k1; j++) {
+                for (int i = j + 1; i < k1; i++) {
+                    double l = a[i * n + j];
+                    if (l != 0) {
+                        axpy(a, i * n, j * n, l, k1, n);
+                    }
+                }
+            }
+
+            // 3. A22 −= L21 · U12
+            int panel = k0;
+            int tasks = (n - k1 + UPDATE_ROWS - 1) / UPDATE_ROWS;
+            pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(t -> {
+                int rowFrom = k1 + t * UPDATE_ROWS;
+                updateTrailing(a, n, panel, k1, rowFrom, Math.min(rowFrom + UPDATE_ROWS, n));
+            })).join();
+        }
+        return new LuDecomposition(pool, a, n, pivots, singular, sign);
+    }
+
+    // 行 [rowFrom, rowTo) の列 k1 以降から、L の列 [k0, k1) と U の行 [k0, k1) の積を引く
+    private static void updateTrailing(double[] a, int n, int k0, int k1, int rowFrom, int rowTo) {
+        for (int c0 = k1; c0 < n; c0 += UPDATE_COLUMNS) {
+            int c1 = Math.min(c0 + UPDATE_COLUMNS, n);
+            for (int i = rowFrom; i < rowTo; i++) {
+                for (int k = k0; k < k1; k++) {
+                    double l = a[i * n + k];
+                    if (l != 0) {
+                        axpy(a, i * n, k * n, l, c0, c1);
+                    }
+                }
+            }
+        }
+    }
+
+    boolean isSingular() {
+        return singular;
+    }
+
+    /**
+     * @return 行列式。doubleの範囲を超える場合は無限大または0
+     */
+    double determinant() {
+        if (singular) {
+            return 0;
+        }
+        double mantissa = sign;
+        int exponent = 0;
+        for (int i = 0; i < n; i++) {
+            mantissa *= lu[i * n + i];
+            int e = Math.getExponent(mantissa);
+            if (e > MAX_EXPONENT || e < -MAX_EXPONENT) {
+                mantissa = Math.scalb(mantissa, -e);
+                exponent += e;
+            }
+        }
+        return Math.scalb(mantissa, exponent);
+    }
+
+    // 行列式の符号（特異な場合は0）
+    int determinantSign() {
+        if (singular) {
+            return 0;
+        }
+        int result = sign;
+        for (int i = 0; i < n; i++) {
+            if (lu[i * n + i] < 0) {
+                result = -result;
+            }
+        }
+        return result;
+    }
+
+    // 行列式の絶対値の自然対数（特異な場合は負の無限大）
+    double logAbsDeterminant() {
+        if (singular) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double result = 0;
+        for (int i = 0; i < n; i++) {
+            result += Math.log(Math.abs(lu[i * n + i]));
+        }
+        return result;
+    }
+
+    /**
+     * A·X = B を解く。
+     *
+     * @param b 行優先の n×columns 行列。解で上書きされる
+     * @return b
+     */
+    double[] solve(double[] b, int columns) {
+        if (singular) {
+            throw new ArithmeticException("行列が特異なため、解が一意に定まりません");
+        }
+        for (int j = 0; j < n; j++) {
+            if (pivots[j] != j) {
+                swapRows(b, columns, j, pivots[j]);
+            }
+        }
+        int tasks = (columns + SOLVE_COLUMNS - 1) / SOLVE_COLUMNS;
+        if (tasks == 1) {
+            substitute(b, columns, 0, columns);
+        } else {
+            pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(t -> substitute(b, columns,
+                t * SOLVE_COLUMNS, Math.min((t + 1) * SOLVE_COLUMNS, columns)))).join();
+        }
+        return b;
+    }
+
+    // 右辺の列 [from, to) について、L の前進代入と U の後退代入を行う
+    private void substitute(double[] b, int columns, int from, int to) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                double l = lu[i * n + j];
+                if (l != 0) {
+                    axpy(b, i * columns, j * columns, l, from, to);
+                }
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = i + 1; j < n; j++) {
+                double u = lu[i * n + j];
+                if (u != 0) {
+                    axpy(b, i * columns, j * columns, u, from, to);
+                }
+            }
+            double diagonal = lu[i * n + i];
+            for (int c = from; c < to; c++) {
+                b[i * columns + c] /= diagonal;
+            }
+        }
+    }
+
+    // values[target + c] −= factor · values[source + c]（c は [from, to)）
+    private static void axpy(double[] values, int target, int source, double factor, int from, int to) {
+        for (int c = from; c < to; c++) {
+            values[target + c] -= factor * values[source + c];
+        }
+    }
+
+    private static void swapRows(double[] values, int columns, int first, int second) {
+        int a = first * columns;
+        int b = second * columns;
+        for (int c = 0; c < columns; c++) {
+            double value = values[a + c];
+            values[a + c] = values[b + c];
+            values[b + c] = value;
+        }
+    }
+}
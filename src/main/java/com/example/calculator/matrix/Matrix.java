@@ -0,0 +1,123 @@
+package com.example.calculator.matrix;
+
+/**
+ * doubleの密行列。
+ *
+ * 値は {@link #TILE}×{@link #TILE} のタイルに分け、タイルごとに行優先で1つの配列に並べる（タイルの並びも行優先）。
+ * 行数・列数はタイルの大きさに切り上げ、はみ出した部分は常に0にしておくため、
+ * 演算はタイル単位で端を気にせずに行える。
+ */
+public final class Matrix {
+
+    static final int TILE_SHIFT = 6;
+    public static final int TILE = 1 << TILE_SHIFT;
+    static final int TILE_MASK = TILE - 1;
+    static final int TILE_AREA = TILE * TILE;
+
+    private final int rows;
+    private final int cols;
+    private final int tileRows;
+    private final int tileCols;
+    final double[] data;
+
+    public Matrix(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("行数と列数は1以上を指定してください: " + rows + "×" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.tileRows = (rows + TILE_MASK) >> TILE_SHIFT;
+        this.tileCols = (cols + TILE_MASK) >> TILE_SHIFT;
+        this.data = new double[Math.multiplyExact(tileRows * tileCols, TILE_AREA)];
+    }
+
+    public static Matrix of(double[][] values) {
+        if (values == null || values.length == 0 || values[0].length == 0) {
+            throw new IllegalArgumentException("行列が空です");
+        }
+        Matrix matrix = new Matrix(values.length, values[0].length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].length != matrix.cols) {
+                throw new IllegalArgumentException("行ごとの列数が一致しません");
+            }
+            for (int j = 0; j < matrix.cols; j++) {
+                matrix.set(i, j, values[i][j]);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * 行優先の配列（rows×cols）から作る。
+     */
+    public static Matrix fromRowMajor(int rows, int cols, double[] values) {
+        Matrix matrix = new Matrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.data[matrix.index(i, j)] = values[i * cols + j];
+            }
+        }
+        return matrix;
+    }
+
+    public double[] toRowMajor() {
+        double[] values = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                values[i * cols + j] = data[index(i, j)];
+            }
+        }
+        return values;
+    }
+
+    public double[][] toArray() {
+        double[][] values = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                values[i][j] = data[index(i, j)];
+            }
+        }
+        return values;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public double get(int row, int col) {
+        checkIndex(row, col);
+        return data[index(row, col)];
+    }
+
+    public void set(int row, int col, double value) {
+        checkIndex(row, col);
+        data[index(row, col)] = value;
+    }
+
+    int tileRows() {
+        return tileRows;
+    }
+
+    int tileCols() {
+        return tileCols;
+    }
+
+    // タイル (tileRow, tileCol) の先頭の位置
+    int tileOffset(int tileRow, int tileCol) {
+        return (tileRow * tileCols + tileCol) * TILE_AREA;
+    }
+
+    int index(int row, int col) {
+        return tileOffset(row >> TILE_SHIFT, col >> TILE_SHIFT) + ((row & TILE_MASK) << TILE_SHIFT) + (col & TILE_MASK);
+    }
+
+    private void checkIndex(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + col + ") は " + rows + "×" + cols + " の範囲外です");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.calculator.matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * {@link Matrix} の演算。タイル単位の処理を {@link ForkJoinPool} で並列に実行する。
+ *
+ * 乗算は結果のタイルごとに1タスクとし、A の行方向のタイルと B の列方向のタイルを順に掛けて足し込む。
+ * タイル（64×64、32KB）どうしの積はキャッシュに載ったまま計算でき、最内ループは連続したメモリを
+ * 同じ長さで回るためJITによってベクトル化される。結果のタイルは1つのタスクだけが書き込むため同期は不要。
+ */
+final class MatrixEngine {
+
+    // 乗算のカーネルで同時に計算する結果の行数（Bの1行の読み込みを使い回す）
+    private static final int ROW_BLOCK = 4;
+
+    private final ForkJoinPool pool;
+
+    MatrixEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    Matrix add(Matrix a, Matrix b) {
+        if (a.rows() != b.rows() || a.cols() != b.cols()) {
+            throw mismatch(a, b);
+        }
+        // 同じ大きさの行列はタイルの配置も同じなので、配列の要素ごとに足せばよい（はみ出し部分は0+0）
+        Matrix c = new Matrix(a.rows(), a.cols());
+        int tiles = a.tileRows() * a.tileCols();
+        parallel(tiles, t -> {
+            int from = t * Matrix.TILE_AREA;
+            for (int i = from; i < from + Matrix.TILE_AREA; i++) {
+                c.data[i] = a.data[i] + b.data[i];
+            }
+        });
+        return c;
+    }
+
+    Matrix transpose(Matrix a) {
+        Matrix c = new Matrix(a.cols(), a.rows());
+        parallel(a.tileRows() * a.tileCols(), t -> {
+            int tileRow = t / a.tileCols();
+            int tileCol = t % a.tileCols();
+            int source = a.tileOffset(tileRow, tileCol);
+            int target = c.tileOffset(tileCol, tileRow);
+            for (int i = 0; i < Matrix.TILE; i++) {
+                for (int j = 0; j < Matrix.TILE; j++) {
+                    c.data[target + (j << Matrix.TILE_SHIFT) + i] = a.data[source + (i << Matrix.TILE_SHIFT) + j];
+                }
+            }
+        });
+        return c;
+    }
+
+    Matrix multiply(Matrix a, Matrix b) {
+        if (a.cols() != b.rows()) {
+            throw new IllegalArgumentException("左の行列の列数と右の行列の行数が一致しません: "
+                + a.rows() + "×" + a.cols() + " と " + b.rows() + "×" + b.cols());
+        }
+        Matrix c = new Matrix(a.rows(), b.cols());
+        int inner = a.tileCols();
+        parallel(c.tileRows() * c.tileCols(), t -> {
+            int tileRow = t / c.tileCols();
+            int tileCol = t % c.tileCols();
+            int target = c.tileOffset(tileRow, tileCol);
+            for (int k = 0; k < inner; k++) {
+                multiplyTile(a.data, a.tileOffset(tileRow, k), b.data, b.tileOffset(k, tileCol), c.data, target);
+            }
+        });
+        return c;
+    }
+
+    LuDecomposition decompose(Matrix a) {
+        if (a.rows() != a.cols()) {
+            throw notSquare(a);
+        }
+        return LuDecomposition.decompose(pool, a.toRowMajor(), a.rows());
+    }
+
+    // a·x = b の x（b の列ごとに解く）
+    Matrix solve(Matrix a, Matrix b) {
+        if (a.rows() != b.rows()) {
+            throw mismatch(a, b);
+        }
+        return Matrix.fromRowMajor(b.rows(), b.cols(), decompose(a).solve(b.toRowMajor(), b.cols()));
+    }
+
+    // c(タイル) += a(タイル) × b(タイル)
+    static void multiplyTile(double[] a, int aOffset, double[] b, int bOffset, double[] c, int cOffset) {
+        for (int i = 0; i < Matrix.TILE; i += ROW_BLOCK) {
+            int c0 = cOffset + (i << Matrix.TILE_SHIFT);
+            int c1 = c0 + Matrix.TILE;
+            int c2 = c1 + Matrix.TILE;
+            int c3 = c2 + Matrix.TILE;
+            int a0 = aOffset + (i << Matrix.TILE_SHIFT);
+            for (int k = 0; k < Matrix.TILE; k++) {
+                double x0 = a[a0 + k];
+                double x1 = a[a0 + Matrix.TILE + k];
+                double x2 = a[a0 + 2 * Matrix.TILE + k];
+                double x3 = a[a0 + 3 * Matrix.TILE + k];
+                int row = bOffset + (k << Matrix.TILE_SHIFT);
+                for (int j = 0; j < Matrix.TILE; j++) {
+                    double y = b[row + j];
+                    c[c0 + j] += x0 * y;
+                    c[c1 + j] += x1 * y;
+                    c[c2 + j] += x2 * y;
+                    c[c3 + j] += x3 * y;
+                }
+            }
+        }
+    }
+
+    private void parallel(int tasks, IntConsumer task) {
+        if (tasks == 1) {
+            task.accept(0);
+            return;
+        }
+        pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(task)).join();
+    }
+
+    static IllegalArgumentException mismatch(Matrix a, Matrix b) {
+        return new IllegalArgumentException("行列の大きさが一致しません: "
+            + a.rows() + "×" + a.cols() + " と " + b.rows() + "×" + b.cols());
+    }
+
+    static IllegalArgumentException notSquare(Matrix a) {
+        return new IllegalArgumentException("正方行列を指定してください: " + a.rows() + "×" + a.cols());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.calculator.matrix;
+
+/**
+ * 行列の計算方法。
+ */
+public enum MatrixMode {
+
+    // タイルに分けたdoubleの配列で並列に計算する
+    DOUBLE("double"),
+
+    // BigDecimalで正確に計算する（小さい行列向け）。除算は CalculatorService と同じく小数点以下10桁に四捨五入する
+    DECIMAL("decimal");
+
+    private final String label;
+
+    MatrixMode(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static MatrixMode of(String label) {
+        for (MatrixMode mode : values()) {
+            if (mode.label.equalsIgnoreCase(label)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("サポートされていないモードです: " + label);
+    }
+}
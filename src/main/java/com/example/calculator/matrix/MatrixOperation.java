@@ -0,0 +1,40 @@
+package com.example.calculator.matrix;
+
+/**
+ * 行列の演算。
+ */
+public enum MatrixOperation {
+
+    ADD("add", true),
+    MULTIPLY("multiply", true),
+    TRANSPOSE("transpose", false),
+    DETERMINANT("determinant", false),
+    // a·x = b を解く
+    SOLVE("solve", true);
+
+    private final String label;
+    private final boolean binary;
+
+    MatrixOperation(String label, boolean binary) {
+        this.label = label;
+        this.binary = binary;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    // 2つ目の行列 b を使うか
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public static MatrixOperation of(String label) {
+        for (MatrixOperation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("サポートされていない行列演算です: " + label);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.calculator.matrix;
+
+/**
+ * 行列演算の結果。
+ *
+ * @param result            結果の行列（double[][] または BigDecimal[][]）、行列式の場合は数値。
+ *                          double モードの行列式がdoubleの範囲を超える場合は null
+ * @param logAbsDeterminant double モードの行列式の絶対値の自然対数（行列式以外は null）
+ * @param determinantSign   double モードの行列式の符号（行列式以外は null）
+ */
+public record MatrixResult(MatrixOperation operation,
+                           MatrixMode mode,
+                           Object result,
+                           Double logAbsDeterminant,
+                           Integer determinantSign,
+                           long readNanos,
+                           long computeNanos) {
+}
@@ -0,0 +1,244 @@
+package com.example.calculator.matrix;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 行列の加算・乗算・転置・行列式・連立方程式。
+ *
+ * 入力は {@code {"a": [[...], ...], "b": [[...], ...]}} の形のJSONで、ストリームで読みながら
+ * double モードはプリミティブの配列に、decimal モードはBigDecimalの配列に変換する。
+ * 計算は専用の {@link ForkJoinPool} で並列に行う。
+ */
+@Service
+public class MatrixService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${calculator.matrix.max-size:4096}")
+    private int maxSize;
+
+    @Value("${calculator.matrix.decimal.max-size:100}")
+    private int maxDecimalSize;
+
+    // decimalモードの1要素あたりの小数点以下の桁数と有効桁数の上限。
+    // 行列式と連立方程式は全体を 10^(最大のスケール) 倍した整数で消去するため、桁数の大きい要素が1つあるだけで計算量が膨らむ
+    @Value("${calculator.matrix.decimal.max-scale:18}")
+    private int maxDecimalScale;
+
+    @Value("${calculator.matrix.decimal.max-precision:36}")
+    private int maxDecimalPrecision;
+
+    @Value("${calculator.matrix.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private MatrixEngine engine;
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        engine = new MatrixEngine(pool);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public MatrixResult compute(InputStream input, MatrixOperation operation, MatrixMode mode) throws IOException {
+        long start = System.nanoTime();
+        Object a = null;
+        Object b = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("行列 a, b をJSONのオブジェクトで指定してください");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if ("a".equals(name)) {
+                    a = read(parser, mode);
+                } else if ("b".equals(name) && operation.isBinary()) {
+                    b = read(parser, mode);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSONの形式が正しくありません: " + e.getOriginalMessage());
+        }
+        if (a == null) {
+            throw new IllegalArgumentException("行列 a を指定してください");
+        }
+        if (operation.isBinary() && b == null) {
+            throw new IllegalArgumentException("行列 b を指定してください");
+        }
+        long readNanos = System.nanoTime() - start;
+
+        if (mode == MatrixMode.DECIMAL) {
+            return compute(operation, (BigDecimal[][]) a, (BigDecimal[][]) b, readNanos);
+        }
+        return compute(operation, (Matrix) a, (Matrix) b, readNanos);
+    }
+
+    MatrixResult compute(MatrixOperation operation, Matrix a, Matrix b, long readNanos) {
+        long start = System.nanoTime();
+        Object result;
+        Double logAbsDeterminant = null;
+        Integer determinantSign = null;
+        switch (operation) {
+            case ADD -> result = engine.add(a, b).toArray();
+            case MULTIPLY -> result = engine.multiply(a, b).toArray();
+            case TRANSPOSE -> result = engine.transpose(a).toArray();
+            case DETERMINANT -> {
+                LuDecomposition lu = engine.decompose(a);
+                double determinant = lu.determinant();
+                result = Double.isFinite(determinant) ? determinant : null;
+                logAbsDeterminant = lu.logAbsDeterminant();
+                determinantSign = lu.determinantSign();
+            }
+            default -> result = engine.solve(a, b).toArray();
+        }
+        return new MatrixResult(operation, MatrixMode.DOUBLE, result, logAbsDeterminant, determinantSign,
+            readNanos, System.nanoTime() - start);
+    }
+
+    MatrixResult compute(MatrixOperation operation, BigDecimal[][] a, BigDecimal[][] b, long readNanos) {
+        long start = System.nanoTime();
+        Object result = switch (operation) {
+            case ADD -> DecimalMatrices.add(a, b);
+            case MULTIPLY -> DecimalMatrices.multiply(pool, a, b);
+            case TRANSPOSE -> DecimalMatrices.transpose(a);
+            case DETERMINANT -> DecimalMatrices.determinant(pool, a);
+            case SOLVE -> DecimalMatrices.solve(pool, a, b);
+        };
+        return new MatrixResult(operation, MatrixMode.DECIMAL, result, null, null,
+            readNanos, System.nanoTime() - start);
+    }
+
+    private Object read(JsonParser parser, MatrixMode mode) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw notMatrix();
+        }
+        return mode == MatrixMode.DECIMAL ? readDecimals(parser) : readDoubles(parser);
+    }
+
+    private Matrix readDoubles(JsonParser parser) throws IOException {
+        double[] values = new double[1024];
+        int size = 0;
+        int rows = 0;
+        int cols = -1;
+        while (nextRow(parser)) {
+            checkSize(++rows, maxSize);
+            int count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                checkNumber(token);
+                checkSize(++count, maxSize);
+                double value = parser.getDoubleValue();
+                if (!Double.isFinite(value)) {
+                    throw new IllegalArgumentException("doubleの範囲を超える値は指定できません");
+                }
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+                values[size++] = value;
+            }
+            cols = checkColumns(cols, count);
+        }
+        if (rows == 0) {
+            throw new IllegalArgumentException("行列が空です");
+        }
+        return Matrix.fromRowMajor(rows, cols, values);
+    }
+
+    private BigDecimal[][] readDecimals(JsonParser parser) throws IOException {
+        List<BigDecimal[]> rows = new ArrayList<>();
+        List<BigDecimal> row = new ArrayList<>();
+        int cols = -1;
+        while (nextRow(parser)) {
+            checkSize(rows.size() + 1, maxDecimalSize);
+            row.clear();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                checkNumber(token);
+                checkSize(row.size() + 1, maxDecimalSize);
+                row.add(checkDigits(parser.getDecimalValue()));
+            }
+            cols = checkColumns(cols, row.size());
+            rows.add(row.toArray(new BigDecimal[0]));
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("行列が空です");
+        }
+        return rows.toArray(new BigDecimal[0][]);
+    }
+
+    private BigDecimal checkDigits(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        if (stripped.scale() > maxDecimalScale) {
+            throw new IllegalArgumentException("小数点以下の桁数が上限(" + maxDecimalScale + ")を超えています");
+        }
+        // 1e100 のようにスケールが負の値は、整数にしたときの桁数で数える
+        int digits = stripped.precision() - Math.min(stripped.scale(), 0);
+        if (digits > maxDecimalPrecision) {
+            throw new IllegalArgumentException("有効桁数が上限(" + maxDecimalPrecision + ")を超えています");
+        }
+        return value;
+    }
+
+    private static boolean nextRow(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return false;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw notMatrix();
+        }
+        return true;
+    }
+
+    private static int checkColumns(int cols, int count) {
+        if (count == 0) {
+            throw new IllegalArgumentException("行列が空です");
+        }
+        if (cols >= 0 && cols != count) {
+            throw new IllegalArgumentException("行ごとの列数が一致しません");
+        }
+        return count;
+    }
+
+    private static void checkNumber(JsonToken token) {
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw notMatrix();
+        }
+    }
+
+    private static void checkSize(int size, int limit) {
+        if (size > limit) {
+            throw new IllegalArgumentException("行数・列数が上限(" + limit + ")を超えています");
+        }
+    }
+
+    private static IllegalArgumentException notMatrix() {
+        return new IllegalArgumentException("行列は数値の配列の配列で指定してください");
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.calculator.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CalculationResult {
+
+    private int index;
+    private boolean success;
+    private BigDecimal result;
+    private String error;
+
+    // デフォルトコンストラクタ
+    public CalculationResult() {}
+
+    // コンストラクタ
+    public CalculationResult(int index, boolean success, BigDecimal result, String error) {
+        this.index = index;
+        this.success = success;
+        this.result = result;
+        this.error = error;
+    }
+
+    public static CalculationResult success(int index, BigDecimal result) {
+        return new CalculationResult(index, true, result, null);
+    }
+
+    public static CalculationResult failure(int index, String error) {
+        return new CalculationResult(index, false, null, error);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public BigDecimal getResult() {
+        return result;
+    }
+
+    public void setResult(BigDecimal result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.calculator.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class ExpressionRequest {
+
+    @NotBlank(message = "式は必須です")
+    @Size(max = 1000, message = "式は1000文字以内である必要があります")
+    private String expression;
+
+    // デフォルトコンストラクタ
+    public ExpressionRequest() {}
+
+    // コンストラクタ
+    public ExpressionRequest(String expression) {
+        this.expression = expression;
+    }
+
+    // Getters and Setters
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+}
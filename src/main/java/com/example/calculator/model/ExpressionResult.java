@@ -0,0 +1,65 @@
+package com.example.calculator.model;
+
+import java.math.BigDecimal;
+
+public class ExpressionResult {
+
+    private String expression;
+    private BigDecimal result;
+    private boolean cached;
+    private long parseNanos;
+    private long evalNanos;
+
+    // デフォルトコンストラクタ
+    public ExpressionResult() {}
+
+    // コンストラクタ
+    public ExpressionResult(String expression, BigDecimal result, boolean cached, long parseNanos, long evalNanos) {
+        this.expression = expression;
+        this.result = result;
+        this.cached = cached;
+        this.parseNanos = parseNanos;
+        this.evalNanos = evalNanos;
+    }
+
+    // Getters and Setters
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
+    public BigDecimal getResult() {
+        return result;
+    }
+
+    public void setResult(BigDecimal result) {
+        this.result = result;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public void setParseNanos(long parseNanos) {
+        this.parseNanos = parseNanos;
+    }
+
+    public long getEvalNanos() {
+        return evalNanos;
+    }
+
+    public void setEvalNanos(long evalNanos) {
+        this.evalNanos = evalNanos;
+    }
+}
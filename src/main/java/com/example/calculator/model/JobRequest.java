@@ -0,0 +1,39 @@
+package com.example.calculator.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class JobRequest {
+
+    @NotEmpty(message = "計算リクエストが空です")
+    private List<CalculationRequest> operations;
+
+    // ジョブ内の同時実行数（省略時は設定値）
+    private Integer concurrency;
+
+    // デフォルトコンストラクタ
+    public JobRequest() {}
+
+    // コンストラクタ
+    public JobRequest(List<CalculationRequest> operations, Integer concurrency) {
+        this.operations = operations;
+        this.concurrency = concurrency;
+    }
+
+    // Getters and Setters
+    public List<CalculationRequest> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<CalculationRequest> operations) {
+        this.operations = operations;
+    }
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Integer concurrency) {
+        this.concurrency = concurrency;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.calculator.service;
+
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.model.CalculationRequest;
+import com.example.calculator.model.CalculationResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+public class BatchCalculationService {
+
+    // これ未満の件数は並列化のオーバーヘッドの方が大きいため逐次処理する
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    @Autowired
+    private CalculatorService calculatorService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Value("${calculator.batch.max-size:100000}")
+    private int maxBatchSize;
+
+    @Value("${calculator.batch.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public List<CalculationResult> calculateAll(List<CalculationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("計算リクエストが空です");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("バッチサイズが上限(" + maxBatchSize + "件)を超えています");
+        }
+
+        // 結果は入力と同じ順序で返すため、インデックスで配列に書き込む
+        CalculationResult[] results = new CalculationResult[requests.size()];
+        if (results.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = evaluate("batch", i, requests.get(i));
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, results.length)
+                    .parallel()
+                    .forEach(i -> results[i] = evaluate("batch", i, requests.get(i))))
+                .join();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 1件を計算し、履歴に記録する。
+     *
+     * @param source 履歴に記録する呼び出し元（batch, stream, job）
+     */
+    public CalculationResult evaluate(String source, int index, CalculationRequest request) {
+        if (request == null) {
+            return CalculationResult.failure(index, "計算リクエストが空です");
+        }
+
+        Set<ConstraintViolation<CalculationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+            return CalculationResult.failure(index, message);
+        }
+
+        try {
+            BigDecimal result = calculatorService.calculate(
+                request.getFirstNumber(),
+                request.getSecondNumber(),
+                request.getOperation()
+            );
+            historyService.record(source, request.getOperation(),
+                request.getFirstNumber(), request.getSecondNumber(), result, null);
+            return CalculationResult.success(index, result);
+        } catch (Exception e) {
+            historyService.record(source, request.getOperation(),
+                request.getFirstNumber(), request.getSecondNumber(), null, e.getMessage());
+            return CalculationResult.failure(index, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.calculator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 計算結果をメモ化する {@link CalculatorService}。{@code calculator.cache.enabled=true} の場合に有効になる。
+ *
+ * キャッシュはCaffeine（W-TinyLFU、グローバルロックなし）で、結果のおおよそのバイト数で重み付けして上限を設ける。
+ * 対象の演算は {@code calculator.cache.operations} で切り替える（+, -, *, /, percentage, sqrt, power）。
+ * 例外となる計算（ゼロ除算など）はキャッシュしない。
+ * ヒット率などは {@code cache.*{cache="calculator.results"}} のメトリクスとしても公開する。
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "calculator.cache.enabled", havingValue = "true")
+public class CachingCalculatorService extends CalculatorService implements MeterBinder {
+
+    static final String PERCENTAGE = "percentage";
+    static final String SQUARE_ROOT = "sqrt";
+    static final String POWER = "power";
+
+    // エントリ1件あたりの固定のオーバーヘッド（キー・値オブジェクト、ノード）の概算
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Set<String> operations;
+    private final Cache<CacheKey, BigDecimal> cache;
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> misses = new ConcurrentHashMap<>();
+
+    public CachingCalculatorService(@Value("${calculator.cache.max-weight:16777216}") long maxWeight,
+                                    @Value("${calculator.cache.operations:/,percentage,sqrt,power}") Set<String> operations) {
+        this.operations = Set.copyOf(operations);
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeight)
+            .weigher(CachingCalculatorService::weigh)
+            .recordStats()
+            .build();
+    }
+
+    // 計算本体を上書きするため、キャッシュにヒットした場合も calculator.operations に記録される
+
+    @Override
+    BigDecimal evaluate(BigDecimal firstNumber, BigDecimal secondNumber, String operation) {
+        if (firstNumber == null || secondNumber == null || operation == null || !operations.contains(operation)) {
+            return super.evaluate(firstNumber, secondNumber, operation);
+        }
+        // 除算の結果はスケール10固定のため値だけで決まる。加減乗算は結果のスケールが入力に依存する
+        boolean valueOnly = operation.equals("/");
+        CacheKey key = new CacheKey(operation,
+            valueOnly ? normalize(firstNumber) : firstNumber,
+            valueOnly ? normalize(secondNumber) : secondNumber);
+        return lookup(key, () -> super.evaluate(firstNumber, secondNumber, operation));
+    }
+
+    @Override
+    BigDecimal percentage(BigDecimal number) {
+        if (number == null || !operations.contains(PERCENTAGE)) {
+            return super.percentage(number);
+        }
+        return lookup(new CacheKey(PERCENTAGE, normalize(number), null), () -> super.percentage(number));
+    }
+
+    @Override
+    BigDecimal squareRoot(BigDecimal number) {
+        if (number == null || !operations.contains(SQUARE_ROOT)) {
+            return super.squareRoot(number);
+        }
+        return lookup(new CacheKey(SQUARE_ROOT, normalize(number), null), () -> super.squareRoot(number));
+    }
+
+    @Override
+    BigDecimal power(BigDecimal base, BigDecimal exponent) {
+        if (base == null || exponent == null || !operations.contains(POWER)) {
+            return super.power(base, exponent);
+        }
+        // 厳密計算では結果のスケールが底のスケールに依存するため、底は正規化しない
+        return lookup(new CacheKey(POWER, base, normalize(exponent)), () -> super.power(base, exponent));
+    }
+
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", true);
+        result.put("operations", operations);
+        result.put("estimatedSize", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("evictionWeight", stats.evictionWeight());
+
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        for (String operation : operations) {
+            Map<String, Object> counters = new LinkedHashMap<>();
+            counters.put("hits", counter(hits, operation).sum());
+            counters.put("misses", counter(misses, operation).sum());
+            perOperation.put(operation, counters);
+        }
+        result.put("perOperation", perOperation);
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        super.bindTo(registry);
+        new CaffeineCacheMetrics<>(cache, "calculator.results", Tags.empty()).bindTo(registry);
+    }
+
+    Cache<CacheKey, BigDecimal> getCache() {
+        return cache;
+    }
+
+    private BigDecimal lookup(CacheKey key, Supplier<BigDecimal> calculation) {
+        BigDecimal cached = cache.getIfPresent(key);
+        if (cached != null) {
+            counter(hits, key.operation()).increment();
+            return cached;
+        }
+        counter(misses, key.operation()).increment();
+        // 重い計算で他のキーの更新を止めないよう、計算はキャッシュのロック外で行う
+        BigDecimal result = calculation.get();
+        cache.put(key, result);
+        return result;
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String operation) {
+        return counters.computeIfAbsent(operation, k -> new LongAdder());
+    }
+
+    // 数値として等しい値（2.50 と 2.5 など）を同じキーにする
+    private static BigDecimal normalize(BigDecimal value) {
+        return value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+    }
+
+    private static int weigh(CacheKey key, BigDecimal result) {
+        long digits = result.precision() + key.first().precision()
+            + (key.second() != null ? key.second().precision() : 0);
+        // BigIntegerの仮数は1桁あたり約0.42バイト
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + digits / 2);
+    }
+
+    record CacheKey(String operation, BigDecimal first, BigDecimal second) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.calculator.service;
+
+import com.example.calculator.model.CalculationResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 非同期に実行する計算ジョブの進捗と結果。
+ * 結果は完了した順に書き込まれるため、実行中でも完了済みの分は参照できる。
+ */
+public class CalculationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, CANCELLED
+    }
+
+    // Status にキャンセル要求中の状態を加えたもの
+    private enum Phase {
+        QUEUED, RUNNING, CANCEL_REQUESTED, COMPLETED, CANCELLED;
+
+        boolean isFinished() {
+            return this == COMPLETED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final int total;
+    private final int concurrency;
+    private final Instant submittedAt;
+    private final AtomicReferenceArray<CalculationResult> results;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    // キャンセルの要求と終了は、この1つの値の更新で決まる（同時に起きてもどちらか一方が先になる）
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.QUEUED);
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    CalculationJob(String id, int total, int concurrency, Instant submittedAt) {
+        this.id = id;
+        this.total = total;
+        this.concurrency = concurrency;
+        this.submittedAt = submittedAt;
+        this.results = new AtomicReferenceArray<>(total);
+    }
+
+    void start(Instant now) {
+        startedAt = now;
+        phase.compareAndSet(Phase.QUEUED, Phase.RUNNING);
+    }
+
+    void record(CalculationResult result) {
+        results.set(result.getIndex(), result);
+        if (!result.isSuccess()) {
+            failed.incrementAndGet();
+        }
+        completed.incrementAndGet();
+    }
+
+    // 実行中のチャンクがすべて終わってから呼ぶ
+    void finish(Instant now) {
+        finishedAt = now;
+        phase.updateAndGet(current -> current == Phase.CANCEL_REQUESTED ? Phase.CANCELLED : Phase.COMPLETED);
+    }
+
+    /**
+     * キャンセルを要求する。実行中の計算は現在の1件を終えた時点で止まる。
+     *
+     * @return 終了済みのジョブの場合は false
+     */
+    boolean cancel() {
+        Phase previous = phase.getAndUpdate(current -> current.isFinished() ? current : Phase.CANCEL_REQUESTED);
+        return !previous.isFinished();
+    }
+
+    boolean isCancelRequested() {
+        Phase current = phase.get();
+        return current == Phase.CANCEL_REQUESTED || current == Phase.CANCELLED;
+    }
+
+    public boolean isFinished() {
+        return phase.get().isFinished();
+    }
+
+    /**
+     * 指定範囲のうち計算が完了した結果を返す。
+     */
+    public List<CalculationResult> getResults(int offset, int limit) {
+        int from = Math.max(0, offset);
+        int to = (int) Math.min(total, (long) from + Math.max(0, limit));
+        List<CalculationResult> slice = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            CalculationResult result = results.get(i);
+            if (result != null) {
+                slice.add(result);
+            }
+        }
+        return slice;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Status getStatus() {
+        return switch (phase.get()) {
+            case QUEUED -> Status.QUEUED;
+            case RUNNING -> Status.RUNNING;
+            // 終了するまでは、キャンセルを要求されても実行中として扱う
+            case CANCEL_REQUESTED -> startedAt == null ? Status.QUEUED : Status.RUNNING;
+            case COMPLETED -> Status.COMPLETED;
+            case CANCELLED -> Status.CANCELLED;
+        };
+    }
+
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
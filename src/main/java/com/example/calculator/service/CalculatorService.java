@@ -1,52 +1,190 @@
 package com.example.calculator.service;
 
+import com.example.calculator.math.PowerEngine;
+import com.example.calculator.math.SquareRootEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
-public class CalculatorService {
+public class CalculatorService implements MeterBinder {
+
+    // 平方根の既定精度（34桁）
+    public static final MathContext SQUARE_ROOT_CONTEXT = MathContext.DECIMAL128;
+
+    // 非整数乗・負の整数乗の既定精度（34桁）。非負の整数乗は厳密に計算する
+    public static final MathContext POWER_CONTEXT = MathContext.DECIMAL128;
+
+    // 除算の結果は小数点以下10桁に四捨五入する
+    public static final int DIVISION_SCALE = 10;
+    public static final RoundingMode DIVISION_ROUNDING = RoundingMode.HALF_UP;
+
+    public static final String DIVISION_BY_ZERO_MESSAGE = "ゼロで割ることはできません";
+    public static final String UNSUPPORTED_OPERATION_MESSAGE = "サポートされていない演算子です: ";
+
+    // 演算ごとのレイテンシ（operation, outcome タグ付き）
+    public static final String OPERATION_TIMER = "calculator.operations";
+
+    // タグに使う演算の名前。任意の文字列がタグに入らないよう、未対応の演算子は unsupported にまとめる
+    private static final List<String> OPERATIONS = List.of("+", "-", "*", "/", "unsupported", "none",
+        "percentage", "sqrt", "power");
+
+    @Value("${calculator.power.max-result-digits:" + PowerEngine.DEFAULT_MAX_RESULT_DIGITS + "}")
+    private int maxPowerResultDigits = PowerEngine.DEFAULT_MAX_RESULT_DIGITS;
+
+    // 演算ごと・結果ごとのタイマー。bindTo で登録するまでは記録しない
+    private volatile Map<String, EnumMap<Outcome, Timer>> timers;
 
     public BigDecimal calculate(BigDecimal firstNumber, BigDecimal secondNumber, String operation) {
+        String tag = operation == null ? "none" : switch (operation) {
+            case "+", "-", "*", "/" -> operation;
+            default -> "unsupported";
+        };
+        return timed(tag, () -> evaluate(firstNumber, secondNumber, operation));
+    }
+
+    // 以下の計算本体はタイマーの内側で呼ばれる。CachingCalculatorService はこれらを上書きしてキャッシュする
+
+    BigDecimal evaluate(BigDecimal firstNumber, BigDecimal secondNumber, String operation) {
         if (firstNumber == null || secondNumber == null || operation == null) {
             throw new IllegalArgumentException("数値と演算子は必須です");
         }
 
         return switch (operation) {
+            // BigDecimalは仮数がlongに収まる間はlongで計算するため、そのまま使う
             case "+" -> firstNumber.add(secondNumber);
             case "-" -> firstNumber.subtract(secondNumber);
             case "*" -> firstNumber.multiply(secondNumber);
             case "/" -> {
                 if (secondNumber.compareTo(BigDecimal.ZERO) == 0) {
-                    throw new ArithmeticException("ゼロで割ることはできません");
+                    throw new DivisionByZeroException();
                 }
-                yield firstNumber.divide(secondNumber, 10, RoundingMode.HALF_UP);
+                yield firstNumber.divide(secondNumber, DIVISION_SCALE, DIVISION_ROUNDING);
             }
-            default -> throw new IllegalArgumentException("サポートされていない演算子です: " + operation);
+            default -> throw new UnsupportedOperatorException(operation);
         };
     }
 
-    public BigDecimal calculatePercentage(BigDecimal number) {
+    BigDecimal percentage(BigDecimal number) {
         if (number == null) {
             throw new IllegalArgumentException("数値は必須です");
         }
         return number.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP);
     }
 
-    public BigDecimal calculateSquareRoot(BigDecimal number) {
+    BigDecimal squareRoot(BigDecimal number) {
+        return squareRoot(number, SQUARE_ROOT_CONTEXT);
+    }
+
+    BigDecimal squareRoot(BigDecimal number, MathContext mathContext) {
         if (number == null) {
             throw new IllegalArgumentException("数値は必須です");
         }
         if (number.compareTo(BigDecimal.ZERO) < 0) {
             throw new ArithmeticException("負の数の平方根は計算できません");
         }
-        return new BigDecimal(Math.sqrt(number.doubleValue()));
+        return SquareRootEngine.sqrt(number, mathContext);
     }
 
-    public BigDecimal calculatePower(BigDecimal base, BigDecimal exponent) {
+    BigDecimal power(BigDecimal base, BigDecimal exponent) {
         if (base == null || exponent == null) {
             throw new IllegalArgumentException("底と指数は必須です");
         }
-        return new BigDecimal(Math.pow(base.doubleValue(), exponent.doubleValue()));
+        boolean exact = exponent.signum() >= 0 && PowerEngine.isInteger(exponent);
+        return power(base, exponent, exact ? MathContext.UNLIMITED : POWER_CONTEXT);
+    }
+
+    BigDecimal power(BigDecimal base, BigDecimal exponent, MathContext mathContext) {
+        if (base == null || exponent == null) {
+            throw new IllegalArgumentException("底と指数は必須です");
+        }
+        return PowerEngine.pow(base, exponent, mathContext, maxPowerResultDigits);
+    }
+
+    public BigDecimal calculatePercentage(BigDecimal number) {
+        return timed("percentage", () -> percentage(number));
+    }
+
+    public BigDecimal calculateSquareRoot(BigDecimal number) {
+        return timed("sqrt", () -> squareRoot(number));
+    }
+
+    public BigDecimal calculateSquareRoot(BigDecimal number, MathContext mathContext) {
+        return timed("sqrt", () -> squareRoot(number, mathContext));
+    }
+
+    public BigDecimal calculatePower(BigDecimal base, BigDecimal exponent) {
+        return timed("power", () -> power(base, exponent));
+    }
+
+    public BigDecimal calculatePower(BigDecimal base, BigDecimal exponent, MathContext mathContext) {
+        return timed("power", () -> power(base, exponent, mathContext));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<String, EnumMap<Outcome, Timer>> registered = new HashMap<>();
+        for (String operation : OPERATIONS) {
+            EnumMap<Outcome, Timer> byOutcome = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome.put(outcome, Timer.builder(OPERATION_TIMER)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.tag)
+                    .register(registry));
+            }
+            registered.put(operation, byOutcome);
+        }
+        timers = registered;
+    }
+
+    private BigDecimal timed(String operation, Supplier<BigDecimal> calculation) {
+        Map<String, EnumMap<Outcome, Timer>> registered = timers;
+        if (registered == null) {
+            return calculation.get();
+        }
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.SUCCESS;
+        try {
+            return calculation.get();
+        } catch (RuntimeException e) {
+            outcome = Outcome.of(e);
+            throw e;
+        } finally {
+            registered.get(operation).get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS("success"),
+        DIVIDE_BY_ZERO("divide_by_zero"),
+        INVALID_OPERATOR("invalid_operator"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        static Outcome of(RuntimeException e) {
+            if (e instanceof DivisionByZeroException) {
+                return DIVIDE_BY_ZERO;
+            }
+            if (e instanceof UnsupportedOperatorException) {
+                return INVALID_OPERATOR;
+            }
+            return ERROR;
+        }
     }
 }
@@ -0,0 +1,13 @@
+package com.example.calculator.service;
+
+/**
+ * ゼロ除算。メッセージは {@link CalculatorService#DIVISION_BY_ZERO_MESSAGE}。
+ */
+public class DivisionByZeroException extends ArithmeticException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DivisionByZeroException() {
+        super(CalculatorService.DIVISION_BY_ZERO_MESSAGE);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.calculator.service;
+
+import com.example.calculator.expression.ExpressionNode;
+import com.example.calculator.expression.ExpressionParser;
+import com.example.calculator.model.ExpressionResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class ExpressionService implements MeterBinder {
+
+    @Autowired
+    private CalculatorService calculatorService;
+
+    @Value("${calculator.expression.cache-size:1000}")
+    private int cacheSize;
+
+    // 正規化した式をキーにしたLRUキャッシュ（アクセス順のLinkedHashMap）
+    private final Map<String, ExpressionNode> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ExpressionNode> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder parseCount = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder evalCount = new LongAdder();
+    private final LongAdder evalNanos = new LongAdder();
+
+    public ExpressionResult evaluate(String expression) {
+        String normalized = ExpressionParser.normalize(expression);
+
+        ExpressionNode node;
+        synchronized (cache) {
+            node = cache.get(normalized);
+        }
+
+        boolean cached = node != null;
+        long parseElapsed = 0;
+        if (cached) {
+            hits.increment();
+        } else {
+            misses.increment();
+            long start = System.nanoTime();
+            node = ExpressionParser.parse(normalized);
+            parseElapsed = System.nanoTime() - start;
+            parseCount.increment();
+            parseNanos.add(parseElapsed);
+            synchronized (cache) {
+                cache.put(normalized, node);
+            }
+        }
+
+        long start = System.nanoTime();
+        BigDecimal result = node.evaluate(calculatorService);
+        long evalElapsed = System.nanoTime() - start;
+        evalCount.increment();
+        evalNanos.add(evalElapsed);
+
+        return new ExpressionResult(normalized, result, cached, parseElapsed, evalElapsed);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("calculator.expression.cache", hits, LongAdder::sum)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("calculator.expression.cache", misses, LongAdder::sum)
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("calculator.expression.cache.size", this, service -> service.cachedExpressions())
+            .register(registry);
+        FunctionTimer.builder("calculator.expression.phase", this,
+                service -> service.parseCount.sum(), service -> service.parseNanos.sum(), TimeUnit.NANOSECONDS)
+            .tag("phase", "parse")
+            .register(registry);
+        FunctionTimer.builder("calculator.expression.phase", this,
+                service -> service.evalCount.sum(), service -> service.evalNanos.sum(), TimeUnit.NANOSECONDS)
+            .tag("phase", "eval")
+            .register(registry);
+    }
+
+    private int cachedExpressions() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long parses = parseCount.sum();
+        long evals = evalCount.sum();
+        int size = cachedExpressions();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cacheSize", size);
+        stats.put("cacheCapacity", cacheSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("parseCount", parses);
+        stats.put("averageParseMicros", parses == 0 ? 0.0 : parseNanos.sum() / 1000.0 / parses);
+        stats.put("evalCount", evals);
+        stats.put("averageEvalMicros", evals == 0 ? 0.0 : evalNanos.sum() / 1000.0 / evals);
+        return stats;
+    }
+}
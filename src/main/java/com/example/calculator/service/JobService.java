@@ -0,0 +1,171 @@
+package com.example.calculator.service;
+
+import com.example.calculator.model.CalculationRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 大量の計算を非同期ジョブとして仮想スレッド上で実行する。
+ *
+ * ジョブは一定件数ごとのチャンクに分けて実行し、ジョブごとのセマフォで同時に走るチャンク数を制限する。
+ * Tomcatのリクエストスレッドは使わないため、大きなジョブが画面操作のリクエストを待たせることはない。
+ * 終了したジョブは保持期間を過ぎると定期的に削除する。
+ */
+@Service
+public class JobService implements MeterBinder {
+
+    // 1つの仮想スレッドで順に処理する件数
+    static final int CHUNK_SIZE = 64;
+
+    @Autowired
+    private BatchCalculationService batchCalculationService;
+
+    @Value("${calculator.jobs.max-size:1000000}")
+    private int maxJobSize = 1_000_000;
+
+    @Value("${calculator.jobs.max-active:8}")
+    private int maxActiveJobs = 8;
+
+    @Value("${calculator.jobs.default-concurrency:4}")
+    private int defaultConcurrency = 4;
+
+    @Value("${calculator.jobs.max-concurrency:16}")
+    private int maxConcurrency = 16;
+
+    @Value("${calculator.jobs.retention:10m}")
+    private Duration retention = Duration.ofMinutes(10);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CalculationJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger activeJobs = new AtomicInteger();
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(CalculationJob::cancel);
+        executor.shutdownNow();
+    }
+
+    public CalculationJob submit(List<CalculationRequest> requests, Integer concurrency) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("計算リクエストが空です");
+        }
+        if (requests.size() > maxJobSize) {
+            throw new IllegalArgumentException("ジョブの件数が上限(" + maxJobSize + "件)を超えています");
+        }
+        if (activeJobs.incrementAndGet() > maxActiveJobs) {
+            activeJobs.decrementAndGet();
+            throw new IllegalStateException("実行中のジョブが上限(" + maxActiveJobs + "件)に達しています");
+        }
+
+        int permits = concurrency == null || concurrency <= 0
+            ? defaultConcurrency
+            : Math.min(concurrency, maxConcurrency);
+        CalculationJob job = new CalculationJob(UUID.randomUUID().toString(), requests.size(), permits, Instant.now());
+        // 呼び出し元のリストが後から変更されても影響しないよう複製する（null要素も許容する）
+        List<CalculationRequest> operations = new ArrayList<>(requests);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, operations));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            activeJobs.decrementAndGet();
+            throw new IllegalStateException("ジョブを開始できません", e);
+        }
+        return job;
+    }
+
+    public CalculationJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * @return ジョブが存在しない場合は null
+     */
+    public CalculationJob cancel(String id) {
+        CalculationJob job = jobs.get(id);
+        if (job != null) {
+            job.cancel();
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${calculator.jobs.sweep-interval:60000}")
+    public void evictExpired() {
+        evictExpired(Instant.now());
+    }
+
+    void evictExpired(Instant now) {
+        Instant threshold = now.minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    int getActiveJobs() {
+        return activeJobs.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calculator.jobs.active", activeJobs, AtomicInteger::get)
+            .register(registry);
+        Gauge.builder("calculator.jobs.retained", jobs, Map::size)
+            .register(registry);
+    }
+
+    private void run(CalculationJob job, List<CalculationRequest> operations) {
+        job.start(Instant.now());
+        int permits = job.getConcurrency();
+        Semaphore semaphore = new Semaphore(permits);
+        try {
+            for (int from = 0; from < operations.size() && !job.isCancelRequested(); from += CHUNK_SIZE) {
+                semaphore.acquire();
+                int start = from;
+                int end = Math.min(operations.size(), from + CHUNK_SIZE);
+                try {
+                    executor.execute(() -> {
+                        try {
+                            for (int i = start; i < end && !job.isCancelRequested(); i++) {
+                                job.record(batchCalculationService.evaluate("job", i, operations.get(i)));
+                            }
+                        } finally {
+                            semaphore.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // シャットダウン中
+                    semaphore.release();
+                    job.cancel();
+                }
+            }
+            // 実行中のチャンクがすべて終わるのを待つ
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            // 実行中のチャンクを止め、終わるのを待ってから終了にする（終了後に結果が書き込まれないように）。
+            // チャンクはキャンセルを計算1件ごとに確かめるため、待つのは長くても1件分
+            job.cancel();
+            semaphore.acquireUninterruptibly(permits);
+            Thread.currentThread().interrupt();
+        } finally {
+            job.finish(Instant.now());
+            activeJobs.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.calculator.service;
+
+import com.example.calculator.model.CalculationRequest;
+import com.example.calculator.model.CalculationResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * CSV / NDJSON の入力を1行ずつ読み、計算結果を1行ずつ書き出す。
+ *
+ * 入力全体を保持しないため、行数によらずメモリ使用量は一定になる。
+ * 書き込みは出力先がブロックすると止まり、その間は次の行を読まないため、
+ * クライアントの受信が遅い場合は読み込みも自然に抑えられる。
+ */
+@Service
+public class StreamingCalculationService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // 1行の最大文字数。これを超える行はエラーとして扱い、残りは読み捨てる
+    static final int MAX_LINE_LENGTH = 4096;
+
+    // この行数ごとに出力をフラッシュする
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private static final String CSV_HEADER = "index,result,error";
+
+    // readLine の戻り値
+    private static final int EOF = -1;
+    private static final int OK = 0;
+    private static final int TOO_LONG = 1;
+
+    public enum Format {
+        CSV(TEXT_CSV),
+        NDJSON(APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format of(MediaType contentType) {
+            if (contentType != null && APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+                return NDJSON;
+            }
+            return CSV;
+        }
+    }
+
+    @Autowired
+    private BatchCalculationService batchCalculationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 応答のタイムアウト（/api/calculate/stream の非同期処理にだけ適用する）
+    @Value("${calculator.stream.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return 処理した行数
+     */
+    public long process(InputStream input, OutputStream output, Format format) throws IOException {
+        LineReader reader = new LineReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder();
+
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long index = 0;
+        boolean first = true;
+        int status;
+        while ((status = reader.readLine(line)) != EOF) {
+            if (line.isEmpty() && status != TOO_LONG) {
+                continue;
+            }
+            // CSVの先頭行が見出しの場合は読み飛ばす
+            if (first && format == Format.CSV && isCsvHeader(line)) {
+                first = false;
+                continue;
+            }
+            first = false;
+
+            int rowIndex = (int) Math.min(index, Integer.MAX_VALUE);
+            CalculationResult result = status == TOO_LONG
+                ? CalculationResult.failure(rowIndex, "行が長すぎます（最大" + MAX_LINE_LENGTH + "文字）")
+                : evaluate(rowIndex, line, format);
+            if (format == Format.CSV) {
+                writeCsv(writer, result);
+            } else {
+                writer.write(objectMapper.writeValueAsString(result));
+                writer.write('\n');
+            }
+
+            index++;
+            if (index % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return index;
+    }
+
+    private CalculationResult evaluate(int index, CharSequence line, Format format) {
+        CalculationRequest request;
+        if (format == Format.CSV) {
+            String[] columns = line.toString().split(",", -1);
+            if (columns.length != 3) {
+                return CalculationResult.failure(index, "列数が正しくありません（firstNumber,operation,secondNumber）");
+            }
+            try {
+                request = new CalculationRequest(
+                    new BigDecimal(columns[0].trim()),
+                    new BigDecimal(columns[2].trim()),
+                    columns[1].trim());
+            } catch (NumberFormatException e) {
+                return CalculationResult.failure(index, "数値の形式が正しくありません");
+            }
+        } else {
+            try {
+                request = objectMapper.readValue(line.toString(), CalculationRequest.class);
+            } catch (JsonProcessingException e) {
+                return CalculationResult.failure(index, "JSONの形式が正しくありません");
+            }
+        }
+        return batchCalculationService.evaluate("stream", index, request);
+    }
+
+    private static boolean isCsvHeader(CharSequence line) {
+        return line.length() > 0 && Character.isLetter(line.charAt(0));
+    }
+
+    private static void writeCsv(Writer writer, CalculationResult result) throws IOException {
+        writer.write(Integer.toString(result.getIndex()));
+        writer.write(',');
+        if (result.getResult() != null) {
+            writer.write(result.getResult().toPlainString());
+        }
+        writer.write(',');
+        if (result.getError() != null) {
+            writer.write('"');
+            writer.write(result.getError().replace("\"", "\"\""));
+            writer.write('"');
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * 改行（LF / CRLF）までを1行として読む。
+     * {@link BufferedReader#readLine()} と違い、行の長さに上限を設けてメモリを一定に保つ。
+     * 入力は配列にまとめて読み込み、改行を探してから範囲ごとに行へ追加する。
+     */
+    private static final class LineReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+
+        LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        int readLine(StringBuilder line) throws IOException {
+            line.setLength(0);
+            boolean tooLong = false;
+            boolean newline = false;
+            while (!newline) {
+                if (position == limit) {
+                    int read = reader.read(buffer, 0, buffer.length);
+                    if (read == -1) {
+                        break;
+                    }
+                    position = 0;
+                    limit = read;
+                }
+                int end = position;
+                while (end < limit && buffer[end] != '\n') {
+                    end++;
+                }
+                int length = Math.min(end - position, MAX_LINE_LENGTH - line.length());
+                if (length < end - position) {
+                    tooLong = true;
+                }
+                line.append(buffer, position, length);
+                newline = end < limit;
+                position = newline ? end + 1 : end;
+            }
+            if (!newline && line.isEmpty() && !tooLong) {
+                return EOF;
+            }
+            int last = line.length() - 1;
+            if (last >= 0 && line.charAt(last) == '\r') {
+                line.setLength(last);
+            }
+            return tooLong ? TOO_LONG : OK;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.calculator.service;
+
+/**
+ * 未対応の演算子。メッセージは {@link CalculatorService#UNSUPPORTED_OPERATION_MESSAGE} に演算子を続けたもの。
+ */
+public class UnsupportedOperatorException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnsupportedOperatorException(String operation) {
+        super(CalculatorService.UNSUPPORTED_OPERATION_MESSAGE + operation);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.calculator.stats;
+
+import com.example.calculator.math.ScaledDecimal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * 10進数の列を、共通のスケールを持つ仮数の配列として保持する。
+ *
+ * 通常は long の仮数の配列で、追加した値のスケールがそれまでより大きい場合は、保持している値をすべてそのスケールに揃え直す
+ * （揃え直しはスケールが大きくなるたびに1回で、最大 {@link ScaledDecimal#MAX_SCALE} 回）。
+ * 仮数がlongに収まらない値が来た場合や、揃え直すとlongに収まらなくなる場合（大きな値と桁の細かい値が混ざる場合）は、
+ * それまでの値も含めて {@link BigInteger} の仮数の配列に切り替える。
+ * 小数点以下 {@link #MAX_SCALE} 桁、整数部 {@link #MAX_INTEGER_DIGITS} 桁を超える値は {@link IllegalArgumentException} とする。
+ */
+final class DecimalColumn {
+
+    static final int MAX_SCALE = 30;
+    static final int MAX_INTEGER_DIGITS = 30;
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private long[] values = new long[INITIAL_CAPACITY];
+    // longに収まらなくなった後の仮数。切り替え後は values を使わない
+    private BigInteger[] wideValues;
+    private int size;
+    private int scale;
+    // values の最小値と最大値。揃え直す前に、すべての値がlongに収まるかをこの2つで確かめる
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    void add(long unscaled, int valueScale) {
+        if (wideValues == null && valueScale >= 0 && valueScale <= ScaledDecimal.MAX_SCALE) {
+            try {
+                int newScale = Math.max(scale, valueScale);
+                long value = ScaledDecimal.rescale(unscaled, valueScale, newScale);
+                if (newScale > scale && size > 0) {
+                    long newMin = ScaledDecimal.rescale(min, scale, newScale);
+                    long newMax = ScaledDecimal.rescale(max, scale, newScale);
+                    for (int i = 0; i < size; i++) {
+                        values[i] = ScaledDecimal.rescale(values[i], scale, newScale);
+                    }
+                    min = newMin;
+                    max = newMax;
+                }
+                scale = newScale;
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+                values[size++] = value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                return;
+            } catch (ArithmeticException e) {
+                // longに収まらない。以降はBigIntegerの仮数で保持する
+            }
+        }
+        addWide(checkRange(BigDecimal.valueOf(unscaled, valueScale)));
+    }
+
+    /**
+     * JSONの数値の文字列（符号、整数部、小数部、指数部）を追加する。指数部がなくlongに収まる場合はオブジェクトを作らない。
+     */
+    void add(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = i < end && chars[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long unscaled = 0;
+        int valueScale = 0;
+        boolean fraction = false;
+        try {
+            for (; i < end; i++) {
+                char c = chars[i];
+                if (c == '.') {
+                    fraction = true;
+                } else if (c >= '0' && c <= '9') {
+                    unscaled = Math.addExact(Math.multiplyExact(unscaled, 10), c - '0');
+                    if (fraction) {
+                        valueScale++;
+                    }
+                } else {
+                    break;
+                }
+            }
+        } catch (ArithmeticException e) {
+            // 仮数がlongに収まらない
+            add(new BigDecimal(chars, offset, length));
+            return;
+        }
+        if (i < end) {
+            // 指数表記
+            add(new BigDecimal(chars, offset, length));
+            return;
+        }
+        add(negative ? -unscaled : unscaled, valueScale);
+    }
+
+    void add(BigDecimal value) {
+        value = checkRange(value);
+        if (wideValues == null && value.unscaledValue().bitLength() < Long.SIZE) {
+            add(value.unscaledValue().longValue(), value.scale());
+        } else {
+            addWide(value);
+        }
+    }
+
+    boolean isWide() {
+        return wideValues != null;
+    }
+
+    // isWide() でない場合の仮数
+    long[] values() {
+        return values;
+    }
+
+    // isWide() の場合の仮数
+    BigInteger[] wideValues() {
+        return wideValues;
+    }
+
+    BigDecimal get(int index) {
+        return wideValues == null ? BigDecimal.valueOf(values[index], scale) : new BigDecimal(wideValues[index], scale);
+    }
+
+    void sort() {
+        if (wideValues == null) {
+            Arrays.parallelSort(values, 0, size);
+        } else {
+            Arrays.parallelSort(wideValues, 0, size);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int scale() {
+        return scale;
+    }
+
+    private void addWide(BigDecimal value) {
+        if (wideValues == null) {
+            wideValues = new BigInteger[values.length];
+            for (int i = 0; i < size; i++) {
+                wideValues[i] = BigInteger.valueOf(values[i]);
+            }
+            values = null;
+        }
+        if (value.scale() > scale) {
+            BigInteger factor = BigInteger.TEN.pow(value.scale() - scale);
+            for (int i = 0; i < size; i++) {
+                wideValues[i] = wideValues[i].multiply(factor);
+            }
+            scale = value.scale();
+        }
+        if (size == wideValues.length) {
+            wideValues = Arrays.copyOf(wideValues, wideValues.length * 2);
+        }
+        wideValues[size++] = value.setScale(scale).unscaledValue();
+    }
+
+    // スケールを 0〜MAX_SCALE にした値を返す
+    private static BigDecimal checkRange(BigDecimal value) {
+        // 1e100000 のような値を整数にする前に、整数部の桁数を確かめる
+        if (value.precision() - value.scale() > MAX_INTEGER_DIGITS) {
+            throw outOfRange(value);
+        }
+        BigDecimal normalized = value.scale() > MAX_SCALE ? value.stripTrailingZeros() : value;
+        if (normalized.scale() > MAX_SCALE) {
+            throw outOfRange(value);
+        }
+        return normalized.scale() < 0 ? normalized.setScale(0) : normalized;
+    }
+
+    private static IllegalArgumentException outOfRange(BigDecimal value) {
+        return new IllegalArgumentException("decimalモードで扱える範囲（整数部" + MAX_INTEGER_DIGITS
+            + "桁、小数点以下" + MAX_SCALE + "桁）を超えています: " + value + "（doubleモードを使用してください）");
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.calculator.stats;
+
+import com.example.calculator.math.SquareRootEngine;
+import com.example.calculator.service.CalculatorService;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@link DecimalColumn} の統計量を正確に計算する。
+ *
+ * 合計と二乗和は範囲を分割して並列に集計する。各範囲ではlongの仮数を128ビット（二乗和は192ビット）の
+ * 整数として足し込み、範囲どうしの併合だけ {@link BigInteger} で行うため、値ごとのオブジェクト生成はない。
+ * 列がBigIntegerの仮数に切り替わっている場合（{@link DecimalColumn#isWide()}）は、範囲ごとにBigIntegerで足し込む。
+ * 分散は n·Σx² − (Σx)² から求めるため、平均との差を取る2回目の走査は不要で、丸めも最後の1回だけになる。
+ * 平均・分散・標準偏差は {@link CalculatorService} の除算と同じく小数点以下10桁に四捨五入する。
+ * 中央値とパーセンタイルは並列ソートした配列から線形補間で求める。
+ */
+final class DecimalStatistics {
+
+    // 1タスクで逐次に集計する件数
+    static final int LEAF_SIZE = 1 << 13;
+
+    private DecimalStatistics() {}
+
+    /**
+     * 列の配列はソートされる。
+     */
+    static StatisticsResult compute(ForkJoinPool pool, DecimalColumn column, List<BigDecimal> percentiles,
+                                    long readNanos) {
+        long start = System.nanoTime();
+        int n = column.size();
+        int scale = column.scale();
+
+        Sums sums = pool.invoke(column.isWide() ? new SumTask(column.wideValues(), 0, n)
+            : new SumTask(column.values(), 0, n));
+        pool.submit(column::sort).join();
+
+        BigDecimal count = BigDecimal.valueOf(n);
+        BigDecimal sum = new BigDecimal(sums.sum(), scale);
+        BigDecimal mean = sum.divide(count, CalculatorService.DIVISION_SCALE, CalculatorService.DIVISION_ROUNDING);
+
+        // n·Σx² − (Σx)²（スケールは 2·scale）
+        BigDecimal deviations = new BigDecimal(
+            sums.sumOfSquares().multiply(BigInteger.valueOf(n)).subtract(sums.sum().multiply(sums.sum())), 2 * scale);
+        BigDecimal variance = deviations.divide(count.multiply(count),
+            CalculatorService.DIVISION_SCALE, CalculatorService.DIVISION_ROUNDING);
+        BigDecimal sampleVariance = n < 2 ? null : deviations.divide(count.multiply(count.subtract(BigDecimal.ONE)),
+            CalculatorService.DIVISION_SCALE, CalculatorService.DIVISION_ROUNDING);
+        BigDecimal standardDeviation = SquareRootEngine.sqrt(
+                deviations.divide(count.multiply(count), CalculatorService.SQUARE_ROOT_CONTEXT),
+                CalculatorService.SQUARE_ROOT_CONTEXT)
+            .setScale(CalculatorService.DIVISION_SCALE, CalculatorService.DIVISION_ROUNDING);
+
+        Map<String, Number> quantiles = new LinkedHashMap<>();
+        for (BigDecimal p : percentiles) {
+            quantiles.put(p.stripTrailingZeros().toPlainString(), percentile(column, p));
+        }
+
+        return new StatisticsResult(StatisticsMode.DECIMAL, n, sum, mean, variance, sampleVariance, standardDeviation,
+            column.get(0), column.get(n - 1), percentile(column, StatisticsService.MEDIAN), quantiles,
+            readNanos, System.nanoTime() - start);
+    }
+
+    // ソート済みの列の p パーセンタイル。位置 (n−1)·p/100 の前後の値を線形補間する
+    static BigDecimal percentile(DecimalColumn sorted, BigDecimal p) {
+        BigDecimal position = BigDecimal.valueOf(sorted.size() - 1).multiply(p).movePointLeft(2);
+        int index = position.intValue();
+        BigDecimal fraction = position.subtract(BigDecimal.valueOf(index)).stripTrailingZeros();
+        BigDecimal value = sorted.get(index);
+        if (fraction.signum() != 0) {
+            BigDecimal next = sorted.get(index + 1);
+            value = value.add(next.subtract(value).multiply(fraction));
+        }
+        if (value.scale() > CalculatorService.DIVISION_SCALE) {
+            value = value.setScale(CalculatorService.DIVISION_SCALE, CalculatorService.DIVISION_ROUNDING);
+        }
+        return value;
+    }
+
+    record Sums(BigInteger sum, BigInteger sumOfSquares) {
+    }
+
+    static final class SumTask extends RecursiveTask<Sums> {
+
+        private static final long serialVersionUID = 1L;
+
+        // どちらか一方だけを使う
+        private final long[] values;
+        private final BigInteger[] wideValues;
+        private final int from;
+        private final int to;
+
+        SumTask(long[] values, int from, int to) {
+            this(values, null, from, to);
+        }
+
+        SumTask(BigInteger[] wideValues, int from, int to) {
+            this(null, wideValues, from, to);
+        }
+
+        private SumTask(long[] values, BigInteger[] wideValues, int from, int to) {
+            this.values = values;
+            this.wideValues = wideValues;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Sums compute() {
+            if (to - from <= LEAF_SIZE) {
+                return values != null ? sumRange(values, from, to) : sumRange(wideValues, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            SumTask left = new SumTask(values, wideValues, from, middle);
+            left.fork();
+            Sums right = new SumTask(values, wideValues, middle, to).compute();
+            Sums sums = left.join();
+            return new Sums(sums.sum().add(right.sum()), sums.sumOfSquares().add(right.sumOfSquares()));
+        }
+    }
+
+    static Sums sumRange(long[] values, int from, int to) {
+        // 合計: 符号付き128ビット (sumHigh, sumLow)
+        long sumHigh = 0;
+        long sumLow = 0;
+        // 二乗和: 符号なし192ビット (squareTop, squareMiddle, squareLow)
+        long squareTop = 0;
+        long squareMiddle = 0;
+        long squareLow = 0;
+        for (int i = from; i < to; i++) {
+            long x = values[i];
+
+            long low = sumLow + x;
+            sumHigh += (x >> 63) + (Long.compareUnsigned(low, sumLow) < 0 ? 1 : 0);
+            sumLow = low;
+
+            // x² < 2^126 なので上位64ビットは2^62未満
+            low = squareLow + x * x;
+            long middle = squareMiddle + Math.multiplyHigh(x, x) + (Long.compareUnsigned(low, squareLow) < 0 ? 1 : 0);
+            squareTop += Long.compareUnsigned(middle, squareMiddle) < 0 ? 1 : 0;
+            squareLow = low;
+            squareMiddle = middle;
+        }
+        BigInteger sum = BigInteger.valueOf(sumHigh).shiftLeft(64).add(unsigned(sumLow));
+        BigInteger sumOfSquares = BigInteger.valueOf(squareTop).shiftLeft(64).add(unsigned(squareMiddle))
+            .shiftLeft(64).add(unsigned(squareLow));
+        return new Sums(sum, sumOfSquares);
+    }
+
+    static Sums sumRange(BigInteger[] values, int from, int to) {
+        BigInteger sum = BigInteger.ZERO;
+        BigInteger sumOfSquares = BigInteger.ZERO;
+        for (int i = from; i < to; i++) {
+            BigInteger x = values[i];
+            sum = sum.add(x);
+            sumOfSquares = sumOfSquares.add(x.multiply(x));
+        }
+        return new Sums(sum, sumOfSquares);
+    }
+
+    private static BigInteger unsigned(long value) {
+        BigInteger result = BigInteger.valueOf(value & Long.MAX_VALUE);
+        return value < 0 ? result.setBit(63) : result;
+    }
+}
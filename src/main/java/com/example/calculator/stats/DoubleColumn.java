@@ -0,0 +1,32 @@
+package com.example.calculator.stats;
+
+import java.util.Arrays;
+
+/**
+ * double の列。NaN・無限大は追加できない。
+ */
+final class DoubleColumn {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int size;
+
+    void add(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("doubleの範囲を超える値は指定できません");
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    int size() {
+        return size;
+    }
+}
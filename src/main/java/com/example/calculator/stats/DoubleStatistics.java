@@ -0,0 +1,140 @@
+package com.example.calculator.stats;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@link DoubleColumn} の統計量を計算する。
+ *
+ * 範囲を分割して並列に集計し、各範囲では合計をNeumaierの補償加算で、二乗偏差和をその範囲の平均から求める。
+ * 範囲どうしは補償項ごと合計を足し合わせ、二乗偏差和は平均の差で補正して併合する（Chanらの方法）。
+ * 単純に足し合わせた場合と違い、桁の大きく異なる値が混ざっても合計の誤差は件数に比例して増えず、
+ * 分散も Σx² − (Σx)²/n の桁落ちを起こさない。
+ */
+final class DoubleStatistics {
+
+    // 1タスクで逐次に集計する件数
+    static final int LEAF_SIZE = 1 << 13;
+
+    private DoubleStatistics() {}
+
+    /**
+     * 列の配列はソートされる。
+     */
+    static StatisticsResult compute(ForkJoinPool pool, DoubleColumn column, List<BigDecimal> percentiles,
+                                    long readNanos) {
+        long start = System.nanoTime();
+        double[] values = column.values();
+        int n = column.size();
+
+        Moments moments = pool.invoke(new MomentsTask(values, 0, n));
+        pool.submit(() -> Arrays.parallelSort(values, 0, n)).join();
+
+        double sum = moments.sum() + moments.compensation();
+        if (!Double.isFinite(sum)) {
+            throw new ArithmeticException("合計がdoubleの範囲を超えました");
+        }
+        double variance = moments.squaredDeviations() / n;
+
+        Map<String, Number> quantiles = new LinkedHashMap<>();
+        for (BigDecimal p : percentiles) {
+            quantiles.put(p.stripTrailingZeros().toPlainString(), percentile(values, n, p.doubleValue()));
+        }
+
+        return new StatisticsResult(StatisticsMode.DOUBLE, n, sum, sum / n, variance,
+            n < 2 ? null : moments.squaredDeviations() / (n - 1), Math.sqrt(variance),
+            values[0], values[n - 1], percentile(values, n, StatisticsService.MEDIAN.doubleValue()), quantiles,
+            readNanos, System.nanoTime() - start);
+    }
+
+    // ソート済みの配列の p パーセンタイル。位置 (n−1)·p/100 の前後の値を線形補間する
+    static double percentile(double[] sorted, int n, double p) {
+        double position = (n - 1) * p / 100;
+        int index = (int) position;
+        double fraction = position - index;
+        double value = sorted[index];
+        if (fraction > 0 && index + 1 < n) {
+            value += (sorted[index + 1] - value) * fraction;
+        }
+        return value;
+    }
+
+    /**
+     * @param sum               補償加算の合計
+     * @param compensation      合計の補償項（合計に足すと真の値に近づく）
+     * @param mean              平均
+     * @param squaredDeviations 平均からの偏差の二乗和
+     */
+    record Moments(long count, double sum, double compensation, double mean, double squaredDeviations) {
+
+        Moments merge(Moments other) {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            double mergedSum = sum + other.sum;
+            double mergedCompensation = compensation + other.compensation + error(sum, other.sum, mergedSum);
+            return new Moments(total, mergedSum, mergedCompensation,
+                mean + delta * other.count / total,
+                squaredDeviations + other.squaredDeviations + delta * delta * count / total * other.count);
+        }
+    }
+
+    static final class MomentsTask extends RecursiveTask<Moments> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] values;
+        private final int from;
+        private final int to;
+
+        MomentsTask(double[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Moments compute() {
+            if (to - from <= LEAF_SIZE) {
+                return momentsOf(values, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            MomentsTask left = new MomentsTask(values, from, middle);
+            left.fork();
+            Moments right = new MomentsTask(values, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    static Moments momentsOf(double[] values, int from, int to) {
+        double sum = 0;
+        double compensation = 0;
+        for (int i = from; i < to; i++) {
+            double next = sum + values[i];
+            compensation += error(sum, values[i], next);
+            sum = next;
+        }
+        int count = to - from;
+        double mean = (sum + compensation) / count;
+
+        double squares = 0;
+        double squaresCompensation = 0;
+        for (int i = from; i < to; i++) {
+            double deviation = values[i] - mean;
+            double square = deviation * deviation;
+            double next = squares + square;
+            squaresCompensation += error(squares, square, next);
+            squares = next;
+        }
+        return new Moments(count, sum, compensation, mean, squares + squaresCompensation);
+    }
+
+    // a + b を sum に丸めたときに失われた値（Neumaier）
+    private static double error(double a, double b, double sum) {
+        return Math.abs(a) >= Math.abs(b) ? (a - sum) + b : (b - sum) + a;
+    }
+}
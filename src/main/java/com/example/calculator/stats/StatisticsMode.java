@@ -0,0 +1,32 @@
+package com.example.calculator.stats;
+
+/**
+ * 統計量の計算方法。
+ */
+public enum StatisticsMode {
+
+    // スケール付きlongで正確に集計し、除算は CalculatorService と同じく小数点以下10桁に四捨五入する
+    DECIMAL("decimal"),
+
+    // doubleで集計する。合計は補償加算（Neumaier）、分散は部分ごとの二乗偏差和を併合して求める
+    DOUBLE("double");
+
+    private final String label;
+
+    StatisticsMode(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static StatisticsMode of(String label) {
+        for (StatisticsMode mode : values()) {
+            if (mode.label.equalsIgnoreCase(label)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("サポートされていないモードです: " + label);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.calculator.stats;
+
+import java.util.Map;
+
+/**
+ * 統計量の計算結果。値は decimal モードでは BigDecimal、double モードでは Double になる。
+ *
+ * @param sampleVariance 不偏分散（件数が1の場合は null）
+ * @param percentiles    パーセンタイル（キーは指定されたパーセント値）
+ */
+public record StatisticsResult(StatisticsMode mode,
+                               long count,
+                               Number sum,
+                               Number mean,
+                               Number variance,
+                               Number sampleVariance,
+                               Number standardDeviation,
+                               Number min,
+                               Number max,
+                               Number median,
+                               Map<String, Number> percentiles,
+                               long readNanos,
+                               long computeNanos) {
+}
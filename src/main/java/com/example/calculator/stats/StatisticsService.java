@@ -0,0 +1,156 @@
+package com.example.calculator.stats;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 数値の配列の合計・平均・分散・最小/最大・中央値・パーセンタイルを計算する。
+ *
+ * 入力のJSON配列はストリームで読み、値はプリミティブの配列（decimal モードはスケール付きlong、
+ * double モードはdouble）にだけ保持する。集計とソートは専用の {@link ForkJoinPool} で並列に行う。
+ */
+@Service
+public class StatisticsService {
+
+    public static final BigDecimal MEDIAN = BigDecimal.valueOf(50);
+
+    public static final List<BigDecimal> DEFAULT_PERCENTILES = List.of(
+        BigDecimal.valueOf(25), MEDIAN, BigDecimal.valueOf(75),
+        BigDecimal.valueOf(90), BigDecimal.valueOf(95), BigDecimal.valueOf(99));
+
+    private static final BigDecimal MAX_PERCENTILE = BigDecimal.valueOf(100);
+
+    // 1回に指定できるパーセンタイルの最大数
+    static final int MAX_PERCENTILES = 100;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${calculator.stats.max-size:10000000}")
+    private int maxSize;
+
+    @Value("${calculator.stats.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param input       数値のJSON配列
+     * @param percentiles null の場合は {@link #DEFAULT_PERCENTILES}
+     */
+    public StatisticsResult compute(InputStream input, StatisticsMode mode, List<BigDecimal> percentiles)
+            throws IOException {
+        List<BigDecimal> requested = checkPercentiles(percentiles);
+        long start = System.nanoTime();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("数値の配列を指定してください");
+            }
+            if (mode == StatisticsMode.DECIMAL) {
+                DecimalColumn column = new DecimalColumn();
+                readDecimals(parser, column);
+                checkNotEmpty(column.size());
+                return DecimalStatistics.compute(pool, column, requested, System.nanoTime() - start);
+            }
+            DoubleColumn column = new DoubleColumn();
+            readDoubles(parser, column);
+            checkNotEmpty(column.size());
+            return DoubleStatistics.compute(pool, column, requested, System.nanoTime() - start);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSONの形式が正しくありません: " + e.getOriginalMessage());
+        }
+    }
+
+    StatisticsResult compute(DecimalColumn column, List<BigDecimal> percentiles) {
+        checkNotEmpty(column.size());
+        return DecimalStatistics.compute(pool, column, checkPercentiles(percentiles), 0);
+    }
+
+    StatisticsResult compute(DoubleColumn column, List<BigDecimal> percentiles) {
+        checkNotEmpty(column.size());
+        return DoubleStatistics.compute(pool, column, checkPercentiles(percentiles), 0);
+    }
+
+    private void readDecimals(JsonParser parser, DecimalColumn column) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            checkSize(column.size());
+            if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                column.add(parser.getLongValue(), 0);
+            } else if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                column.add(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            } else {
+                throw notNumber(token);
+            }
+        }
+    }
+
+    private void readDoubles(JsonParser parser, DoubleColumn column) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            checkSize(column.size());
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                throw notNumber(token);
+            }
+            column.add(parser.getDoubleValue());
+        }
+    }
+
+    private void checkSize(int size) {
+        if (size >= maxSize) {
+            throw new IllegalArgumentException("データ件数が上限(" + maxSize + "件)を超えています");
+        }
+    }
+
+    private static void checkNotEmpty(int size) {
+        if (size == 0) {
+            throw new IllegalArgumentException("数値が空です");
+        }
+    }
+
+    private static List<BigDecimal> checkPercentiles(List<BigDecimal> percentiles) {
+        if (percentiles == null) {
+            return DEFAULT_PERCENTILES;
+        }
+        if (percentiles.size() > MAX_PERCENTILES) {
+            throw new IllegalArgumentException("パーセンタイルは" + MAX_PERCENTILES + "個まで指定できます");
+        }
+        for (BigDecimal p : percentiles) {
+            if (p == null || p.signum() < 0 || p.compareTo(MAX_PERCENTILE) > 0) {
+                throw new IllegalArgumentException("パーセンタイルは0から100の範囲で指定してください: " + p);
+            }
+        }
+        return percentiles;
+    }
+
+    private static IllegalArgumentException notNumber(JsonToken token) {
+        if (token == null) {
+            return new IllegalArgumentException("JSONの形式が正しくありません: 配列が閉じられていません");
+        }
+        return new IllegalArgumentException("数値以外の要素が含まれています");
+    }
+}
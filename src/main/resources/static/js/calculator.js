@@ -1,33 +1,180 @@
+// キー入力をまとめて送信するまでの待ち時間（ミリ秒）と、1回に送る最大数
+const COALESCE_DELAY_MS = 25;
+const MAX_BATCH_SIZE = 32;
+
+// 429（受け付け制御）のときに同じキーを再送する最大回数と、Retry-After がない場合の待ち時間（ミリ秒）
+const MAX_RETRIES = 5;
+const DEFAULT_RETRY_DELAY_MS = 1000;
+
+// 送信待ちのボタン。送信は常に1件ずつ順に行う
+let pendingButtons = [];
+let flushTimer = null;
+let requestInFlight = false;
+let retryTimer = null;
+let retries = 0;
+
+// 楽観的に表示を更新するための状態（サーバーの応答で上書きする）
+let shouldResetDisplay = false;
+let operationPending = false;
+let optimistic = true;
+
+// サーバーが最後に確定した状態。送信に失敗した場合は表示をこの状態に戻す
+let confirmed = null;
+
+document.addEventListener('DOMContentLoaded', function() {
+    const display = document.querySelector('.display-value');
+    if (display) {
+        shouldResetDisplay = display.dataset.shouldReset === 'true';
+        operationPending = !!display.dataset.operation;
+        confirmed = {
+            displayValue: display.textContent,
+            shouldResetDisplay: shouldResetDisplay,
+            currentOperation: display.dataset.operation || ''
+        };
+    }
+});
+
 function handleButton(button) {
-    console.log('Button clicked:', button);
-    
-    // 送信前の状態をログに記録
-    const currentDisplay = document.querySelector('.display-value');
-    if (currentDisplay) {
-        console.log('Current display before submit:', currentDisplay.textContent);
+    applyOptimistic(button);
+    pendingButtons.push(button);
+
+    if (pendingButtons.length >= MAX_BATCH_SIZE) {
+        flush();
+    } else if (!flushTimer) {
+        flushTimer = setTimeout(flush, COALESCE_DELAY_MS);
     }
-    
-    // 従来のフォーム送信方式を使用（より安定）
-    submitForm(button);
 }
 
-function submitForm(button) {
-    // フォームを作成してボタンクリックを送信
-    const form = document.createElement('form');
-    form.method = 'POST';
-    form.action = '/button';
-    form.style.display = 'none';
-    
-    const input = document.createElement('input');
-    input.type = 'hidden';
-    input.name = 'button';
-    input.value = button;
-    
-    form.appendChild(input);
-    document.body.appendChild(form);
-    
-    // フォーム送信
-    form.submit();
+// 結果がサーバーの計算によらないキーだけを先に表示に反映する
+function applyOptimistic(button) {
+    const display = document.querySelector('.display-value');
+    if (!display) {
+        return;
+    }
+
+    if (/^[0-9.]$/.test(button)) {
+        if (!optimistic) {
+            return;
+        }
+        const current = display.textContent;
+        if (shouldResetDisplay || current === '0') {
+            display.textContent = button;
+            shouldResetDisplay = false;
+        } else if (current.length < 15) {
+            display.textContent = current + button;
+        }
+    } else if (button === 'C') {
+        display.textContent = '0';
+        shouldResetDisplay = false;
+        operationPending = false;
+        optimistic = true;
+    } else if (button === 'CE') {
+        display.textContent = '0';
+    } else if (['+', '-', '*', '/'].includes(button) && !operationPending) {
+        shouldResetDisplay = true;
+        operationPending = true;
+    } else {
+        // 計算結果が必要なキー。応答が返るまで表示の予測をやめる
+        optimistic = false;
+    }
+}
+
+function flush() {
+    clearTimeout(flushTimer);
+    flushTimer = null;
+    if (requestInFlight || retryTimer || pendingButtons.length === 0) {
+        return;
+    }
+
+    const buttons = pendingButtons.splice(0, MAX_BATCH_SIZE);
+    const body = new URLSearchParams();
+    buttons.forEach(button => body.append('buttons', button));
+
+    requestInFlight = true;
+    fetch('/button-sequence', {
+        method: 'POST',
+        body: body,
+        headers: { 'Accept': 'application/json' },
+        credentials: 'same-origin'
+    })
+        .then(response => {
+            if (response.status === 429 && retries < MAX_RETRIES) {
+                // サーバーはキーを処理していない。待ってから同じキーを先頭に戻して再送する
+                retries++;
+                pendingButtons = buttons.concat(pendingButtons);
+                scheduleRetry(retryDelay(response));
+                return;
+            }
+            retries = 0;
+            // 入力エラー（400）はJSONで状態を返す。それ以外の失敗は本文を読まない
+            const json = (response.headers.get('Content-Type') || '').includes('application/json');
+            if (!response.ok && !(response.status === 400 && json)) {
+                throw new Error('HTTP ' + response.status);
+            }
+            return response.json().then(data => {
+                if (data.displayValue !== undefined) {
+                    confirmed = data;
+                }
+                if (!data.success) {
+                    // 失敗したキー以降は送らず、サーバーの状態に戻す
+                    pendingButtons = [];
+                    restoreConfirmed();
+                    showMessage(data.error || 'エラーが発生しました', 'error');
+                } else if (pendingButtons.length === 0) {
+                    syncDisplay(data);
+                }
+            });
+        })
+        .catch(() => {
+            retries = 0;
+            pendingButtons = [];
+            restoreConfirmed();
+            showMessage('通信エラーが発生しました', 'error');
+        })
+        .finally(() => {
+            requestInFlight = false;
+            if (pendingButtons.length > 0) {
+                flush();
+            }
+        });
+}
+
+function scheduleRetry(delay) {
+    retryTimer = setTimeout(() => {
+        retryTimer = null;
+        flush();
+    }, delay);
+}
+
+// Retry-After は秒数または日時
+function retryDelay(response) {
+    const value = response.headers.get('Retry-After');
+    if (!value) {
+        return DEFAULT_RETRY_DELAY_MS;
+    }
+    const seconds = Number(value);
+    if (!isNaN(seconds)) {
+        return seconds * 1000;
+    }
+    const date = Date.parse(value);
+    return isNaN(date) ? DEFAULT_RETRY_DELAY_MS : Math.max(0, date - Date.now());
+}
+
+// 楽観的に更新した表示を、サーバーが最後に確定した状態に戻す
+function restoreConfirmed() {
+    if (confirmed) {
+        syncDisplay(confirmed);
+    }
+}
+
+function syncDisplay(data) {
+    const display = document.querySelector('.display-value');
+    if (display && data.displayValue !== undefined) {
+        display.textContent = data.displayValue;
+    }
+    shouldResetDisplay = !!data.shouldResetDisplay;
+    operationPending = !!data.currentOperation;
+    optimistic = true;
 }
 
 function showMessage(message, type) {
@@ -0,0 +1,150 @@
+package com.example.calculator.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // セッション: 毎秒1個・最大3個、IP: 毎秒1個・最大5個、同時処理数: 1
+        filter = new AdmissionControlFilter(1024, 1, 3, 1, 5, 1);
+    }
+
+    private MockHttpServletResponse send(MockHttpSession session, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/button-ajax");
+        request.setSession(session);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void testSessionLimitReturns429WithRetryAfter() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send(session, "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = send(session, "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"success\":false"));
+        assertEquals(1, filter.getRejected(AdmissionControlFilter.REASON_SESSION));
+
+        // 別のセッションは影響を受けない
+        assertEquals(200, send(new MockHttpSession(), "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void testIpLimitAppliesAcrossSessions() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(new MockHttpSession(), "10.0.0.2").getStatus());
+        }
+        assertEquals(429, send(new MockHttpSession(), "10.0.0.2").getStatus());
+        assertEquals(1, filter.getRejected(AdmissionControlFilter.REASON_IP));
+        assertEquals(200, send(new MockHttpSession(), "10.0.0.3").getStatus());
+    }
+
+    @Test
+    void testIpLimitIsDisabledWhenRateIsZero() throws Exception {
+        // 既定の設定（ip.rate=0）では、プロキシの後ろで全員が同じアドレスになっても429にしない
+        filter = new AdmissionControlFilter(1024, 1, 3, 0, 5, 1);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, send(new MockHttpSession(), "10.0.0.2").getStatus());
+        }
+        assertEquals(0, filter.getRejected(AdmissionControlFilter.REASON_IP));
+    }
+
+    @Test
+    void testIpLimitUsesForwardedAddressFromTrustedProxy() throws Exception {
+        // server.forward-headers-strategy=native と同じく、RemoteIpFilter が先にクライアントのアドレスを復元する
+        RemoteIpFilter remoteIpFilter = new RemoteIpFilter();
+        remoteIpFilter.init(new MockFilterConfig());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, sendThroughProxy(remoteIpFilter, "203.0.113.1").getStatus());
+        }
+        assertEquals(429, sendThroughProxy(remoteIpFilter, "203.0.113.1").getStatus());
+        // 同じプロキシを経由していても、別のクライアントは影響を受けない
+        assertEquals(200, sendThroughProxy(remoteIpFilter, "203.0.113.2").getStatus());
+    }
+
+    private MockHttpServletResponse sendThroughProxy(RemoteIpFilter remoteIpFilter, String clientAddr)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/button-ajax");
+        request.setSession(new MockHttpSession());
+        request.setRemoteAddr("10.0.0.254");
+        request.addHeader("X-Forwarded-For", clientAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new GenericServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) {
+            }
+        }, remoteIpFilter, filter).doFilter(request, response);
+        return response;
+    }
+
+    @Test
+    void testConcurrencyLimitShedsLoadBeforeDispatch() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> first = executor.submit(() -> {
+                MockHttpServletRequest request = new MockHttpServletRequest("POST", "/button-ajax");
+                request.setRemoteAddr("10.0.0.4");
+                filter.doFilter(request, new MockHttpServletResponse(), blocking);
+                return null;
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            assertEquals(1, filter.getInFlight());
+
+            MockHttpServletResponse rejected = send(null, "10.0.0.5");
+            assertEquals(429, rejected.getStatus());
+            assertEquals(1, filter.getRejected(AdmissionControlFilter.REASON_CONCURRENCY));
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(0, filter.getInFlight());
+        assertEquals(200, send(null, "10.0.0.5").getStatus());
+    }
+
+    @Test
+    void testZeroRateDisablesLimit() throws Exception {
+        filter = new AdmissionControlFilter(1024, 0, 1, 0, 1, 0);
+        MockHttpSession session = new MockHttpSession();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(200, send(session, "10.0.0.6").getStatus());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.calculator.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private static final long KEY = TokenBucketTable.hash("session-a");
+
+    private TokenBucketTable table;
+
+    @BeforeEach
+    void setUp() {
+        // 毎秒10個、最大5個
+        table = new TokenBucketTable(16, 10, 5);
+    }
+
+    @Test
+    void testBurstThenReject() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, table.tryAcquire(KEY, 1000));
+        }
+        long wait = table.tryAcquire(KEY, 1000);
+        assertEquals(100, wait);
+    }
+
+    @Test
+    void testRefillOverTime() {
+        for (int i = 0; i < 5; i++) {
+            table.tryAcquire(KEY, 1000);
+        }
+        assertTrue(table.tryAcquire(KEY, 1050) > 0);
+        assertEquals(0, table.tryAcquire(KEY, 1100));
+        assertTrue(table.tryAcquire(KEY, 1100) > 0);
+
+        // 長時間空いても容量以上には貯まらない
+        long later = 1100 + 86_400_000L;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, table.tryAcquire(KEY, later));
+        }
+        assertTrue(table.tryAcquire(KEY, later) > 0);
+    }
+
+    @Test
+    void testKeysAreIndependent() {
+        for (int i = 0; i < 5; i++) {
+            table.tryAcquire(KEY, 1000);
+        }
+        assertTrue(table.tryAcquire(KEY, 1000) > 0);
+        assertEquals(0, table.tryAcquire(TokenBucketTable.hash("session-b"), 1000));
+    }
+
+    @Test
+    void testFullTableEvictsOldestSlot() {
+        TokenBucketTable small = new TokenBucketTable(TokenBucketTable.PROBES, 10, 1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, small.tryAcquire(TokenBucketTable.hash("key-" + i), i));
+        }
+        assertTrue(small.getEvictions() >= 100 - TokenBucketTable.PROBES);
+    }
+
+    @Test
+    void testConcurrentAcquireNeverExceedsBurst() throws Exception {
+        TokenBucketTable large = new TokenBucketTable(16, 1, 1000);
+        AtomicInteger admitted = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        if (large.tryAcquire(KEY, 0) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        assertEquals(1000, admitted.get());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(16, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(16, 1, TokenBucketTable.MAX_BURST + 1));
+    }
+}
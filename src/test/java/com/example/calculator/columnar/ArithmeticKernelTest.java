@@ -0,0 +1,201 @@
+package com.example.calculator.columnar;
+
+import com.example.calculator.service.CalculatorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArithmeticKernelTest {
+
+    // ベクトル幅の倍数にならない長さで端数の処理も確認する
+    private static final int LENGTH = 1003;
+
+    private List<ArithmeticKernel> kernels;
+    private CalculatorService calculatorService;
+
+    @BeforeEach
+    void setUp() {
+        kernels = List.of(ArithmeticKernel.best(), new ScalarArithmeticKernel());
+        calculatorService = new CalculatorService();
+    }
+
+    @Test
+    void testVectorKernelIsSelectedWhenModuleIsEnabled() {
+        assertTrue(ArithmeticKernel.best().name().startsWith("vector"), ArithmeticKernel.best().name());
+        assertInstanceOf(ScalarArithmeticKernel.class, ArithmeticKernel.scalar());
+    }
+
+    @Test
+    void testDoubleOperations() {
+        Random random = new Random(1);
+        double[] first = new double[LENGTH];
+        double[] second = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            first[i] = random.nextGaussian() * 1000;
+            second[i] = random.nextInt(20) == 0 ? 0.0 : random.nextGaussian() * 1000;
+        }
+        second[7] = -0.0;
+        first[100] = Double.MAX_VALUE;
+        second[100] = Double.MAX_VALUE;
+
+        for (ArithmeticKernel kernel : kernels) {
+            for (String operation : new String[] {"+", "-", "*", "/"}) {
+                double[] result = new double[LENGTH];
+                byte[] status = new byte[LENGTH];
+                kernel.apply(operation, first, second, result, status, LENGTH);
+
+                for (int i = 0; i < LENGTH; i++) {
+                    String message = kernel.name() + " " + operation + " " + i;
+                    if (operation.equals("/") && second[i] == 0.0) {
+                        assertEquals(ColumnarFormat.STATUS_DIVIDE_BY_ZERO, status[i], message);
+                        assertTrue(Double.isNaN(result[i]), message);
+                        continue;
+                    }
+                    double expected = switch (operation) {
+                        case "+" -> first[i] + second[i];
+                        case "-" -> first[i] - second[i];
+                        case "*" -> first[i] * second[i];
+                        default -> first[i] / second[i];
+                    };
+                    if (Double.isInfinite(expected)) {
+                        assertEquals(ColumnarFormat.STATUS_OVERFLOW, status[i], message);
+                    } else {
+                        assertEquals(ColumnarFormat.STATUS_OK, status[i], message);
+                        assertEquals(expected, result[i], message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDivisionByZeroMatchesCalculatorService() {
+        double[] first = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        double[] second = {1, 0, 2, -0.0, 4, 5, 0, 7, 0};
+
+        for (ArithmeticKernel kernel : kernels) {
+            double[] result = new double[first.length];
+            byte[] status = new byte[first.length];
+            kernel.apply("/", first, second, result, status, first.length);
+
+            for (int i = 0; i < first.length; i++) {
+                BigDecimal a = BigDecimal.valueOf(first[i]);
+                BigDecimal b = BigDecimal.valueOf(second[i]);
+                if (status[i] == ColumnarFormat.STATUS_DIVIDE_BY_ZERO) {
+                    ArithmeticException e = assertThrows(ArithmeticException.class,
+                        () -> calculatorService.calculate(a, b, "/"));
+                    assertEquals(CalculatorService.DIVISION_BY_ZERO_MESSAGE, e.getMessage());
+                } else {
+                    assertEquals(ColumnarFormat.STATUS_OK, status[i]);
+                    assertDoesNotThrow(() -> calculatorService.calculate(a, b, "/"));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testScaledLongMatchesCalculatorService() {
+        Random random = new Random(2);
+        int scale = 2;
+        long[] first = new long[LENGTH];
+        long[] second = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            first[i] = random.nextLong() >> random.nextInt(64);
+            second[i] = random.nextLong() >> random.nextInt(64);
+        }
+
+        for (ArithmeticKernel kernel : kernels) {
+            for (String operation : new String[] {"+", "-", "*"}) {
+                long[] result = new long[LENGTH];
+                byte[] status = new byte[LENGTH];
+                kernel.apply(operation, first, second, result, status, LENGTH);
+
+                int resultScale = operation.equals("*") ? scale * 2 : scale;
+                for (int i = 0; i < LENGTH; i++) {
+                    String message = kernel.name() + " " + operation + " " + i;
+                    BigInteger expected = calculatorService.calculate(
+                            BigDecimal.valueOf(first[i], scale), BigDecimal.valueOf(second[i], scale), operation)
+                        .setScale(resultScale)
+                        .unscaledValue();
+                    if (expected.bitLength() > 63) {
+                        assertEquals(ColumnarFormat.STATUS_OVERFLOW, status[i], message);
+                        assertEquals(0L, result[i], message);
+                    } else {
+                        assertEquals(ColumnarFormat.STATUS_OK, status[i], message);
+                        assertEquals(expected.longValueExact(), result[i], message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMultiplyNearLongRange() {
+        // 積がlongに収まるかどうかの境目（絶対値のビット数の和が63〜65）の値
+        long[] values = {3037000499L, 3037000500L, -3037000499L, 1L << 31, -(1L << 31), (1L << 31) - 1, 1L << 32,
+            (1L << 40) + 7, 1L << 22, -(1L << 23), 10_000_000_000L, 922_337_203L, Long.MAX_VALUE, Long.MIN_VALUE, 0, -1};
+        int length = values.length * values.length;
+        long[] first = new long[length];
+        long[] second = new long[length];
+        for (int i = 0; i < length; i++) {
+            first[i] = values[i / values.length];
+            second[i] = values[i % values.length];
+        }
+
+        for (ArithmeticKernel kernel : kernels) {
+            long[] result = new long[length];
+            byte[] status = new byte[length];
+            kernel.apply("*", first, second, result, status, length);
+
+            for (int i = 0; i < length; i++) {
+                String message = kernel.name() + " " + first[i] + " * " + second[i];
+                BigInteger expected = BigInteger.valueOf(first[i]).multiply(BigInteger.valueOf(second[i]));
+                if (expected.bitLength() > 63) {
+                    assertEquals(ColumnarFormat.STATUS_OVERFLOW, status[i], message);
+                } else {
+                    assertEquals(ColumnarFormat.STATUS_OK, status[i], message);
+                    assertEquals(expected.longValueExact(), result[i], message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPercentageAndSquare() {
+        double[] values = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            values[i] = i - 500.5;
+        }
+
+        for (ArithmeticKernel kernel : kernels) {
+            double[] percentage = new double[LENGTH];
+            double[] square = new double[LENGTH];
+            kernel.percentage(values, percentage, LENGTH);
+            kernel.square(values, square, LENGTH);
+
+            for (int i = 0; i < LENGTH; i++) {
+                assertEquals(values[i] / 100.0, percentage[i]);
+                assertEquals(values[i] * values[i], square[i]);
+            }
+        }
+    }
+
+    @Test
+    void testUnsupportedOperation() {
+        for (ArithmeticKernel kernel : kernels) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> kernel.apply("%", new double[1], new double[1], new double[1], new byte[1], 1));
+            assertEquals(CalculatorService.UNSUPPORTED_OPERATION_MESSAGE + "%", e.getMessage());
+            assertThrows(IllegalArgumentException.class,
+                () -> kernel.apply("/", new long[1], new long[1], new long[1], new byte[1], 1));
+            assertThrows(IllegalArgumentException.class,
+                () -> kernel.apply("+", new double[1], new double[1], new double[1], new byte[1], 2));
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.calculator.columnar;
+
+import com.example.calculator.service.CalculatorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarCalculationEngineTest {
+
+    private static final char[] OPERATIONS = {'+', '-', '*', '/'};
+
+    @TempDir
+    Path directory;
+
+    private ColumnarCalculationEngine engine;
+    private CalculatorService calculatorService;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ColumnarCalculationEngine(4);
+        calculatorService = new CalculatorService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void testScaledLongMatchesCalculatorService() throws IOException {
+        for (int scale : new int[] {0, 2, 5}) {
+            Random random = new Random(scale);
+            int rows = 20000;
+            long[] first = new long[rows];
+            long[] second = new long[rows];
+            char[] operations = new char[rows];
+            for (int i = 0; i < rows; i++) {
+                // 桁数を変えて、オーバーフローやBigDecimalでの除算の経路も通す
+                first[i] = random.nextLong() >> random.nextInt(64);
+                second[i] = random.nextInt(10) == 0 ? 0 : random.nextLong() >> random.nextInt(64);
+                operations[i] = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            }
+            Path input = directory.resolve("scaled-" + scale + ".col");
+            try (ColumnarWriter writer = ColumnarWriter.scaledLong(input, scale, rows)) {
+                for (int i = 0; i < rows; i++) {
+                    writer.append(first[i], operations[i], second[i]);
+                }
+            }
+
+            Path output = directory.resolve("scaled-" + scale + ".res");
+            ColumnarCalculationEngine.Summary summary = engine.evaluate(input, output);
+            assertEquals(rows, summary.rows());
+
+            try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+                for (int i = 0; i < rows; i++) {
+                    assertRow(reader, i, BigDecimal.valueOf(first[i], scale), operations[i],
+                        BigDecimal.valueOf(second[i], scale));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRunsOfSameOperationUseKernel() throws IOException {
+        // 同じ演算子が続く範囲はカーネルで、短い範囲は行ごとに計算される。どちらのカーネルでも行ごとの計算と同じ結果になる
+        int scale = 3;
+        Random random = new Random(7);
+        int rows = 30000;
+        long[] first = new long[rows];
+        long[] second = new long[rows];
+        char[] operations = new char[rows];
+        for (int i = 0; i < rows; ) {
+            char operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            int end = Math.min(rows, i + 1 + random.nextInt(ColumnarCalculationEngine.BLOCK_ROWS / 4));
+            for (; i < end; i++) {
+                first[i] = random.nextLong() >> random.nextInt(64);
+                second[i] = random.nextInt(10) == 0 ? 0 : random.nextLong() >> random.nextInt(64);
+                operations[i] = operation;
+            }
+        }
+        Path input = directory.resolve("runs.col");
+        Path doubleInput = directory.resolve("runs-double.col");
+        try (ColumnarWriter writer = ColumnarWriter.scaledLong(input, scale, rows);
+             ColumnarWriter doubleWriter = ColumnarWriter.doubles(doubleInput, rows)) {
+            for (int i = 0; i < rows; i++) {
+                writer.append(first[i], operations[i], second[i]);
+                doubleWriter.append(first[i] / 1e6, operations[i], second[i] / 1e6);
+            }
+        }
+
+        for (ArithmeticKernel kernel : new ArithmeticKernel[] {ArithmeticKernel.best(), ArithmeticKernel.scalar()}) {
+            try (ColumnarCalculationEngine kernelEngine = new ColumnarCalculationEngine(2, kernel)) {
+                Path output = directory.resolve("runs-" + kernel.name() + ".res");
+                kernelEngine.evaluate(input, output);
+                try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+                    for (int i = 0; i < rows; i++) {
+                        assertRow(reader, i, BigDecimal.valueOf(first[i], scale), operations[i],
+                            BigDecimal.valueOf(second[i], scale));
+                    }
+                }
+
+                Path doubleOutput = directory.resolve("runs-double-" + kernel.name() + ".res");
+                kernelEngine.evaluate(doubleInput, doubleOutput);
+                long[] result = new long[1];
+                try (ColumnarResultReader reader = ColumnarResultReader.open(doubleOutput)) {
+                    for (int i = 0; i < rows; i++) {
+                        byte status = ColumnarCalculationEngine.evaluateDouble((byte) operations[i], first[i] / 1e6,
+                            second[i] / 1e6, result);
+                        assertEquals(status, reader.getStatus(i), "row " + i);
+                        if (status == ColumnarFormat.STATUS_OK) {
+                            assertEquals(Double.longBitsToDouble(result[0]), reader.getDouble(i), "row " + i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDivisionRoundsHalfUp() throws IOException {
+        Path input = directory.resolve("division.col");
+        try (ColumnarWriter writer = ColumnarWriter.scaledLong(input, 2, 4)) {
+            writer.append(new BigDecimal("2"), '/', new BigDecimal("3"));
+            writer.append(new BigDecimal("-2"), '/', new BigDecimal("3"));
+            writer.append(new BigDecimal("1"), '/', new BigDecimal("0.08"));
+            writer.append(new BigDecimal("0.01"), '/', new BigDecimal("-0.03"));
+        }
+        Path output = directory.resolve("division.res");
+        engine.evaluate(input, output);
+
+        try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+            assertEquals(new BigDecimal("0.6666666667"), reader.getResult(0));
+            assertEquals(new BigDecimal("-0.6666666667"), reader.getResult(1));
+            assertEquals(new BigDecimal("12.5000000000"), reader.getResult(2));
+            assertEquals(new BigDecimal("-0.3333333333"), reader.getResult(3));
+        }
+    }
+
+    @Test
+    void testResultsBeyondFixedScaleRange() throws IOException {
+        // 結果をスケール10に揃えるとlongに収まらない（9.22e8を超える）値
+        Path input = directory.resolve("large-values.col");
+        try (ColumnarWriter writer = ColumnarWriter.scaledLong(input, 2, 6)) {
+            writer.append(new BigDecimal("5000000000000.25"), '+', new BigDecimal("1000000000000.50"));
+            writer.append(new BigDecimal("-90000000000000000.00"), '-', new BigDecimal("0.01"));
+            writer.append(new BigDecimal("12345678.91"), '*', new BigDecimal("100.00"));
+            writer.append(new BigDecimal("1000000000000000.00"), '/', new BigDecimal("4.00"));
+            writer.append(new BigDecimal("1000000000000000.00"), '/', new BigDecimal("3.00"));
+            writer.append(new BigDecimal("2.00"), '/', new BigDecimal("3.00"));
+        }
+        Path output = directory.resolve("large-values.res");
+        engine.evaluate(input, output);
+
+        try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+            assertEquals(new BigDecimal("6000000000000.75"), reader.getResult(0));
+            assertEquals(new BigDecimal("-90000000000000000.01"), reader.getResult(1));
+            assertEquals(new BigDecimal("1234567891.0000"), reader.getResult(2));
+            assertEquals(4, reader.getScale(2));
+            assertEquals(new BigDecimal("250000000000000"), reader.getResult(3));
+            // 小数部があり、10桁ではlongに収まらない
+            assertEquals(ColumnarFormat.STATUS_OVERFLOW, reader.getStatus(4));
+            assertEquals(new BigDecimal("0.6666666667"), reader.getResult(5));
+        }
+    }
+
+    @Test
+    void testStatusColumn() throws IOException {
+        Path input = directory.resolve("status.col");
+        try (ColumnarWriter writer = ColumnarWriter.scaledLong(input, 0, 4)) {
+            writer.append(1, '/', 0);
+            writer.append(1, '%', 2);
+            writer.append(Long.MAX_VALUE, '+', 1);
+            writer.append(3, '*', 4);
+        }
+        Path output = directory.resolve("status.res");
+        ColumnarCalculationEngine.Summary summary = engine.evaluate(input, output);
+
+        assertEquals(1, summary.succeeded());
+        assertEquals(1, summary.divideByZero());
+        assertEquals(1, summary.invalidOperation());
+        assertEquals(1, summary.overflow());
+        try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+            assertEquals(ColumnarFormat.STATUS_DIVIDE_BY_ZERO, reader.getStatus(0));
+            assertEquals(ColumnarFormat.STATUS_INVALID_OPERATION, reader.getStatus(1));
+            assertEquals(ColumnarFormat.STATUS_OVERFLOW, reader.getStatus(2));
+            assertNull(reader.getResult(2));
+            assertEquals(0, new BigDecimal("12").compareTo(reader.getResult(3)));
+        }
+    }
+
+    @Test
+    void testDoubles() throws IOException {
+        Path input = directory.resolve("double.col");
+        try (ColumnarWriter writer = ColumnarWriter.doubles(input, 3)) {
+            writer.append(1.5, '*', 4.0);
+            writer.append(1.0, '/', 0.0);
+            writer.append(Double.MAX_VALUE, '+', Double.MAX_VALUE);
+        }
+        Path output = directory.resolve("double.res");
+        engine.evaluate(input, output);
+
+        try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+            assertEquals(ColumnarFormat.ENCODING_DOUBLE, reader.getEncoding());
+            assertEquals(6.0, reader.getDouble(0));
+            assertEquals(ColumnarFormat.STATUS_DIVIDE_BY_ZERO, reader.getStatus(1));
+            assertTrue(Double.isNaN(reader.getDouble(1)));
+            assertEquals(ColumnarFormat.STATUS_OVERFLOW, reader.getStatus(2));
+        }
+    }
+
+    @Test
+    void testMultipleSegments() throws IOException {
+        long rows = ColumnarCalculationEngine.SEGMENT_ROWS * 2L + 123;
+        Path input = directory.resolve("large.col");
+        try (ColumnarWriter writer = ColumnarWriter.scaledLong(input, 2, rows)) {
+            for (long i = 0; i < rows; i++) {
+                writer.append(i, '+', 1);
+            }
+        }
+        Path output = directory.resolve("large.res");
+        ColumnarCalculationEngine.Summary summary = engine.evaluate(input, output);
+
+        assertEquals(rows, summary.succeeded());
+        assertEquals(ColumnarFormat.resultFileSize(rows), Files.size(output));
+        try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+            for (long row : new long[] {0, ColumnarCalculationEngine.SEGMENT_ROWS - 1,
+                    ColumnarCalculationEngine.SEGMENT_ROWS, rows - 1}) {
+                assertEquals(0, BigDecimal.valueOf(row + 1, 2).compareTo(reader.getResult(row)));
+            }
+        }
+    }
+
+    @Test
+    void testInvalidFilesAreRejected() throws IOException {
+        Path input = directory.resolve("broken.col");
+        Files.write(input, new byte[] {1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> engine.evaluate(input, directory.resolve("broken.res")));
+
+        assertThrows(IllegalArgumentException.class, () -> ColumnarWriter.scaledLong(input, 6, 1));
+
+        ColumnarWriter writer = ColumnarWriter.scaledLong(input, 0, 2);
+        writer.append(1, '+', 1);
+        assertThrows(IllegalStateException.class, writer::close);
+
+        // 行数に大きな値を書き込んでも、ファイルの大きさの計算がオーバーフローせずに拒否される
+        Path huge = directory.resolve("huge.col");
+        try (ColumnarWriter small = ColumnarWriter.scaledLong(huge, 0, 1)) {
+            small.append(1, '+', 1);
+        }
+        try (FileChannel channel = FileChannel.open(huge, StandardOpenOption.WRITE)) {
+            for (long rowCount : new long[] {Long.MAX_VALUE / 9, Long.MAX_VALUE / 17 + 1, 2}) {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, rowCount);
+                channel.write(buffer, 16);
+                IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> engine.evaluate(huge, directory.resolve("huge.res")));
+                assertEquals("ファイルの形式が正しくありません", e.getMessage());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> ColumnarWriter.scaledLong(huge, 0, Long.MAX_VALUE / 17));
+    }
+
+    private void assertRow(ColumnarResultReader reader, int row, BigDecimal first, char operation, BigDecimal second)
+            throws IOException {
+        byte status = reader.getStatus(row);
+        if (second.signum() == 0 && operation == '/') {
+            assertEquals(ColumnarFormat.STATUS_DIVIDE_BY_ZERO, status, "row " + row);
+            return;
+        }
+        BigDecimal expected = calculatorService.calculate(first, second, String.valueOf(operation));
+        // 除算は小数部が0なら末尾の0を除いたスケールで表せればよい
+        BigDecimal narrowest = operation == '/' && expected.unscaledValue().bitLength() > 63
+            ? expected.stripTrailingZeros().setScale(Math.max(0, expected.stripTrailingZeros().scale()))
+            : expected;
+        if (narrowest.unscaledValue().bitLength() > 63) {
+            assertEquals(ColumnarFormat.STATUS_OVERFLOW, status, "row " + row);
+        } else {
+            assertEquals(ColumnarFormat.STATUS_OK, status, "row " + row);
+            assertEquals(narrowest, reader.getResult(row), "row " + row);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.calculator.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CalculatorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() {
+        session = new MockHttpSession();
+    }
+
+    @Test
+    void testButtonSequenceReturnsFinalState() throws Exception {
+        mockMvc.perform(post("/button-sequence").session(session)
+                .param("buttons", "1", "2", "+", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.processed").value(4))
+            .andExpect(jsonPath("$.displayValue").value("3"))
+            .andExpect(jsonPath("$.currentOperation").value("+"));
+
+        // 状態はセッションに引き継がれる
+        mockMvc.perform(post("/button-sequence").session(session)
+                .param("buttons", "="))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.displayValue").value("15"))
+            .andExpect(jsonPath("$.shouldResetDisplay").value(true));
+    }
+
+    @Test
+    void testConcurrentRequestsInSameSessionAreSerialized() throws Exception {
+        // 同じセッションの /button-sequence と /button-ajax を同時に送っても、互いの途中の状態は見えない
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                boolean sequence = t % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 8; i++) {
+                        if (sequence) {
+                            mockMvc.perform(post("/button-sequence").session(session)
+                                    .param("buttons", "C", "1", "2", "3", "4", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.displayValue").value("12345"));
+                        } else {
+                            mockMvc.perform(post("/button-ajax").session(session).param("button", "C"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.displayValue").value("0"));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testButtonSequenceStopsAtError() throws Exception {
+        mockMvc.perform(post("/button-sequence").session(session)
+                .param("buttons", "8", "/", "0", "=", "5"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false))
+            .andExpect(jsonPath("$.processed").value(3))
+            .andExpect(jsonPath("$.displayValue").value("0"))
+            .andExpect(jsonPath("$.error").value("計算エラー: ゼロで割ることはできません"));
+
+        mockMvc.perform(post("/button-sequence").session(session)
+                .param("buttons", "2", "="))
+            .andExpect(jsonPath("$.displayValue").value("4.0000000000"));
+    }
+
+    @Test
+    void testButtonSequenceLengthIsLimited() throws Exception {
+        String[] buttons = new String[CalculatorController.MAX_SEQUENCE_LENGTH + 1];
+        Arrays.fill(buttons, "1");
+
+        mockMvc.perform(post("/button-sequence").session(session).param("buttons", buttons))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testIndexReferencesFingerprintedAssets() throws Exception {
+        String html = mockMvc.perform(get("/").session(session))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        Matcher css = Pattern.compile("/css/calculator-[0-9a-f]{32}\\.css").matcher(html);
+        assertTrue(css.find(), html);
+        assertTrue(Pattern.compile("/js/calculator-[0-9a-f]{32}\\.js").matcher(html).find());
+
+        mockMvc.perform(get(css.group()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")));
+    }
+
+    @Test
+    void testUnfingerprintedAssetIsRevalidated() throws Exception {
+        mockMvc.perform(get("/js/calculator.js"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        // ハッシュが内容と一致しないURLは返さない
+        mockMvc.perform(get("/js/calculator-00000000000000000000000000000000.js"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPrecompressedAssetIsServed() throws Exception {
+        mockMvc.perform(get("/js/calculator.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    @Test
+    void testIndexSupportsConditionalGet() throws Exception {
+        MvcResult first = mockMvc.perform(get("/").session(session))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+            .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/").session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // 状態が変わればETagも変わる
+        mockMvc.perform(post("/button-sequence").session(session).param("buttons", "7"));
+        mockMvc.perform(get("/").session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void testStreamTimeoutAppliesOnlyToStreaming() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/calculate/stream")
+                .contentType("text/csv").content("1,+,2\n"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void testStatisticsEndpoint() throws Exception {
+        mockMvc.perform(post("/api/stats").param("percentiles", "50,90")
+                .contentType(MediaType.APPLICATION_JSON).content("[3, 1.5, 2, 4.5]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.mode").value("decimal"))
+            .andExpect(jsonPath("$.count").value(4))
+            .andExpect(jsonPath("$.sum").value(11.0))
+            .andExpect(jsonPath("$.mean").value(2.75))
+            .andExpect(jsonPath("$.median").value(2.5))
+            .andExpect(jsonPath("$.percentiles['90']").value(4.05));
+
+        mockMvc.perform(post("/api/stats").param("mode", "double")
+                .contentType(MediaType.APPLICATION_JSON).content("[1, \"x\"]"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false))
+            .andExpect(jsonPath("$.error").value("数値以外の要素が含まれています"));
+    }
+
+    @Test
+    void testMatrixEndpoint() throws Exception {
+        mockMvc.perform(post("/api/matrix/multiply")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"a\": [[1, 2], [3, 4]], \"b\": [[5], [6]]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.mode").value("double"))
+            .andExpect(jsonPath("$.result[0][0]").value(17.0))
+            .andExpect(jsonPath("$.result[1][0]").value(39.0));
+
+        mockMvc.perform(post("/api/matrix/solve").param("mode", "decimal")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"a\": [[3]], \"b\": [[1]]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.result[0][0]").value(0.3333333333));
+
+        mockMvc.perform(post("/api/matrix/determinant")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"a\": [[1, 2]]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false))
+            .andExpect(jsonPath("$.error").value("正方行列を指定してください: 1×2"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.calculator.expression;
+
+import com.example.calculator.service.CalculatorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionParserTest {
+
+    private CalculatorService calculatorService;
+
+    @BeforeEach
+    void setUp() {
+        calculatorService = new CalculatorService();
+    }
+
+    private BigDecimal evaluate(String expression) {
+        return ExpressionParser.parse(ExpressionParser.normalize(expression)).evaluate(calculatorService);
+    }
+
+    @Test
+    void testPrecedence() {
+        assertEquals(new BigDecimal("14"), evaluate("2 + 3 * 4"));
+        assertEquals(new BigDecimal("20"), evaluate("(2 + 3) * 4"));
+        assertEquals(new BigDecimal("3"), evaluate("10 - 4 - 3"));
+    }
+
+    @Test
+    void testDivisionUsesServiceRounding() {
+        assertEquals(new BigDecimal("0.3333333333"), evaluate("1 ÷ 3"));
+    }
+
+    @Test
+    void testUnaryAndFunctions() {
+        assertEquals(new BigDecimal("-4"), evaluate("-2²"));
+        assertEquals(0, new BigDecimal("4").compareTo(evaluate("√(8 + 8)")));
+        assertEquals(0, new BigDecimal("3").compareTo(evaluate("sqrt 9")));
+        assertEquals(new BigDecimal("0.5000000000"), evaluate("50%"));
+        assertEquals(new BigDecimal("9"), evaluate("(1+2)^2"));
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("1+2*3/4", ExpressionParser.normalize(" 1 + 2 × 3 ÷ 4 "));
+    }
+
+    @Test
+    void testSyntaxErrors() {
+        assertThrows(IllegalArgumentException.class, () -> evaluate("(1 + 2"));
+        assertThrows(IllegalArgumentException.class, () -> evaluate("1 +"));
+        assertThrows(IllegalArgumentException.class, () -> evaluate("1 2 a"));
+        assertThrows(IllegalArgumentException.class, () -> evaluate("1..2"));
+        assertThrows(IllegalArgumentException.class, () -> evaluate(""));
+    }
+
+    @Test
+    void testDivisionByZero() {
+        assertThrows(ArithmeticException.class, () -> evaluate("1 / (2 - 2)"));
+    }
+}
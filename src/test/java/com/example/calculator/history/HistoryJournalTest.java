@@ -0,0 +1,216 @@
+package com.example.calculator.history;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryJournalTest {
+
+    private static final long SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private HistoryJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = HistoryJournal.open(directory, SEGMENT_SIZE, 1024);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void testAppendAndRead() throws Exception {
+        long sequence = journal.append("calculate", "+", new BigDecimal("10"), new BigDecimal("5"),
+            new BigDecimal("15"), null).get(5, TimeUnit.SECONDS);
+        journal.append("keypad", "/", BigDecimal.ONE, BigDecimal.ZERO, null, "ゼロで割ることはできません")
+            .get(5, TimeUnit.SECONDS);
+
+        List<HistoryEntry> entries = journal.read(1, 10);
+
+        assertEquals(1, sequence);
+        assertEquals(2, entries.size());
+        assertEquals(new HistoryEntry(1, entries.get(0).timestamp(), "calculate", "+", "10", "5", "15", null),
+            entries.get(0));
+        assertEquals("ゼロで割ることはできません", entries.get(1).error());
+        assertNull(entries.get(1).result());
+        assertEquals(2, journal.getLastSequence());
+    }
+
+    @Test
+    void testConcurrentAppendsShareCommits() throws Exception {
+        // 記録を諦めないよう、キューはすべての件数が入る大きさにする
+        journal.close();
+        journal = HistoryJournal.open(directory, SEGMENT_SIZE, 2048);
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200; i++) {
+                    CompletableFuture<Long> future = journal.append("batch", "*", new BigDecimal(i),
+                        BigDecimal.TEN, new BigDecimal(i * 10), null);
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1600, journal.getAppended());
+        assertTrue(journal.getCommits() < 1600, "コミット回数: " + journal.getCommits());
+        assertTrue(journal.getSegmentCount() > 1);
+
+        // セグメントをまたいでも連番で読める
+        List<HistoryEntry> entries = journal.read(1, 2000);
+        assertEquals(1600, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i + 1, entries.get(i).sequence());
+        }
+        assertEquals(601, journal.read(601, 2000).get(0).sequence());
+    }
+
+    @Test
+    void testFullQueueMakesProducersWait() throws Exception {
+        journal.close();
+        journal = HistoryJournal.open(directory, SEGMENT_SIZE, 16);
+        int count = 100_000;
+
+        // fork-joinのスレッドからも、キューが満杯なら記録を諦めずに待つ
+        List<CompletableFuture<Long>> futures = IntStream.range(0, count).parallel()
+            .mapToObj(i -> journal.append("batch", "+", new BigDecimal(i), BigDecimal.ONE, new BigDecimal(i + 1), null))
+            .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        assertTrue(journal.getWaits() > 0);
+        assertEquals(count, journal.getAppended());
+        assertEquals(count, journal.getLastSequence());
+        assertEquals(count, journal.read(1, count).size());
+    }
+
+    @Test
+    void testAppendAfterCloseFails() throws Exception {
+        journal.close();
+
+        CompletableFuture<Long> future = journal.append("calculate", "+", BigDecimal.ONE, BigDecimal.ONE,
+            new BigDecimal("2"), null);
+
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void testReopenContinuesSequence() throws Exception {
+        appendAll(100);
+        journal.close();
+
+        journal = HistoryJournal.open(directory, SEGMENT_SIZE, 1024);
+        long sequence = journal.append("calculate", "-", BigDecimal.TEN, BigDecimal.ONE, new BigDecimal("9"), null)
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals(101, sequence);
+        assertEquals(101, journal.read(1, 1000).size());
+    }
+
+    @Test
+    void testTornTailIsTruncatedOnRecovery() throws Exception {
+        appendAll(3);
+        journal.close();
+
+        // 書き込み途中で止まった状態を再現する
+        Path segment = lastSegment();
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        journal = HistoryJournal.open(directory, SEGMENT_SIZE, 1024);
+
+        assertEquals(2, journal.getLastSequence());
+        assertEquals(2, journal.read(1, 10).size());
+        assertEquals(3, journal.append("calculate", "+", BigDecimal.ONE, BigDecimal.ONE, BigDecimal.TWO, null)
+            .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCompactionMergesSegments() throws Exception {
+        appendAll(200);
+        int before = journal.getSegmentCount();
+
+        // 小さいセグメントを大きいセグメントサイズで開き直すと、統合の対象になる（追記は最後のセグメントに続ける）
+        journal.close();
+        journal = HistoryJournal.open(directory, SEGMENT_SIZE * 4, 1024);
+        appendAll(1);
+        int removed = journal.compact(Long.MIN_VALUE);
+
+        assertTrue(removed > 0);
+        assertEquals(before - removed, journal.getSegmentCount());
+        List<HistoryEntry> entries = journal.read(1, 1000);
+        assertEquals(201, entries.size());
+        assertEquals(201, entries.get(200).sequence());
+
+        // 統合後も開き直せる
+        journal.close();
+        journal = HistoryJournal.open(directory, SEGMENT_SIZE * 4, 1024);
+        assertEquals(201, journal.read(1, 1000).size());
+    }
+
+    @Test
+    void testCompactionRemovesExpiredSegments() throws Exception {
+        appendAll(200);
+        int before = journal.getSegmentCount();
+
+        int removed = journal.compact(Long.MAX_VALUE);
+
+        // 書き込み中のセグメントは残る
+        assertEquals(before - 1, removed);
+        assertEquals(1, journal.getSegmentCount());
+        List<HistoryEntry> entries = journal.read(1, 1000);
+        assertFalse(entries.isEmpty());
+        assertEquals(200, entries.get(entries.size() - 1).sequence());
+        assertEquals(entries.get(0).sequence(), journal.getFirstSequence());
+    }
+
+    @Test
+    void testDirectoryCanBeOpenedOnlyOnce() {
+        assertThrows(IllegalStateException.class, () -> HistoryJournal.open(directory, SEGMENT_SIZE, 1024));
+    }
+
+    private void appendAll(int count) throws Exception {
+        CompletableFuture<Long> last = null;
+        for (int i = 0; i < count; i++) {
+            last = journal.append("batch", "+", new BigDecimal(i), BigDecimal.ONE, new BigDecimal(i + 1), null);
+        }
+        last.get(5, TimeUnit.SECONDS);
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log"))
+                .max(Path::compareTo)
+                .orElseThrow();
+        }
+    }
+}
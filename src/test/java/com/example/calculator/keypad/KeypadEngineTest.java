@@ -0,0 +1,302 @@
+package com.example.calculator.keypad;
+
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.model.CalculationRequest;
+import com.example.calculator.service.CalculatorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeypadEngineTest {
+
+    private static final String[] BUTTONS = {
+        "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "1", "2", "5", "7", "9", ".",
+        "+", "-", "*", "/", "=", "=", "C", "CE", "±", "%", "√", "x²"
+    };
+
+    private KeypadEngine engine;
+    private CalculatorService calculatorService;
+
+    @BeforeEach
+    void setUp() {
+        calculatorService = new CalculatorService();
+        engine = new KeypadEngine();
+        ReflectionTestUtils.setField(engine, "calculatorService", calculatorService);
+        ReflectionTestUtils.setField(engine, "historyService", new HistoryService());
+    }
+
+    private KeypadState press(String... buttons) {
+        KeypadState state = new KeypadState();
+        for (String button : buttons) {
+            engine.press(state, button);
+        }
+        return state;
+    }
+
+    @Test
+    void testDigitsAreLimitedToFifteenCharacters() {
+        KeypadState state = press("1", "2", "3", "4", "5", "6", "7", "8", "9", "0", "1", "2", "3", "4", "5", "6", "7");
+
+        assertEquals("123456789012345", state.getDisplayValue());
+    }
+
+    @Test
+    void testChainedOperations() {
+        KeypadState state = press("1", "2", "+", "3", "*");
+
+        assertEquals("3", state.getDisplayValue());
+        assertEquals("15", state.getPreviousValue());
+        assertEquals("*", state.getCurrentOperation());
+        assertTrue(state.isShouldResetDisplay());
+
+        engine.press(state, "2");
+        engine.press(state, "=");
+        assertEquals("30", state.getDisplayValue());
+        assertEquals("", state.getPreviousValue());
+        assertEquals("", state.getCurrentOperation());
+    }
+
+    @Test
+    void testNegateAndDecimalInput() {
+        assertEquals("-1.5", press("1", ".", "5", "±").getDisplayValue());
+        assertEquals("0", press("±").getDisplayValue());
+        assertEquals("-2.5", press("1", ".", "5", "±", "-", "1", "=").getDisplayValue());
+        assertEquals("0.5", press(".", "5", "*", "1", "=").getDisplayValue());
+    }
+
+    @Test
+    void testErrorLeavesStateUnchanged() {
+        KeypadState state = press("8", "/", "0");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> engine.press(state, "="));
+        assertEquals("計算エラー: " + CalculatorService.DIVISION_BY_ZERO_MESSAGE, e.getMessage());
+        assertEquals("0", state.getDisplayValue());
+        assertEquals("8", state.getPreviousValue());
+        assertEquals("/", state.getCurrentOperation());
+    }
+
+    @Test
+    void testRoundTripThroughCalculationRequest() {
+        KeypadState state = null;
+        for (String button : new String[] {"1", ".", "2", "+", "3", "*"}) {
+            state = engine.handleButtonClick(state, button);
+        }
+        CalculationRequest request = state.toRequest();
+
+        assertEquals("3", request.getDisplayValue());
+        assertEquals("4.2", request.getPreviousValue());
+        assertEquals("*", request.getCurrentOperation());
+        assertTrue(request.isShouldResetDisplay());
+        assertState(request, KeypadState.from(request), "from");
+    }
+
+    // 以前の文字列ベースの実装と、ボタンごとの状態とエラーが一致すること。
+    // オフヒープのストアとトークンに保存して読み込み直した場合も同じになること
+    @Test
+    void testMatchesStringImplementation() {
+        OffHeapKeypadStateStore store = new OffHeapKeypadStateStore(16, Duration.ofMinutes(30));
+        KeypadStateCodec codec = new KeypadStateCodec("test-secret");
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            KeypadState state = new KeypadState();
+            String key = "seed-" + seed;
+            String token = null;
+            CalculationRequest expected = new CalculationRequest();
+
+            for (int i = 0; i < 200; i++) {
+                // x² や % を繰り返すと指数が極端に大きく（小さく）なり、加算が遅くなるため、その前にクリアする
+                String button = isHuge(expected.getDisplayValue()) || isHuge(expected.getPreviousValue())
+                    ? "C" : BUTTONS[random.nextInt(BUTTONS.length)];
+                String expectedError = null;
+                try {
+                    expected = legacyHandleButtonClick(expected, button);
+                } catch (RuntimeException e) {
+                    expectedError = e.getMessage();
+                }
+
+                String stateError = null;
+                try {
+                    engine.press(state, button);
+                } catch (RuntimeException e) {
+                    stateError = e.getMessage();
+                }
+                String storeError = null;
+                KeypadState stored = store.load(key, 0);
+                try {
+                    engine.handleButtonClick(stored, button);
+                } catch (RuntimeException e) {
+                    storeError = e.getMessage();
+                }
+                store.save(key, stored, 0);
+                String tokenError = null;
+                KeypadState decoded = codec.decode(token);
+                try {
+                    engine.handleButtonClick(decoded, button);
+                } catch (RuntimeException e) {
+                    tokenError = e.getMessage();
+                }
+                token = codec.encode(decoded);
+
+                String context = "seed " + seed + ", step " + i + ", button " + button;
+                assertEquals(expectedError, stateError, context);
+                assertEquals(expectedError, storeError, context);
+                assertEquals(expectedError, tokenError, context);
+                assertState(expected, state, context);
+                assertState(expected, store.load(key, 0), context);
+                assertState(expected, codec.decode(token), context);
+            }
+        }
+    }
+
+    @Test
+    void testDigitInputDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        KeypadState state = new KeypadState();
+        String[] buttons = {"1", "2", ".", "3", "±", "CE", "4", "5", "C"};
+        for (int i = 0; i < 10_000; i++) {
+            engine.press(state, buttons[i % buttons.length]);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            engine.press(state, buttons[i % buttons.length]);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // 1回でも割り当てがあれば数MBになる
+        assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    // セッションに保存した状態を読み込んで操作し、保存し直す（/button-ajax と同じ流れ）。
+    // 状態は作り直さずに使い回すため、数字入力では割り当てが発生しない
+    @Test
+    void testButtonClickThroughSessionStoreDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        SessionKeypadStateStore store = new SessionKeypadStateStore();
+        MockHttpSession session = new MockHttpSession();
+        String[] buttons = {"1", "2", ".", "3", "±", "CE", "4", "5", "C"};
+        for (int i = 0; i < 10_000; i++) {
+            store.save(session, engine.handleButtonClick(store.load(session), buttons[i % buttons.length]));
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            KeypadState state = store.load(session);
+            engine.handleButtonClick(state, buttons[i % buttons.length]);
+            store.save(session, state);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+        assertSame(store.load(session), store.load(session));
+    }
+
+    private static boolean isHuge(String value) {
+        try {
+            return Math.abs(new BigDecimal(value).scale()) > 40;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void assertState(CalculationRequest expected, KeypadState actual, String context) {
+        assertEquals(expected.getDisplayValue(), actual.getDisplayValue(), context);
+        assertEquals(expected.getPreviousValue(), actual.getPreviousValue(), context);
+        assertEquals(expected.getCurrentOperation(), actual.getCurrentOperation(), context);
+        assertEquals(expected.isShouldResetDisplay(), actual.isShouldResetDisplay(), context);
+    }
+
+    // KeypadEngine 導入前の実装（表示値を毎回文字列から解析する）
+    private CalculationRequest legacyHandleButtonClick(CalculationRequest request, String button) {
+        switch (button) {
+            case "C":
+                return new CalculationRequest();
+            case "CE":
+                request.setDisplayValue("0");
+                return request;
+            case "±":
+                if (!request.getDisplayValue().equals("0")) {
+                    if (request.getDisplayValue().startsWith("-")) {
+                        request.setDisplayValue(request.getDisplayValue().substring(1));
+                    } else {
+                        request.setDisplayValue("-" + request.getDisplayValue());
+                    }
+                }
+                return request;
+            case "%":
+                try {
+                    BigDecimal number = new BigDecimal(request.getDisplayValue());
+                    request.setDisplayValue(calculatorService.calculatePercentage(number).toString());
+                } catch (Exception e) {
+                    throw new RuntimeException("パーセント計算エラー: " + e.getMessage());
+                }
+                return request;
+            case "√":
+                try {
+                    BigDecimal number = new BigDecimal(request.getDisplayValue());
+                    request.setDisplayValue(calculatorService.calculateSquareRoot(number).toString());
+                } catch (Exception e) {
+                    throw new RuntimeException("平方根計算エラー: " + e.getMessage());
+                }
+                return request;
+            case "x²":
+                try {
+                    BigDecimal number = new BigDecimal(request.getDisplayValue());
+                    request.setDisplayValue(calculatorService.calculatePower(number, new BigDecimal("2")).toString());
+                } catch (Exception e) {
+                    throw new RuntimeException("二乗計算エラー: " + e.getMessage());
+                }
+                return request;
+            case "=":
+                if (!request.getPreviousValue().isEmpty() && !request.getCurrentOperation().isEmpty()) {
+                    try {
+                        BigDecimal result = calculatorService.calculate(new BigDecimal(request.getPreviousValue()),
+                            new BigDecimal(request.getDisplayValue()), request.getCurrentOperation());
+                        request.setDisplayValue(result.toString());
+                        request.setPreviousValue("");
+                        request.setCurrentOperation("");
+                        request.setShouldResetDisplay(true);
+                    } catch (Exception e) {
+                        throw new RuntimeException("計算エラー: " + e.getMessage());
+                    }
+                }
+                return request;
+            case "+":
+            case "-":
+            case "*":
+            case "/":
+                if (!request.getPreviousValue().isEmpty() && !request.getCurrentOperation().isEmpty()) {
+                    try {
+                        BigDecimal result = calculatorService.calculate(new BigDecimal(request.getPreviousValue()),
+                            new BigDecimal(request.getDisplayValue()), request.getCurrentOperation());
+                        request.setPreviousValue(result.toString());
+                        request.setCurrentOperation(button);
+                        request.setShouldResetDisplay(true);
+                    } catch (Exception e) {
+                        throw new RuntimeException("計算エラー: " + e.getMessage());
+                    }
+                } else {
+                    request.setPreviousValue(request.getDisplayValue());
+                    request.setCurrentOperation(button);
+                    request.setShouldResetDisplay(true);
+                }
+                return request;
+            default:
+                if (request.isShouldResetDisplay() || request.getDisplayValue().equals("0")) {
+                    request.setDisplayValue(button);
+                    request.setShouldResetDisplay(false);
+                } else if (request.getDisplayValue().length() < 15) {
+                    request.setDisplayValue(request.getDisplayValue() + button);
+                }
+                return request;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.calculator.keypad;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeypadEventLogTest {
+
+    private KeypadEventLog eventLog;
+
+    @BeforeEach
+    void setUp() {
+        eventLog = new KeypadEventLog(8);
+    }
+
+    @Test
+    void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, eventLog.capacity());
+        assertEquals(1024, new KeypadEventLog(1000).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new KeypadEventLog(0));
+    }
+
+    @Test
+    void testRecentReturnsLatestEventsInOrder() {
+        for (int i = 0; i < 5; i++) {
+            eventLog.record("button", String.valueOf(i), "0", String.valueOf(i), null, 1000);
+        }
+
+        List<KeypadEvent> events = eventLog.recent(3);
+
+        assertEquals(3, events.size());
+        assertEquals("2", events.get(0).button());
+        assertEquals("4", events.get(2).button());
+        assertEquals(4, events.get(2).sequence());
+        assertTrue(eventLog.recent(0).isEmpty());
+    }
+
+    @Test
+    void testOldEventsAreOverwritten() {
+        for (int i = 0; i < 20; i++) {
+            eventLog.record("button-ajax", String.valueOf(i), "0", "0", i == 19 ? "エラー" : null, 0);
+        }
+
+        List<KeypadEvent> events = eventLog.recent(100);
+
+        assertEquals(8, events.size());
+        assertEquals("12", events.get(0).button());
+        assertEquals("エラー", events.get(7).error());
+        assertEquals(20L, eventLog.getStatistics().get("recorded"));
+    }
+
+    @Test
+    void testDrainCountsOverwrittenEvents() {
+        for (int i = 0; i < 20; i++) {
+            eventLog.record("button", "1", "0", "1", null, 0);
+        }
+
+        eventLog.drain();
+        eventLog.drain();
+
+        assertEquals(12, eventLog.getDropped());
+    }
+
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        KeypadEventLog large = new KeypadEventLog(1 << 16);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String source = "thread-" + t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    large.record(source, "1", "0", "1", null, 0);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<KeypadEvent> events = large.recent(1 << 16);
+        assertEquals(8000, events.size());
+        Set<Long> sequences = new HashSet<>();
+        events.forEach(event -> sequences.add(event.sequence()));
+        assertEquals(8000, sequences.size());
+    }
+}
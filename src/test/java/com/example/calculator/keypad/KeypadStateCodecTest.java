@@ -0,0 +1,72 @@
+package com.example.calculator.keypad;
+
+import com.example.calculator.model.CalculationRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeypadStateCodecTest {
+
+    private KeypadStateCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new KeypadStateCodec("test-secret");
+    }
+
+    @Test
+    void testRoundTrip() {
+        CalculationRequest request = new CalculationRequest();
+        request.setDisplayValue("-123.456");
+        request.setPreviousValue("0.3333333333");
+        request.setCurrentOperation("/");
+        request.setShouldResetDisplay(true);
+
+        KeypadState decoded = codec.decode(codec.encode(KeypadState.from(request)));
+
+        assertEquals("-123.456", decoded.getDisplayValue());
+        assertEquals("0.3333333333", decoded.getPreviousValue());
+        assertEquals("/", decoded.getCurrentOperation());
+        assertTrue(decoded.isShouldResetDisplay());
+    }
+
+    @Test
+    void testEmptyTokenIsInitialState() {
+        KeypadState decoded = codec.decode(null);
+
+        assertEquals("0", decoded.getDisplayValue());
+        assertEquals("", decoded.getPreviousValue());
+        assertEquals("", decoded.getCurrentOperation());
+        assertFalse(decoded.isShouldResetDisplay());
+    }
+
+    @Test
+    void testTokenIsCompact() {
+        CalculationRequest request = new CalculationRequest();
+        request.setDisplayValue("123456789012345");
+
+        assertTrue(codec.encode(KeypadState.from(request)).length() <= 48);
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        CalculationRequest request = new CalculationRequest();
+        request.setDisplayValue("5");
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(KeypadState.from(request)));
+        bytes[4] = '9';
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(tampered));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("not-a-token!"));
+    }
+
+    @Test
+    void testTokenFromOtherKeyIsRejected() {
+        String token = new KeypadStateCodec("other-secret").encode(new KeypadState());
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(token));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.calculator.keypad;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class KeypadWebSocketHandlerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private KeypadWebSocketHandler keypadWebSocketHandler;
+
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        session = new StandardWebSocketClient()
+            .execute(new TextWebSocketHandler() {
+                @Override
+                protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                    received.add(message.getPayload());
+                }
+            }, "ws://localhost:" + port + "/ws/keypad")
+            .get(5, TimeUnit.SECONDS);
+        assertEquals("=0", next());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (session.isOpen()) {
+            session.close();
+        }
+    }
+
+    @Test
+    void testKeysUpdateConnectionState() throws Exception {
+        session.sendMessage(new TextMessage("1"));
+        assertEquals("=1", next());
+
+        session.sendMessage(new TextMessage("2 + 3"));
+        assertEquals("=3", next());
+
+        session.sendMessage(new TextMessage("="));
+        assertEquals("=15", next());
+    }
+
+    @Test
+    void testErrorStopsFrame() throws Exception {
+        session.sendMessage(new TextMessage("1 / 0 = 5"));
+
+        assertEquals("!0\t計算エラー: ゼロで割ることはできません", next());
+    }
+
+    @Test
+    void testConnectionsAreCounted() throws Exception {
+        assertTrue(keypadWebSocketHandler.getConnections() >= 1);
+
+        int before = keypadWebSocketHandler.getConnections();
+        session.close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (keypadWebSocketHandler.getConnections() != before - 1) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private String next() throws InterruptedException {
+        String message = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message, "応答がありませんでした");
+        return message;
+    }
+}
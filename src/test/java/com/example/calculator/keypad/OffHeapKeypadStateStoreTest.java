@@ -0,0 +1,149 @@
+package com.example.calculator.keypad;
+
+import com.example.calculator.model.CalculationRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapKeypadStateStoreTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private OffHeapKeypadStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapKeypadStateStore(4, Duration.ofMinutes(30));
+    }
+
+    private static KeypadState state(String display, String previous, String operation, boolean reset) {
+        CalculationRequest request = new CalculationRequest();
+        request.setDisplayValue(display);
+        request.setPreviousValue(previous);
+        request.setCurrentOperation(operation);
+        request.setShouldResetDisplay(reset);
+        return KeypadState.from(request);
+    }
+
+    @Test
+    void testRoundTrip() {
+        store.save("a", state("-12.5", "3", "*", true), NOW);
+
+        KeypadState loaded = store.load("a", NOW);
+
+        assertEquals("-12.5", loaded.getDisplayValue());
+        assertEquals("3", loaded.getPreviousValue());
+        assertEquals("*", loaded.getCurrentOperation());
+        assertTrue(loaded.isShouldResetDisplay());
+        assertEquals(1, store.getUsedSlots());
+    }
+
+    // 計算結果は仮数とスケールのまま保存し、読み込み後も文字列から解析し直さない
+    @Test
+    void testCalculatedValueKeepsNumericForm() {
+        KeypadState state = new KeypadState();
+        state.setDisplayValue(new BigDecimal("-0.3333333333"));
+        state.previous.setValue(new BigDecimal("12.50"));
+        state.operation = KeypadKey.DIVIDE;
+        store.save("a", state, NOW);
+
+        KeypadState loaded = store.load("a", NOW);
+
+        assertEquals("-0.3333333333", loaded.getDisplayValue());
+        assertEquals(new BigDecimal("-0.3333333333"), loaded.display.toBigDecimal());
+        assertEquals(new BigDecimal("12.50"), loaded.previous.toBigDecimal());
+        assertEquals("/", loaded.getCurrentOperation());
+
+        // 入力中の値は文字から組み立て直す。仮数がlongに収まらない計算結果は文字列から解析する
+        BigDecimal wide = new BigDecimal("1234567890.1234567890123");
+        state.setDisplayValue(wide);
+        state.previous.set("-1.");
+        store.save("a", state, NOW);
+        loaded = store.load("a", NOW);
+        assertEquals(wide, loaded.display.toBigDecimal());
+        assertEquals(new BigDecimal("-1"), loaded.previous.toBigDecimal());
+        assertEquals("-1.", loaded.getPreviousValue());
+    }
+
+    @Test
+    void testUnknownSessionIsInitialState() {
+        KeypadState loaded = store.load("unknown", NOW);
+
+        assertEquals("0", loaded.getDisplayValue());
+        assertEquals("", loaded.getCurrentOperation());
+    }
+
+    @Test
+    void testLongValuesGoToOverflow() {
+        String longValue = "1.4142135623730950488016887242096980785696718753769480731766797";
+        store.save("a", state(longValue, "", "", false), NOW);
+
+        assertEquals(longValue, store.load("a", NOW).getDisplayValue());
+        assertEquals(1, store.getOverflowEntries());
+
+        store.save("a", state("7", "", "", false), NOW);
+        assertEquals("7", store.load("a", NOW).getDisplayValue());
+        assertEquals(0, store.getOverflowEntries());
+    }
+
+    @Test
+    void testFullStoreFallsBackToOverflow() {
+        for (int i = 0; i < 5; i++) {
+            store.save("s" + i, state(String.valueOf(i), "", "", false), NOW);
+        }
+
+        assertEquals(4, store.getUsedSlots());
+        assertEquals(1, store.getOverflowEntries());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(String.valueOf(i), store.load("s" + i, NOW).getDisplayValue());
+        }
+    }
+
+    @Test
+    void testIdleSessionsAreEvicted() {
+        store.save("old", state("1", "", "", false), NOW);
+        store.save("new", state("2", "", "", false), NOW + Duration.ofMinutes(20).toMillis());
+
+        store.evictExpired(NOW + Duration.ofMinutes(40).toMillis());
+
+        assertEquals(1, store.getUsedSlots());
+        assertEquals(1, store.getEvictions());
+        assertEquals("0", store.load("old", NOW + Duration.ofMinutes(40).toMillis()).getDisplayValue());
+        assertEquals("2", store.load("new", NOW + Duration.ofMinutes(40).toMillis()).getDisplayValue());
+    }
+
+    @Test
+    void testConcurrentSessions() throws Exception {
+        OffHeapKeypadStateStore large = new OffHeapKeypadStateStore(1000, Duration.ofMinutes(30));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        String key = "t" + thread + "-" + i;
+                        large.save(key, state(String.valueOf(i), "", "+", false), NOW);
+                        assertEquals(String.valueOf(i), large.load(key, NOW).getDisplayValue());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(800, large.getUsedSlots());
+    }
+}
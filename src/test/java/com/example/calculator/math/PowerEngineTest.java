@@ -0,0 +1,84 @@
+package com.example.calculator.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PowerEngineTest {
+
+    private static final MathContext DECIMAL50 = new MathContext(50, RoundingMode.HALF_EVEN);
+
+    private static void assertWithinOneUlp(String expected, BigDecimal actual) {
+        BigDecimal expectedValue = new BigDecimal(expected);
+        BigDecimal difference = expectedValue.subtract(actual).abs();
+        assertTrue(difference.compareTo(expectedValue.ulp()) <= 0, "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    void testExactIntegerPowers() {
+        assertEquals(new BigDecimal("1024"), PowerEngine.pow(new BigDecimal("2"), new BigDecimal("10"), MathContext.UNLIMITED));
+        assertEquals(new BigDecimal("-8"), PowerEngine.pow(new BigDecimal("-2"), new BigDecimal("3"), MathContext.UNLIMITED));
+        assertEquals(new BigDecimal("0.25"), PowerEngine.pow(new BigDecimal("2"), new BigDecimal("-2"), MathContext.UNLIMITED));
+        assertEquals(BigDecimal.ONE, PowerEngine.pow(BigDecimal.ZERO, BigDecimal.ZERO, MathContext.UNLIMITED));
+        assertEquals(new BigDecimal("1.000001"), PowerEngine.pow(new BigDecimal("1.000001"), new BigDecimal("1.00"), MathContext.UNLIMITED));
+    }
+
+    @Test
+    void testNonTerminatingNegativePowerNeedsPrecision() {
+        assertThrows(ArithmeticException.class,
+            () -> PowerEngine.pow(new BigDecimal("3"), new BigDecimal("-1"), MathContext.UNLIMITED));
+        assertEquals(new BigDecimal("0.3333333333"),
+            PowerEngine.pow(new BigDecimal("3"), new BigDecimal("-1"), new MathContext(10)));
+    }
+
+    @Test
+    void testLargeIntegerPowerWithPrecision() {
+        BigDecimal base = new BigDecimal("1.0001");
+        BigDecimal result = PowerEngine.pow(base, new BigDecimal("10000"), DECIMAL50);
+        assertWithinOneUlp("2.7181459268252248640376646749131465361138226492207", result);
+        assertEquals(base.pow(10000).round(DECIMAL50), result);
+    }
+
+    @Test
+    void testResultSizeGuard() {
+        assertThrows(ArithmeticException.class,
+            () -> PowerEngine.pow(new BigDecimal("12345.678"), new BigDecimal("1000000"), MathContext.UNLIMITED));
+        assertThrows(ArithmeticException.class,
+            () -> PowerEngine.pow(new BigDecimal("1E+100"), new BigDecimal("100000000"), DECIMAL50));
+        assertThrows(ArithmeticException.class,
+            () -> PowerEngine.pow(new BigDecimal("2"), new BigDecimal("1E+20"), DECIMAL50));
+    }
+
+    @Test
+    void testFractionalPowers() {
+        assertWithinOneUlp("2.828427124746190097603377448419396", PowerEngine.pow(new BigDecimal("2"), new BigDecimal("1.5"), MathContext.DECIMAL128));
+        assertWithinOneUlp("1.840205135548584653147212456021945", PowerEngine.pow(new BigDecimal("1.05"), new BigDecimal("12.5"), MathContext.DECIMAL128));
+        assertWithinOneUlp("0.003162277660168379331998893544432719", PowerEngine.pow(new BigDecimal("10"), new BigDecimal("-2.5"), MathContext.DECIMAL128));
+        assertWithinOneUlp("44.68925627034345828987402319976891", PowerEngine.pow(new BigDecimal("123.456"), new BigDecimal("0.789"), MathContext.DECIMAL128));
+        assertWithinOneUlp("0.1015315495445294403262136728469102", PowerEngine.pow(new BigDecimal("0.5"), new BigDecimal("3.3"), MathContext.DECIMAL128));
+        assertWithinOneUlp("0.6147881529512643652163393055301878", PowerEngine.pow(new BigDecimal("7"), new BigDecimal("-0.25"), MathContext.DECIMAL128));
+    }
+
+    @Test
+    void testFractionalPowerErrors() {
+        assertThrows(ArithmeticException.class,
+            () -> PowerEngine.pow(new BigDecimal("-2"), new BigDecimal("0.5"), MathContext.DECIMAL128));
+        assertThrows(ArithmeticException.class,
+            () -> PowerEngine.pow(BigDecimal.ZERO, new BigDecimal("-0.5"), MathContext.DECIMAL128));
+        assertThrows(IllegalArgumentException.class,
+            () -> PowerEngine.pow(new BigDecimal("2"), new BigDecimal("0.5"), MathContext.UNLIMITED));
+    }
+
+    @Test
+    void testLnAndExp() {
+        assertWithinOneUlp("0.69314718055994530941723212145817656807550013436026", PowerEngine.ln(new BigDecimal("2"), DECIMAL50));
+        assertWithinOneUlp("-690.77552789821370520539743640530926228033044658863", PowerEngine.ln(new BigDecimal("1E-300"), DECIMAL50));
+        assertWithinOneUlp("9.4210613941918352971219675292257473793092758865053", PowerEngine.ln(new BigDecimal("12345.6789"), DECIMAL50));
+        assertWithinOneUlp("0.030197383422318500739786292363619845071660532247657", PowerEngine.exp(new BigDecimal("-3.5"), DECIMAL50));
+        assertWithinOneUlp("1.3022997366991783935335422386192166013495422384341E+304", PowerEngine.exp(new BigDecimal("700.25"), DECIMAL50));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.calculator.math;
+
+import com.example.calculator.service.CalculatorService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScaledDecimalTest {
+
+    @Test
+    void testAddAlignsScales() {
+        // 12.5 + 1.25 = 13.75
+        assertEquals(1_375, ScaledDecimal.add(125, 1, 125, 2));
+        // 1.25 - 12.5 = -11.25
+        assertEquals(-1_125, ScaledDecimal.subtract(125, 2, 125, 1));
+        assertEquals(250, ScaledDecimal.add(125, 1, 125, 1));
+    }
+
+    @Test
+    void testOverflowIsDetected() {
+        assertThrows(ArithmeticException.class, () -> ScaledDecimal.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> ScaledDecimal.add(Long.MAX_VALUE, 0, 1, 0));
+        assertThrows(ArithmeticException.class, () -> ScaledDecimal.add(1, 0, 1, 19));
+    }
+
+    @Test
+    void testFits() {
+        assertTrue(ScaledDecimal.fits(new BigDecimal("999999999.999999999")));
+        assertFalse(ScaledDecimal.fits(new BigDecimal("999999999.9999999999")));
+        assertFalse(ScaledDecimal.fits(new BigDecimal("1E+3")));
+    }
+
+    @Test
+    void testServiceResultsMatchBigDecimal() {
+        CalculatorService calculatorService = new CalculatorService();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal first = randomOperand(random);
+            BigDecimal second = randomOperand(random);
+            assertEquals(first.add(second), calculatorService.calculate(first, second, "+"));
+            assertEquals(first.subtract(second), calculatorService.calculate(first, second, "-"));
+            assertEquals(first.multiply(second), calculatorService.calculate(first, second, "*"));
+        }
+    }
+
+    // CalculationRequestの範囲 (±999999999.9999999999) の値と、longに収まらない値を混ぜる
+    private static BigDecimal randomOperand(Random random) {
+        int scale = random.nextInt(11);
+        long unscaled = switch (random.nextInt(3)) {
+            case 0 -> random.nextInt(100_000) - 50_000;
+            case 1 -> random.nextLong() % 10_000_000_000_000_000L;
+            default -> random.nextLong();
+        };
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+}
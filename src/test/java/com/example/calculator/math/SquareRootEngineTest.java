@@ -0,0 +1,71 @@
+package com.example.calculator.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SquareRootEngineTest {
+
+    @Test
+    void testExactSquares() {
+        assertEquals(new BigDecimal("4"), SquareRootEngine.sqrt(new BigDecimal("16"), 10));
+        assertEquals(new BigDecimal("100"), SquareRootEngine.sqrt(new BigDecimal("10000"), 50));
+        assertEquals(new BigDecimal("0.5"), SquareRootEngine.sqrt(new BigDecimal("0.25"), 50));
+        assertEquals(new BigDecimal("12345678901234567890"),
+            SquareRootEngine.sqrt(new BigDecimal("152415787532388367501905199875019052100"), 60));
+    }
+
+    @Test
+    void testHighPrecision() {
+        BigDecimal result = SquareRootEngine.sqrt(new BigDecimal("2"), 100);
+        assertEquals(100, result.precision());
+        assertEquals(new BigDecimal("2").sqrt(new MathContext(100, RoundingMode.HALF_UP)), result);
+    }
+
+    @Test
+    void testMatchesJdkAcrossPrecisions() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextLong() & Long.MAX_VALUE, random.nextInt(40) - 20);
+            if (value.signum() == 0) {
+                continue;
+            }
+            int precision = 1 + random.nextInt(60);
+            RoundingMode mode = RoundingMode.values()[random.nextInt(RoundingMode.UNNECESSARY.ordinal())];
+            MathContext mathContext = new MathContext(precision, mode);
+            BigDecimal expected = value.sqrt(mathContext);
+            BigDecimal actual = SquareRootEngine.sqrt(value, mathContext);
+            assertEquals(0, expected.compareTo(actual), value + " @" + mathContext);
+        }
+    }
+
+    @Test
+    void testHalfwayRounding() {
+        // √2.25 = 1.5 はちょうど中間
+        assertEquals(new BigDecimal("2"), SquareRootEngine.sqrt(new BigDecimal("2.25"), new MathContext(1, RoundingMode.HALF_UP)));
+        assertEquals(new BigDecimal("1"), SquareRootEngine.sqrt(new BigDecimal("2.25"), new MathContext(1, RoundingMode.HALF_DOWN)));
+        assertEquals(new BigDecimal("2"), SquareRootEngine.sqrt(new BigDecimal("2.25"), new MathContext(1, RoundingMode.HALF_EVEN)));
+    }
+
+    @Test
+    void testValuesBeyondDoubleRange() {
+        BigDecimal huge = new BigDecimal("1E+1000");
+        assertEquals(new BigDecimal("1E+500").setScale(0), SquareRootEngine.sqrt(huge, 20));
+
+        BigDecimal tiny = new BigDecimal("2E-1001");
+        BigDecimal expected = tiny.sqrt(new MathContext(30, RoundingMode.HALF_UP));
+        assertEquals(0, expected.compareTo(SquareRootEngine.sqrt(tiny, 30)));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(ArithmeticException.class, () -> SquareRootEngine.sqrt(new BigDecimal("-1"), 10));
+        assertThrows(IllegalArgumentException.class, () -> SquareRootEngine.sqrt(BigDecimal.ONE, MathContext.UNLIMITED));
+        assertEquals(BigDecimal.ZERO, SquareRootEngine.sqrt(BigDecimal.ZERO, 10));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.calculator.matrix;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrixEngineTest {
+
+    private ForkJoinPool pool;
+    private MatrixEngine engine;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        engine = new MatrixEngine(pool);
+        random = new Random(42);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private double[][] randomArray(int rows, int cols) {
+        double[][] values = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                values[i][j] = random.nextDouble() * 2 - 1;
+            }
+        }
+        return values;
+    }
+
+    private static void assertArrayClose(double[][] expected, double[][] actual, double tolerance) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i], tolerance, "row " + i);
+        }
+    }
+
+    // タイルの境界（64）をまたぐ大きさで、素朴な3重ループと一致すること
+    @Test
+    void testMultiplyMatchesNaiveLoop() {
+        int[][] shapes = {{1, 1, 1}, {3, 5, 2}, {63, 64, 65}, {130, 70, 129}};
+        for (int[] shape : shapes) {
+            double[][] a = randomArray(shape[0], shape[1]);
+            double[][] b = randomArray(shape[1], shape[2]);
+            double[][] expected = new double[shape[0]][shape[2]];
+            for (int i = 0; i < shape[0]; i++) {
+                for (int k = 0; k < shape[1]; k++) {
+                    for (int j = 0; j < shape[2]; j++) {
+                        expected[i][j] += a[i][k] * b[k][j];
+                    }
+                }
+            }
+
+            Matrix c = engine.multiply(Matrix.of(a), Matrix.of(b));
+
+            assertEquals(shape[0], c.rows());
+            assertEquals(shape[2], c.cols());
+            assertArrayClose(expected, c.toArray(), 1e-12);
+        }
+    }
+
+    @Test
+    void testAddAndTranspose() {
+        double[][] a = randomArray(70, 130);
+        double[][] b = randomArray(70, 130);
+
+        double[][] sum = engine.add(Matrix.of(a), Matrix.of(b)).toArray();
+        Matrix transposed = engine.transpose(Matrix.of(a));
+
+        assertEquals(130, transposed.rows());
+        assertEquals(70, transposed.cols());
+        for (int i = 0; i < 70; i++) {
+            for (int j = 0; j < 130; j++) {
+                assertEquals(a[i][j] + b[i][j], sum[i][j]);
+                assertEquals(a[i][j], transposed.get(j, i));
+            }
+        }
+        // はみ出し部分が0のままなので、転置した行列との積も正しい
+        Matrix product = engine.multiply(transposed, Matrix.of(a));
+        assertEquals(130, product.rows());
+        assertEquals(130, product.cols());
+    }
+
+    @Test
+    void testMismatchedShapes() {
+        Matrix a = new Matrix(2, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.add(a, new Matrix(3, 2)));
+        assertThrows(IllegalArgumentException.class, () -> engine.multiply(a, new Matrix(2, 3)));
+        assertThrows(IllegalArgumentException.class, () -> engine.decompose(a));
+        assertThrows(IllegalArgumentException.class, () -> engine.solve(new Matrix(3, 3), a));
+        assertThrows(IllegalArgumentException.class, () -> Matrix.of(new double[][] {{1, 2}, {3}}));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.get(2, 0));
+    }
+
+    @Test
+    void testDeterminant() {
+        assertEquals(-2.0, engine.decompose(Matrix.of(new double[][] {{1, 2}, {3, 4}})).determinant(), 1e-12);
+        // 行の入れ替えが必要な場合も符号が正しい
+        LuDecomposition permutation = engine.decompose(Matrix.of(new double[][] {{0, 1, 0}, {0, 0, 1}, {1, 0, 0}}));
+        assertEquals(1.0, permutation.determinant());
+        assertEquals(1, permutation.determinantSign());
+
+        LuDecomposition singular = engine.decompose(Matrix.of(new double[][] {{1, 2, 3}, {2, 4, 6}, {1, 0, 1}}));
+        assertTrue(singular.isSingular());
+        assertEquals(0.0, singular.determinant());
+        assertThrows(ArithmeticException.class, () -> singular.solve(new double[] {1, 2, 3}, 1));
+    }
+
+    // 途中の積がdoubleの範囲を超えても、最終結果が範囲内なら求められる
+    @Test
+    void testDeterminantBeyondDoubleRange() {
+        int n = 200;
+        Matrix large = new Matrix(n, n);
+        Matrix balanced = new Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            large.set(i, i, i == 0 ? -1e10 : 1e10);
+            balanced.set(i, i, i < n / 2 ? 1e10 : 1e-10);
+        }
+
+        LuDecomposition lu = engine.decompose(large);
+        assertEquals(Double.NEGATIVE_INFINITY, lu.determinant());
+        assertEquals(-1, lu.determinantSign());
+        assertEquals(n * Math.log(1e10), lu.logAbsDeterminant(), 1e-9);
+
+        assertEquals(1.0, engine.decompose(balanced).determinant(), 1e-9);
+    }
+
+    // 複数のブロック（64列）にまたがる大きさで、残差が小さいこと
+    @Test
+    void testSolveResidual() {
+        int n = 300;
+        double[][] a = randomArray(n, n);
+        for (int columns : new int[] {1, 130}) {
+            double[][] b = randomArray(n, columns);
+
+            double[][] x = engine.solve(Matrix.of(a), Matrix.of(b)).toArray();
+
+            double[][] residual = engine.multiply(Matrix.of(a), Matrix.of(x)).toArray();
+            assertArrayClose(b, residual, 1e-9);
+        }
+    }
+
+    @Test
+    void testSolveRequiresPivoting() {
+        double[][] x = engine.solve(Matrix.of(new double[][] {{0, 2}, {3, 1}}), Matrix.of(new double[][] {{4}, {5}}))
+            .toArray();
+
+        assertArrayClose(new double[][] {{1}, {2}}, x, 1e-15);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.calculator.matrix;
+
+import com.example.calculator.service.CalculatorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrixServiceTest {
+
+    private MatrixService matrixService;
+
+    @BeforeEach
+    void setUp() {
+        matrixService = new MatrixService();
+        ReflectionTestUtils.setField(matrixService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(matrixService, "maxSize", 200);
+        ReflectionTestUtils.setField(matrixService, "maxDecimalSize", 20);
+        ReflectionTestUtils.setField(matrixService, "maxDecimalScale", 18);
+        ReflectionTestUtils.setField(matrixService, "maxDecimalPrecision", 36);
+        ReflectionTestUtils.setField(matrixService, "parallelism", 4);
+        matrixService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        matrixService.shutdown();
+    }
+
+    private MatrixResult compute(String json, MatrixOperation operation, MatrixMode mode) throws IOException {
+        return matrixService.compute(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), operation, mode);
+    }
+
+    private static BigDecimal[][] decimals(String... rows) {
+        BigDecimal[][] values = new BigDecimal[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            String[] columns = rows[i].split(" ");
+            values[i] = new BigDecimal[columns.length];
+            for (int j = 0; j < columns.length; j++) {
+                values[i][j] = new BigDecimal(columns[j]);
+            }
+        }
+        return values;
+    }
+
+    @Test
+    void testDoubleOperations() throws IOException {
+        String json = "{\"a\": [[1, 2], [3, 4]], \"b\": [[5, 6], [7, 8]]}";
+
+        assertArrayEquals(new double[][] {{19, 22}, {43, 50}},
+            (double[][]) compute(json, MatrixOperation.MULTIPLY, MatrixMode.DOUBLE).result());
+        assertArrayEquals(new double[][] {{6, 8}, {10, 12}},
+            (double[][]) compute(json, MatrixOperation.ADD, MatrixMode.DOUBLE).result());
+        assertArrayEquals(new double[][] {{1, 3}, {2, 4}},
+            (double[][]) compute(json, MatrixOperation.TRANSPOSE, MatrixMode.DOUBLE).result());
+
+        MatrixResult determinant = compute(json, MatrixOperation.DETERMINANT, MatrixMode.DOUBLE);
+        assertEquals(-2.0, (Double) determinant.result(), 1e-12);
+        assertEquals(-1, determinant.determinantSign());
+        assertEquals(Math.log(2), determinant.logAbsDeterminant(), 1e-12);
+    }
+
+    @Test
+    void testDecimalOperationsAreExact() throws IOException {
+        String json = "{\"b\": [[0.1, 0.2], [0.3, 0.4]], \"a\": [[0.1, 0.2], [0.3, 0.4]]}";
+
+        BigDecimal[][] sum = (BigDecimal[][]) compute(json, MatrixOperation.ADD, MatrixMode.DECIMAL).result();
+        BigDecimal[][] product = (BigDecimal[][]) compute(json, MatrixOperation.MULTIPLY, MatrixMode.DECIMAL).result();
+
+        assertArrayEquals(decimals("0.2 0.4", "0.6 0.8"), sum);
+        assertArrayEquals(decimals("0.07 0.10", "0.15 0.22"), product);
+        assertEquals(new BigDecimal("-0.02"),
+            compute(json, MatrixOperation.DETERMINANT, MatrixMode.DECIMAL).result());
+        assertNull(compute(json, MatrixOperation.DETERMINANT, MatrixMode.DECIMAL).logAbsDeterminant());
+    }
+
+    // 解は正確な分数を CalculatorService の除算と同じ規則で丸めた値になる
+    @Test
+    void testDecimalSolveUsesDivisionRounding() {
+        BigDecimal[][] x = (BigDecimal[][]) matrixService.compute(MatrixOperation.SOLVE,
+            decimals("2 1", "1 3"), decimals("3", "5"), 0).result();
+        assertArrayEquals(decimals("0.8000000000", "1.4000000000"), x);
+
+        BigDecimal[][] third = (BigDecimal[][]) matrixService.compute(MatrixOperation.SOLVE,
+            decimals("0 3", "3 0"), decimals("1", "2"), 0).result();
+        CalculatorService calculatorService = new CalculatorService();
+        assertEquals(calculatorService.calculate(BigDecimal.TWO, new BigDecimal("3"), "/"), third[0][0]);
+        assertEquals(calculatorService.calculate(BigDecimal.ONE, new BigDecimal("3"), "/"), third[1][0]);
+
+        assertThrows(ArithmeticException.class, () -> matrixService.compute(MatrixOperation.SOLVE,
+            decimals("1 2", "2 4"), decimals("1", "2"), 0));
+        assertEquals(BigDecimal.ZERO, matrixService.compute(MatrixOperation.DETERMINANT,
+            decimals("1 2", "2 4"), null, 0).result());
+    }
+
+    // 整数の行列では、decimal モードの行列式と解が double モードの結果と一致すること
+    @Test
+    void testDecimalMatchesDouble() {
+        Random random = new Random(42);
+        int n = 12;
+        BigDecimal[][] a = new BigDecimal[n][n];
+        BigDecimal[][] b = new BigDecimal[n][2];
+        double[][] da = new double[n][n];
+        double[][] db = new double[n][2];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int value = random.nextInt(19) - 9;
+                a[i][j] = BigDecimal.valueOf(value);
+                da[i][j] = value;
+            }
+            for (int j = 0; j < 2; j++) {
+                int value = random.nextInt(19) - 9;
+                b[i][j] = new BigDecimal(value).movePointLeft(1);
+                db[i][j] = value / 10.0;
+            }
+        }
+
+        BigDecimal determinant = (BigDecimal) matrixService.compute(MatrixOperation.DETERMINANT, a, null, 0).result();
+        double expected = (Double) matrixService.compute(MatrixOperation.DETERMINANT, Matrix.of(da), null, 0).result();
+        assertEquals(0, determinant.scale());
+        assertEquals(expected, determinant.doubleValue(), Math.abs(expected) * 1e-12);
+
+        BigDecimal[][] x = (BigDecimal[][]) matrixService.compute(MatrixOperation.SOLVE, a, b, 0).result();
+        double[][] dx = (double[][]) matrixService.compute(MatrixOperation.SOLVE, Matrix.of(da), Matrix.of(db), 0)
+            .result();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 2; j++) {
+                assertEquals(dx[i][j], x[i][j].doubleValue(), 1e-9);
+                assertEquals(CalculatorService.DIVISION_SCALE, x[i][j].scale());
+            }
+        }
+    }
+
+    @Test
+    void testInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+            () -> compute("[[1]]", MatrixOperation.TRANSPOSE, MatrixMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": [[1, 2], [3]]}", MatrixOperation.TRANSPOSE, MatrixMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": [[1, \"x\"]]}", MatrixOperation.TRANSPOSE, MatrixMode.DECIMAL));
+        assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": [[1, 2]]}", MatrixOperation.DETERMINANT, MatrixMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": []}", MatrixOperation.TRANSPOSE, MatrixMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": [[1, 2]", MatrixOperation.TRANSPOSE, MatrixMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class, () -> MatrixOperation.of("inverse"));
+
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": [[1]]}", MatrixOperation.MULTIPLY, MatrixMode.DOUBLE));
+        assertEquals("行列 b を指定してください", missing.getMessage());
+
+        String tooLarge = "{\"a\": [[" + "1,".repeat(20) + "1]]}";
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> compute(tooLarge, MatrixOperation.TRANSPOSE, MatrixMode.DECIMAL));
+        assertEquals("行数・列数が上限(20)を超えています", e.getMessage());
+        assertDoesNotThrow(() -> compute(tooLarge, MatrixOperation.TRANSPOSE, MatrixMode.DOUBLE));
+    }
+
+    // 桁数の大きい要素は消去を始める前に拒否する（1つの要素のスケールが全体の整数化の倍率になるため）
+    @Test
+    void testDecimalDigitsAreLimited() {
+        IllegalArgumentException tiny = assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": [[1, 1e-100000], [2, 3]]}", MatrixOperation.DETERMINANT, MatrixMode.DECIMAL));
+        assertEquals("小数点以下の桁数が上限(18)を超えています", tiny.getMessage());
+
+        IllegalArgumentException huge = assertThrows(IllegalArgumentException.class,
+            () -> compute("{\"a\": [[1, 1e100000], [2, 3]]}", MatrixOperation.DETERMINANT, MatrixMode.DECIMAL));
+        assertEquals("有効桁数が上限(36)を超えています", huge.getMessage());
+
+        String precise = "0." + "1".repeat(19);
+        assertThrows(IllegalArgumentException.class, () -> compute("{\"a\": [[" + precise + "]], \"b\": [[1]]}",
+            MatrixOperation.SOLVE, MatrixMode.DECIMAL));
+
+        // 末尾の0は数えない。上限ちょうどの値は計算できる
+        assertDoesNotThrow(() -> compute("{\"a\": [[1.50000000000000000000000, 1e35], [0.000000000000000001, 3]]}",
+            MatrixOperation.DETERMINANT, MatrixMode.DECIMAL));
+        // doubleモードには影響しない
+        assertDoesNotThrow(() -> compute("{\"a\": [[1, 1e-300], [2, 3]]}",
+            MatrixOperation.DETERMINANT, MatrixMode.DOUBLE));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.calculator.service;
+
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.model.CalculationRequest;
+import com.example.calculator.model.CalculationResult;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchCalculationServiceTest {
+
+    private BatchCalculationService batchCalculationService;
+
+    @BeforeEach
+    void setUp() {
+        batchCalculationService = new BatchCalculationService();
+        ReflectionTestUtils.setField(batchCalculationService, "calculatorService", new CalculatorService());
+        ReflectionTestUtils.setField(batchCalculationService, "historyService", new HistoryService());
+        ReflectionTestUtils.setField(batchCalculationService, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(batchCalculationService, "maxBatchSize", 10000);
+        batchCalculationService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchCalculationService.shutdown();
+    }
+
+    @Test
+    void testResultsKeepInputOrder() {
+        List<CalculationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(new CalculationRequest(new BigDecimal(i), new BigDecimal("2"), "*"));
+        }
+
+        List<CalculationResult> results = batchCalculationService.calculateAll(requests);
+
+        assertEquals(1000, results.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(new BigDecimal(i * 2), results.get(i).getResult());
+        }
+    }
+
+    @Test
+    void testErrorsReportedPerItem() {
+        List<CalculationRequest> requests = List.of(
+            new CalculationRequest(new BigDecimal("10"), new BigDecimal("4"), "/"),
+            new CalculationRequest(new BigDecimal("10"), new BigDecimal("0"), "/"),
+            new CalculationRequest(new BigDecimal("10"), new BigDecimal("5"), "invalid"),
+            new CalculationRequest(new BigDecimal("10000000000"), new BigDecimal("1"), "+")
+        );
+
+        List<CalculationResult> results = batchCalculationService.calculateAll(requests);
+
+        assertEquals(new BigDecimal("2.5000000000"), results.get(0).getResult());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("ゼロで割ることはできません", results.get(1).getError());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(2).getError().contains("サポートされていない演算子です"));
+        assertFalse(results.get(3).isSuccess());
+        assertTrue(results.get(3).getError().contains("999999999.9999999999以下"));
+    }
+
+    @Test
+    void testHistorySourceIsGivenByCaller() {
+        List<String> sources = new ArrayList<>();
+        ReflectionTestUtils.setField(batchCalculationService, "historyService", new HistoryService() {
+            @Override
+            public void record(String source, String operation, BigDecimal firstOperand, BigDecimal secondOperand,
+                               BigDecimal result, String error) {
+                sources.add(source);
+            }
+        });
+        CalculationRequest request = new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+");
+
+        batchCalculationService.calculateAll(List.of(request));
+        batchCalculationService.evaluate("stream", 0, request);
+        batchCalculationService.evaluate("job", 0, new CalculationRequest(BigDecimal.ONE, BigDecimal.ZERO, "/"));
+
+        assertEquals(List.of("batch", "stream", "job"), sources);
+    }
+
+    @Test
+    void testBatchSizeLimit() {
+        ReflectionTestUtils.setField(batchCalculationService, "maxBatchSize", 1);
+        List<CalculationRequest> requests = List.of(
+            new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+"),
+            new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+")
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> batchCalculationService.calculateAll(requests));
+    }
+}
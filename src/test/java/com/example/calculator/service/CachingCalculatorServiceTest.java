@@ -0,0 +1,110 @@
+package com.example.calculator.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingCalculatorServiceTest {
+
+    private CachingCalculatorService calculatorService;
+
+    @BeforeEach
+    void setUp() {
+        calculatorService = new CachingCalculatorService(1_000_000, Set.of("/", "*", "percentage", "sqrt", "power"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private long hits(String operation) {
+        Map<String, Object> perOperation = (Map<String, Object>) calculatorService.getStatistics().get("perOperation");
+        return (long) ((Map<String, Object>) perOperation.get(operation)).get("hits");
+    }
+
+    @Test
+    void testDivisionIsCachedByValue() {
+        BigDecimal first = calculatorService.calculate(new BigDecimal("10"), new BigDecimal("4"), "/");
+        BigDecimal second = calculatorService.calculate(new BigDecimal("10.00"), new BigDecimal("4.0"), "/");
+
+        assertEquals(new BigDecimal("2.5000000000"), first);
+        assertSame(first, second);
+        assertEquals(1, hits("/"));
+    }
+
+    @Test
+    void testMultiplicationKeepsScale() {
+        assertEquals(new BigDecimal("6"), calculatorService.calculate(new BigDecimal("2"), new BigDecimal("3"), "*"));
+        assertEquals(new BigDecimal("6.00"), calculatorService.calculate(new BigDecimal("2.0"), new BigDecimal("3.0"), "*"));
+        assertEquals(0, hits("*"));
+    }
+
+    @Test
+    void testPowerKeepsBaseScale() {
+        assertEquals(new BigDecimal("2.25"), calculatorService.calculatePower(new BigDecimal("1.5"), new BigDecimal("2")));
+        assertEquals(new BigDecimal("2.2500"), calculatorService.calculatePower(new BigDecimal("1.50"), new BigDecimal("2.0")));
+        assertEquals(new BigDecimal("2.25"), calculatorService.calculatePower(new BigDecimal("1.5"), new BigDecimal("2.00")));
+        assertEquals(1, hits("power"));
+    }
+
+    @Test
+    void testUnaryFunctionsAreCached() {
+        calculatorService.calculateSquareRoot(new BigDecimal("2"));
+        calculatorService.calculateSquareRoot(new BigDecimal("2.0"));
+        calculatorService.calculatePercentage(new BigDecimal("50"));
+        calculatorService.calculatePercentage(new BigDecimal("50"));
+
+        assertEquals(1, hits("sqrt"));
+        assertEquals(1, hits("percentage"));
+    }
+
+    @Test
+    void testCacheHitsAreTimed() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        calculatorService.bindTo(registry);
+
+        calculatorService.calculate(new BigDecimal("10"), new BigDecimal("4"), "/");
+        calculatorService.calculate(new BigDecimal("10"), new BigDecimal("4"), "/");
+        calculatorService.calculateSquareRoot(new BigDecimal("2"));
+        calculatorService.calculateSquareRoot(new BigDecimal("2"));
+
+        assertEquals(1, hits("/"));
+        assertEquals(2, registry.get(CalculatorService.OPERATION_TIMER)
+            .tags("operation", "/", "outcome", "success").timer().count());
+        assertEquals(2, registry.get(CalculatorService.OPERATION_TIMER)
+            .tags("operation", "sqrt", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void testErrorsAreNotCached() {
+        assertThrows(ArithmeticException.class,
+            () -> calculatorService.calculate(BigDecimal.ONE, BigDecimal.ZERO, "/"));
+        assertThrows(ArithmeticException.class,
+            () -> calculatorService.calculate(BigDecimal.ONE, BigDecimal.ZERO, "/"));
+        assertEquals(0, calculatorService.getCache().estimatedSize());
+    }
+
+    @Test
+    void testDisabledOperationsBypassCache() {
+        calculatorService.calculate(BigDecimal.ONE, BigDecimal.ONE, "+");
+        calculatorService.calculate(BigDecimal.ONE, BigDecimal.ONE, "+");
+
+        assertEquals(0, calculatorService.getCache().estimatedSize());
+    }
+
+    @Test
+    void testWeightBoundEvicts() {
+        CachingCalculatorService small = new CachingCalculatorService(10_000, Set.of("/"));
+        for (int i = 1; i <= 1000; i++) {
+            small.calculate(new BigDecimal(i), new BigDecimal("7"), "/");
+        }
+        small.getCache().cleanUp();
+
+        assertTrue(small.getCache().estimatedSize() < 100);
+        assertTrue((long) small.getStatistics().get("evictions") > 0);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.calculator.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.test.context.SpringBootTest;
 import java.math.BigDecimal;
 import static org.junit.jupiter.api.Assertions.*;
@@ -90,6 +92,12 @@ class CalculatorServiceTest {
         assertEquals(0, new BigDecimal("4.0").compareTo(result));
     }
 
+    @Test
+    void testSquareRootKeepsPrecision() {
+        BigDecimal result = calculatorService.calculateSquareRoot(new BigDecimal("2"));
+        assertEquals(new BigDecimal("1.414213562373095048801688724209698"), result);
+    }
+
     @Test
     void testSquareRootNegative() {
         assertThrows(ArithmeticException.class, () -> {
@@ -105,4 +113,47 @@ class CalculatorServiceTest {
         );
         assertEquals(0, new BigDecimal("8.0").compareTo(result));
     }
+
+    @Test
+    void testPowerIsExactForIntegerExponents() {
+        assertEquals(new BigDecimal("0.01"), calculatorService.calculatePower(new BigDecimal("0.1"), new BigDecimal("2")));
+        assertEquals(new BigDecimal("2.25"), calculatorService.calculatePower(new BigDecimal("1.5"), new BigDecimal("2")));
+    }
+
+    @Test
+    void testPowerWithFractionalExponent() {
+        BigDecimal result = calculatorService.calculatePower(new BigDecimal("2"), new BigDecimal("1.5"));
+        assertEquals(new BigDecimal("2.828427124746190097603377448419396"), result);
+    }
+
+    @Test
+    void testOperationMetricsAreTaggedByOutcome() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        calculatorService.bindTo(registry);
+
+        calculatorService.calculate(new BigDecimal("1"), new BigDecimal("2"), "+");
+        calculatorService.calculate(new BigDecimal("1"), new BigDecimal("2"), "+");
+        assertThrows(DivisionByZeroException.class, () ->
+            calculatorService.calculate(new BigDecimal("1"), BigDecimal.ZERO, "/"));
+        assertThrows(UnsupportedOperatorException.class, () ->
+            calculatorService.calculate(new BigDecimal("1"), new BigDecimal("2"), "%"));
+        assertThrows(ArithmeticException.class, () -> calculatorService.calculateSquareRoot(new BigDecimal("-1")));
+        calculatorService.calculateSquareRoot(new BigDecimal("4"));
+
+        assertEquals(2, timerCount(registry, "+", "success"));
+        assertEquals(1, timerCount(registry, "/", "divide_by_zero"));
+        assertEquals(1, timerCount(registry, "unsupported", "invalid_operator"));
+        assertEquals(1, timerCount(registry, "sqrt", "success"));
+        assertEquals(1, timerCount(registry, "sqrt", "error"));
+        // タイマーはあらかじめ登録されている
+        assertEquals(0, timerCount(registry, "power", "success"));
+    }
+
+    private long timerCount(MeterRegistry registry, String operation, String outcome) {
+        return registry.get(CalculatorService.OPERATION_TIMER)
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .timer()
+            .count();
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.calculator.service;
+
+import com.example.calculator.model.ExpressionResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionServiceTest {
+
+    private ExpressionService expressionService;
+
+    @BeforeEach
+    void setUp() {
+        expressionService = new ExpressionService();
+        ReflectionTestUtils.setField(expressionService, "calculatorService", new CalculatorService());
+        ReflectionTestUtils.setField(expressionService, "cacheSize", 2);
+    }
+
+    @Test
+    void testNormalizedExpressionIsCached() {
+        ExpressionResult first = expressionService.evaluate("1 + 2 × 3");
+        ExpressionResult second = expressionService.evaluate("1+2*3");
+
+        assertFalse(first.isCached());
+        assertTrue(second.isCached());
+        assertEquals(0, second.getParseNanos());
+        assertEquals(0, new BigDecimal("7").compareTo(second.getResult()));
+
+        Map<String, Object> stats = expressionService.getStatistics();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(0.5, stats.get("hitRate"));
+        assertEquals(1L, stats.get("parseCount"));
+        assertEquals(2L, stats.get("evalCount"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedExpressionIsEvicted() {
+        expressionService.evaluate("1+1");
+        expressionService.evaluate("2+2");
+        // 1+1 を使うと、次に追い出されるのは 2+2 になる
+        assertTrue(expressionService.evaluate("1+1").isCached());
+        expressionService.evaluate("3+3");
+
+        assertEquals(2, expressionService.getStatistics().get("cacheSize"));
+        assertEquals(2, expressionService.getStatistics().get("cacheCapacity"));
+        assertTrue(expressionService.evaluate("1+1").isCached());
+        assertTrue(expressionService.evaluate("3+3").isCached());
+        assertFalse(expressionService.evaluate("2+2").isCached());
+    }
+
+    @Test
+    void testCacheMetrics() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        expressionService.bindTo(registry);
+
+        expressionService.evaluate("4/2");
+        expressionService.evaluate("4/2");
+        expressionService.evaluate("4/2");
+
+        assertEquals(2.0, registry.get("calculator.expression.cache").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("calculator.expression.cache").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("calculator.expression.cache.size").gauge().value());
+        assertEquals(1L, registry.get("calculator.expression.phase").tag("phase", "parse").functionTimer().count());
+        assertEquals(3L, registry.get("calculator.expression.phase").tag("phase", "eval").functionTimer().count());
+    }
+
+    @Test
+    void testInvalidExpressionIsNotCached() {
+        assertThrows(IllegalArgumentException.class, () -> expressionService.evaluate("1+"));
+
+        assertEquals(0, expressionService.getStatistics().get("cacheSize"));
+        assertEquals(1L, expressionService.getStatistics().get("misses"));
+    }
+}
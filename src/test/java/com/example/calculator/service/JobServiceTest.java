@@ -0,0 +1,215 @@
+package com.example.calculator.service;
+
+import com.example.calculator.history.HistoryService;
+import com.example.calculator.model.CalculationRequest;
+import com.example.calculator.model.CalculationResult;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobServiceTest {
+
+    private BatchCalculationService batchCalculationService;
+    private JobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        batchCalculationService = new BatchCalculationService();
+        ReflectionTestUtils.setField(batchCalculationService, "calculatorService", new CalculatorService());
+        ReflectionTestUtils.setField(batchCalculationService, "historyService", new HistoryService());
+        ReflectionTestUtils.setField(batchCalculationService, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        batchCalculationService.init();
+
+        jobService = new JobService();
+        ReflectionTestUtils.setField(jobService, "batchCalculationService", batchCalculationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+        batchCalculationService.shutdown();
+    }
+
+    @Test
+    void testJobCompletesWithResultsInOrder() throws InterruptedException {
+        List<CalculationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(new CalculationRequest(new BigDecimal(i), new BigDecimal("3"), "+"));
+        }
+        requests.set(500, new CalculationRequest(BigDecimal.ONE, BigDecimal.ZERO, "/"));
+
+        CalculationJob job = jobService.submit(requests, 8);
+        awaitFinished(job);
+
+        assertEquals(CalculationJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1000, job.getCompleted());
+        assertEquals(1, job.getFailed());
+        assertEquals(0, jobService.getActiveJobs());
+
+        List<CalculationResult> results = job.getResults(0, 1000);
+        assertEquals(1000, results.size());
+        assertEquals(0, new BigDecimal("13").compareTo(results.get(10).getResult()));
+        assertFalse(results.get(500).isSuccess());
+        assertEquals("ゼロで割ることはできません", results.get(500).getError());
+    }
+
+    @Test
+    void testResultsCanBePaged() throws InterruptedException {
+        List<CalculationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(new CalculationRequest(new BigDecimal(i), BigDecimal.ONE, "*"));
+        }
+
+        CalculationJob job = jobService.submit(requests, null);
+        awaitFinished(job);
+
+        List<CalculationResult> page = job.getResults(90, 50);
+        assertEquals(10, page.size());
+        assertEquals(90, page.get(0).getIndex());
+        assertTrue(job.getResults(200, 10).isEmpty());
+    }
+
+    @Test
+    void testConcurrencyIsCapped() throws InterruptedException {
+        CalculationJob job = jobService.submit(
+            List.of(new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+")), 1000);
+        awaitFinished(job);
+
+        assertEquals(16, job.getConcurrency());
+    }
+
+    @Test
+    void testCancelStopsJob() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(batchCalculationService, "calculatorService", new CalculatorService() {
+            @Override
+            public BigDecimal calculate(BigDecimal firstNumber, BigDecimal secondNumber, String operation) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.calculate(firstNumber, secondNumber, operation);
+            }
+        });
+
+        List<CalculationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            requests.add(new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+"));
+        }
+        CalculationJob job = jobService.submit(requests, 1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertSame(job, jobService.cancel(job.getId()));
+        release.countDown();
+        awaitFinished(job);
+
+        assertEquals(CalculationJob.Status.CANCELLED, job.getStatus());
+        assertTrue(job.getCompleted() < 10000);
+        assertFalse(job.cancel());
+    }
+
+    @Test
+    void testInterruptedJobWaitsForRunningChunks() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(batchCalculationService, "calculatorService", new CalculatorService() {
+            @Override
+            public BigDecimal calculate(BigDecimal firstNumber, BigDecimal secondNumber, String operation) {
+                started.countDown();
+                // 割り込まれても release まで計算を続ける
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.calculate(firstNumber, secondNumber, operation);
+            }
+        });
+
+        List<CalculationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+"));
+        }
+        CalculationJob job = jobService.submit(requests, 1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // ジョブのスレッドに割り込んでも、実行中のチャンクが終わるまでは終了にしない
+        jobService.shutdown();
+        Thread.sleep(200);
+        assertFalse(job.isFinished());
+
+        release.countDown();
+        awaitFinished(job);
+        int completed = job.getCompleted();
+        Thread.sleep(50);
+
+        assertEquals(CalculationJob.Status.CANCELLED, job.getStatus());
+        assertEquals(completed, job.getCompleted());
+        assertTrue(completed < 1000);
+        assertEquals(0, jobService.getActiveJobs());
+    }
+
+    @Test
+    void testActiveJobLimit() {
+        ReflectionTestUtils.setField(jobService, "maxActiveJobs", 0);
+
+        assertThrows(IllegalStateException.class, () -> jobService.submit(
+            List.of(new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+")), null));
+        assertEquals(0, jobService.getActiveJobs());
+    }
+
+    @Test
+    void testEmptyAndOversizedJobsAreRejected() {
+        ReflectionTestUtils.setField(jobService, "maxJobSize", 2);
+
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(List.of(), null));
+        List<CalculationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(requests, null));
+    }
+
+    @Test
+    void testFinishedJobsExpire() throws InterruptedException {
+        CalculationJob job = jobService.submit(
+            List.of(new CalculationRequest(BigDecimal.ONE, BigDecimal.ONE, "+")), null);
+        awaitFinished(job);
+
+        jobService.evictExpired(Instant.now());
+        assertSame(job, jobService.getJob(job.getId()));
+
+        jobService.evictExpired(Instant.now().plus(Duration.ofHours(1)));
+        assertNull(jobService.getJob(job.getId()));
+    }
+
+    private static void awaitFinished(CalculationJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.isFinished()) {
+            assertTrue(System.nanoTime() < deadline, "ジョブが終了しませんでした");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.calculator.service;
+
+import com.example.calculator.history.HistoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingCalculationServiceTest {
+
+    private BatchCalculationService batchCalculationService;
+    private StreamingCalculationService streamingCalculationService;
+
+    @BeforeEach
+    void setUp() {
+        batchCalculationService = new BatchCalculationService();
+        ReflectionTestUtils.setField(batchCalculationService, "calculatorService", new CalculatorService());
+        ReflectionTestUtils.setField(batchCalculationService, "historyService", new HistoryService());
+        ReflectionTestUtils.setField(batchCalculationService, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        batchCalculationService.init();
+
+        streamingCalculationService = new StreamingCalculationService();
+        ReflectionTestUtils.setField(streamingCalculationService, "batchCalculationService", batchCalculationService);
+        ReflectionTestUtils.setField(streamingCalculationService, "objectMapper", new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchCalculationService.shutdown();
+    }
+
+    @Test
+    void testCsv() throws IOException {
+        String output = process("firstNumber,operation,secondNumber\r\n10,+,5\r\n\r\n1,/,0\n2, * ,3\nabc,+,1\n1,+\n",
+            StreamingCalculationService.Format.CSV);
+
+        assertEquals("index,result,error\n"
+            + "0,15,\n"
+            + "1,,\"ゼロで割ることはできません\"\n"
+            + "2,6,\n"
+            + "3,,\"数値の形式が正しくありません\"\n"
+            + "4,,\"列数が正しくありません（firstNumber,operation,secondNumber）\"\n", output);
+    }
+
+    @Test
+    void testNdjson() throws IOException {
+        String output = process("{\"firstNumber\":10,\"secondNumber\":4,\"operation\":\"-\"}\n"
+                + "{\"firstNumber\":1,\"secondNumber\":2,\"operation\":\"%\"}\n"
+                + "not json",
+            StreamingCalculationService.Format.NDJSON);
+
+        String[] lines = output.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"index\":0,\"success\":true,\"result\":6}", lines[0]);
+        assertTrue(lines[1].contains("\"success\":false"));
+        assertEquals("{\"index\":2,\"success\":false,\"error\":\"JSONの形式が正しくありません\"}", lines[2]);
+    }
+
+    @Test
+    void testOverlongLineIsRejectedWithoutBuffering() throws IOException {
+        String input = "1".repeat(StreamingCalculationService.MAX_LINE_LENGTH * 4) + ",+,1\n2,+,2\n";
+
+        String output = process(input, StreamingCalculationService.Format.CSV);
+
+        String[] lines = output.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith("0,,\"行が長すぎます"));
+        assertEquals("1,4,", lines[2]);
+    }
+
+    @Test
+    void testLinesAcrossReadBuffer() throws IOException {
+        // 読み込み用の配列（8192文字）の境界をまたぐ行とCRLFを含める
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder("index,result,error\n");
+        for (int i = 0; i < 3000; i++) {
+            input.append(i).append(",+,1\r\n");
+            expected.append(i).append(',').append(i + 1).append(",\n");
+        }
+        input.append("1,+,1");
+        expected.append("3000,2,\n");
+
+        assertEquals(expected.toString(), process(input.toString(), StreamingCalculationService.Format.CSV));
+    }
+
+    @Test
+    void testLargeInputIsStreamed() throws IOException {
+        int rows = 100_000;
+        InputStream input = new InputStream() {
+            private final byte[] row = "3,*,7\n".getBytes(StandardCharsets.US_ASCII);
+            private long position;
+
+            @Override
+            public int read() {
+                if (position >= (long) rows * row.length) {
+                    return -1;
+                }
+                return row[(int) (position++ % row.length)];
+            }
+        };
+        long[] bytes = new long[1];
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes[0] += len;
+            }
+        };
+
+        long processed = streamingCalculationService.process(input, output, StreamingCalculationService.Format.CSV);
+
+        assertEquals(rows, processed);
+        assertTrue(bytes[0] > rows * 4L);
+    }
+
+    private String process(String input, StreamingCalculationService.Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        streamingCalculationService.process(
+            new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output, format);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.calculator.stats;
+
+import com.example.calculator.service.CalculatorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsServiceTest {
+
+    private StatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        statisticsService = new StatisticsService();
+        ReflectionTestUtils.setField(statisticsService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(statisticsService, "maxSize", 1000);
+        ReflectionTestUtils.setField(statisticsService, "parallelism", 4);
+        statisticsService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statisticsService.shutdown();
+    }
+
+    private StatisticsResult compute(String json, StatisticsMode mode, BigDecimal... percentiles) throws IOException {
+        return statisticsService.compute(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), mode,
+            percentiles.length == 0 ? null : List.of(percentiles));
+    }
+
+    @Test
+    void testDecimalStatistics() throws IOException {
+        StatisticsResult result = compute("[1, 2.5, -0.25, 4, 10]", StatisticsMode.DECIMAL);
+
+        assertEquals(5, result.count());
+        assertEquals(new BigDecimal("17.25"), result.sum());
+        // 除算は CalculatorService と同じく小数点以下10桁に四捨五入する
+        assertEquals(new CalculatorService().calculate(new BigDecimal("17.25"), new BigDecimal("5"), "/"), result.mean());
+        assertEquals(new BigDecimal("3.4500000000"), result.mean());
+        assertEquals(new BigDecimal("12.7600000000"), result.variance());
+        assertEquals(new BigDecimal("15.9500000000"), result.sampleVariance());
+        assertEquals(new BigDecimal("3.5721142199"), result.standardDeviation());
+        assertEquals(new BigDecimal("-0.25"), result.min());
+        assertEquals(new BigDecimal("10.00"), result.max());
+        assertEquals(new BigDecimal("2.50"), result.median());
+        assertEquals(List.of("25", "50", "75", "90", "95", "99"), List.copyOf(result.percentiles().keySet()));
+    }
+
+    @Test
+    void testPercentilesInterpolateBetweenValues() throws IOException {
+        StatisticsResult decimal = compute("[4, 1, 3, 2]", StatisticsMode.DECIMAL,
+            BigDecimal.ZERO, new BigDecimal("25"), new BigDecimal("99.9"), new BigDecimal("100"));
+        StatisticsResult fromDouble = compute("[4, 1, 3, 2]", StatisticsMode.DOUBLE,
+            BigDecimal.ZERO, new BigDecimal("25"), new BigDecimal("99.9"), new BigDecimal("100"));
+
+        assertEquals(new BigDecimal("2.5"), decimal.median());
+        assertEquals(new BigDecimal("1"), decimal.percentiles().get("0"));
+        assertEquals(new BigDecimal("1.75"), decimal.percentiles().get("25"));
+        assertEquals(new BigDecimal("3.997"), decimal.percentiles().get("99.9"));
+        assertEquals(new BigDecimal("4"), decimal.percentiles().get("100"));
+
+        assertEquals(2.5, fromDouble.median());
+        assertEquals(1.75, fromDouble.percentiles().get("25").doubleValue());
+        assertEquals(3.997, fromDouble.percentiles().get("99.9").doubleValue(), 1e-12);
+        assertEquals(4.0, fromDouble.percentiles().get("100"));
+        assertNull(compute("[7]", StatisticsMode.DOUBLE).sampleVariance());
+    }
+
+    // 並列に集計した結果が、BigDecimalで1件ずつ計算した結果と一致すること
+    @Test
+    void testDecimalMatchesReference() {
+        Random random = new Random(42);
+        DecimalColumn column = new DecimalColumn();
+        BigDecimal[] reference = new BigDecimal[200_000];
+        for (int i = 0; i < reference.length; i++) {
+            // 大きな値を混ぜて128ビットの合計と192ビットの二乗和の繰り上がりを通す
+            // （スケール4に揃えたときにlongの上限近くになる値）
+            long unscaled;
+            int scale;
+            if (i % 1000 == 0) {
+                unscaled = (i % 2000 == 0 ? -1 : 1) * (Long.MAX_VALUE / 10_000 - random.nextInt(1000));
+                scale = 0;
+            } else {
+                unscaled = random.nextLong() % 10_000_000_000L;
+                scale = random.nextInt(5);
+            }
+            column.add(unscaled, scale);
+            reference[i] = BigDecimal.valueOf(unscaled, scale);
+        }
+
+        StatisticsResult result = statisticsService.compute(column, List.of(new BigDecimal("12.5")));
+
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal sumOfSquares = BigDecimal.ZERO;
+        for (BigDecimal value : reference) {
+            sum = sum.add(value);
+            sumOfSquares = sumOfSquares.add(value.multiply(value));
+        }
+        BigDecimal n = BigDecimal.valueOf(reference.length);
+        BigDecimal deviations = sumOfSquares.multiply(n).subtract(sum.multiply(sum));
+        Arrays.sort(reference);
+
+        assertEquals(0, sum.compareTo((BigDecimal) result.sum()));
+        assertEquals(sum.divide(n, 10, RoundingMode.HALF_UP), result.mean());
+        assertEquals(deviations.divide(n.multiply(n), 10, RoundingMode.HALF_UP), result.variance());
+        assertEquals(0, reference[0].compareTo((BigDecimal) result.min()));
+        assertEquals(0, reference[reference.length - 1].compareTo((BigDecimal) result.max()));
+        BigDecimal median = reference[99_999].add(reference[100_000]).divide(BigDecimal.valueOf(2));
+        assertEquals(0, median.compareTo((BigDecimal) result.median()));
+        // 位置 199999 × 0.125 = 24999.875
+        BigDecimal percentile = reference[24_999].add(
+            reference[25_000].subtract(reference[24_999]).multiply(new BigDecimal("0.875")));
+        assertEquals(0, percentile.compareTo((BigDecimal) result.percentiles().get("12.5")));
+    }
+
+    @Test
+    void testSumOfLargeValuesDoesNotOverflow() {
+        DecimalColumn column = new DecimalColumn();
+        for (int i = 0; i < 20_000; i++) {
+            column.add(i % 2 == 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1, 0);
+        }
+        column.add(Long.MAX_VALUE, 0);
+
+        StatisticsResult result = statisticsService.compute(column, List.of());
+
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE), result.sum());
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        // 平均は MAX/20001、分散は n·Σx² − (Σx)² = 20001·20001·MAX² − MAX²
+        BigDecimal expectedVariance = new BigDecimal(max.pow(2).multiply(BigInteger.valueOf(20001L * 20001 - 1)))
+            .divide(BigDecimal.valueOf(20001L * 20001), 10, RoundingMode.HALF_UP);
+        assertEquals(expectedVariance, result.variance());
+    }
+
+    // 補償加算では、大きな値に小さな値を繰り返し足しても失われない
+    @Test
+    void testDoubleSumIsCompensated() {
+        DoubleColumn column = new DoubleColumn();
+        column.add(1e16);
+        for (int i = 0; i < 100_000; i++) {
+            column.add(1.0);
+        }
+        column.add(-1e16);
+
+        StatisticsResult result = statisticsService.compute(column, List.of());
+
+        assertEquals(100_000.0, result.sum());
+
+        DoubleColumn cancelling = new DoubleColumn();
+        for (double value : new double[] {1.0, 1e100, 1.0, -1e100}) {
+            cancelling.add(value);
+        }
+        assertEquals(2.0, statisticsService.compute(cancelling, List.of()).sum());
+    }
+
+    // 平均が大きく分散が小さい場合も桁落ちしない
+    @Test
+    void testDoubleVarianceIsStable() {
+        DoubleColumn column = new DoubleColumn();
+        for (int i = 0; i < 1_000_000; i++) {
+            column.add(1e9 + new double[] {4, 7, 13, 16}[i % 4]);
+        }
+
+        StatisticsResult result = statisticsService.compute(column, List.of());
+
+        assertEquals(1e9 + 10, result.mean().doubleValue(), 1e-6);
+        assertEquals(22.5, result.variance().doubleValue(), 1e-6);
+        assertEquals(Math.sqrt(22.5), result.standardDeviation().doubleValue(), 1e-6);
+        assertEquals(1e9 + 4, result.min());
+        assertEquals(1e9 + 16, result.max());
+    }
+
+    @Test
+    void testReadsNumbersInAnyNotation() throws IOException {
+        StatisticsResult result = compute("[1e2, 2.50E-1, -3, 0.0001, 900719925474099]", StatisticsMode.DECIMAL);
+
+        assertEquals(new BigDecimal("900719925474196.2501"), result.sum());
+        assertEquals(new BigDecimal("900719925474099.0000"), result.max());
+    }
+
+    // スケールを揃えるとlongに収まらない値の組み合わせや、longに収まらない値も正確に集計する
+    @Test
+    void testValuesBeyondLongAreExact() throws IOException {
+        StatisticsResult mixed = compute("[2000000, 0.0000000000001, 3]", StatisticsMode.DECIMAL);
+        assertEquals(new BigDecimal("2000003.0000000000001"), mixed.sum());
+        assertEquals(new BigDecimal("0.0000000000001"), mixed.min());
+        assertEquals(new BigDecimal("2000000.0000000000000"), mixed.max());
+        assertEquals(new BigDecimal("3.0000000000"), mixed.median());
+        assertEquals(new BigDecimal("666667.6666666667"), mixed.mean());
+
+        StatisticsResult large = compute("[12345678901234567890, 1, 0.5, -12345678901234567890.25]",
+            StatisticsMode.DECIMAL, new BigDecimal("50"));
+        assertEquals(new BigDecimal("1.25"), large.sum());
+        assertEquals(new BigDecimal("-12345678901234567890.25"), large.min());
+        assertEquals(0, new BigDecimal("0.75").compareTo((BigDecimal) large.percentiles().get("50")));
+
+        // 途中で切り替わっても、切り替え前と後の値の結果は同じ
+        Random random = new Random(7);
+        DecimalColumn narrow = new DecimalColumn();
+        DecimalColumn wide = new DecimalColumn();
+        wide.add(new BigDecimal("1e25"));
+        for (int i = 0; i < 20_000; i++) {
+            long unscaled = random.nextInt(2_000_000) - 1_000_000;
+            narrow.add(unscaled, 3);
+            wide.add(unscaled, 3);
+        }
+        // 両端に加えた値は合計と中央値を変えない
+        wide.add(new BigDecimal("-1e25"));
+        assertFalse(narrow.isWide());
+        assertTrue(wide.isWide());
+        StatisticsResult expected = statisticsService.compute(narrow, List.of());
+        StatisticsResult actual = statisticsService.compute(wide, List.of());
+        assertEquals(0, ((BigDecimal) expected.sum()).compareTo((BigDecimal) actual.sum()));
+        assertEquals(0, ((BigDecimal) expected.median()).compareTo((BigDecimal) actual.median()));
+    }
+
+    @Test
+    void testInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> compute("{\"values\": [1]}", StatisticsMode.DECIMAL));
+        assertThrows(IllegalArgumentException.class, () -> compute("[1, \"2\"]", StatisticsMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class, () -> compute("[1, 2", StatisticsMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class, () -> compute("[]", StatisticsMode.DECIMAL));
+        assertThrows(IllegalArgumentException.class, () -> compute("[1e400]", StatisticsMode.DOUBLE));
+        assertThrows(IllegalArgumentException.class, () -> compute("[1]", StatisticsMode.DECIMAL, new BigDecimal("101")));
+        assertThrows(IllegalArgumentException.class, () -> StatisticsMode.of("float"));
+
+        IllegalArgumentException tooPrecise = assertThrows(IllegalArgumentException.class,
+            () -> compute("[1, 1e-31, 2]", StatisticsMode.DECIMAL));
+        assertEquals("decimalモードで扱える範囲（整数部30桁、小数点以下30桁）を超えています: 1E-31（doubleモードを使用してください）",
+            tooPrecise.getMessage());
+        IllegalArgumentException tooLarge = assertThrows(IllegalArgumentException.class,
+            () -> compute("[1e100000]", StatisticsMode.DECIMAL));
+        assertTrue(tooLarge.getMessage().endsWith(": 1E+100000（doubleモードを使用してください）"));
+        assertEquals(1e-31, assertDoesNotThrow(() -> compute("[1e-31]", StatisticsMode.DOUBLE)).sum());
+
+        String tooMany = "[" + "1,".repeat(1000) + "1]";
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> compute(tooMany, StatisticsMode.DOUBLE));
+        assertEquals("データ件数が上限(1000件)を超えています", e.getMessage());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.calculator.columnar;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * jdk.incubator.vector によるSIMD実装。
+ *
+ * ベクトル幅ごとにまとめて計算し、ゼロ除算やオーバーフローを含むレーンがあった場合だけ
+ * その範囲をスカラーで計算し直す。配列の端数もスカラーで計算する。
+ *
+ * このクラスだけを src/vector に置き、--add-modules jdk.incubator.vector を付けてコンパイルする。
+ * {@link ArithmeticKernels} はモジュールが有効な場合にリフレクションで読み込む。
+ */
+final class VectorArithmeticKernel implements ArithmeticKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void apply(String operation, double[] first, double[] second, double[] result, byte[] status, int length) {
+        ArithmeticKernels.checkLength(length, first.length, second.length, result.length, status.length);
+        VectorOperators.Binary operator = switch (operation) {
+            case "+" -> VectorOperators.ADD;
+            case "-" -> VectorOperators.SUB;
+            case "*" -> VectorOperators.MUL;
+            case "/" -> VectorOperators.DIV;
+            default -> throw ArithmeticKernels.unsupported(operation);
+        };
+        boolean division = operator == VectorOperators.DIV;
+
+        int bound = DOUBLES.loopBound(length);
+        Arrays.fill(status, 0, bound, ColumnarFormat.STATUS_OK);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector a = DoubleVector.fromArray(DOUBLES, first, i);
+            DoubleVector b = DoubleVector.fromArray(DOUBLES, second, i);
+            DoubleVector r = a.lanewise(operator, b);
+            boolean special = r.test(VectorOperators.IS_INFINITE).anyTrue()
+                || (division && b.compare(VectorOperators.EQ, 0.0).anyTrue());
+            if (special) {
+                applyScalar(operation, first, second, result, status, i, i + DOUBLES.length());
+            } else {
+                r.intoArray(result, i);
+            }
+        }
+        applyScalar(operation, first, second, result, status, i, length);
+    }
+
+    @Override
+    public void apply(String operation, long[] first, long[] second, long[] result, byte[] status, int length) {
+        ArithmeticKernels.checkLength(length, first.length, second.length, result.length, status.length);
+        if (!operation.equals("+") && !operation.equals("-") && !operation.equals("*")) {
+            throw ArithmeticKernels.unsupported(operation);
+        }
+
+        int bound = LONGS.loopBound(length);
+        Arrays.fill(status, 0, bound, ColumnarFormat.STATUS_OK);
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            LongVector a = LongVector.fromArray(LONGS, first, i);
+            LongVector b = LongVector.fromArray(LONGS, second, i);
+            LongVector r;
+            VectorMask<Long> overflow;
+            switch (operation) {
+                case "+" -> {
+                    r = a.add(b);
+                    overflow = a.lanewise(VectorOperators.XOR, r)
+                        .lanewise(VectorOperators.AND, b.lanewise(VectorOperators.XOR, r))
+                        .compare(VectorOperators.LT, 0L);
+                }
+                case "-" -> {
+                    r = a.sub(b);
+                    overflow = a.lanewise(VectorOperators.XOR, b)
+                        .lanewise(VectorOperators.AND, a.lanewise(VectorOperators.XOR, r))
+                        .compare(VectorOperators.LT, 0L);
+                }
+                default -> {
+                    // 絶対値のビット数の和が63以下なら積は必ずlongに収まる。それ以外のレーンはスカラーで正確に判定する
+                    overflow = significantBits(a).add(significantBits(b)).compare(VectorOperators.GT, 63L);
+                    r = a.mul(b);
+                }
+            }
+            if (overflow.anyTrue()) {
+                applyScalar(operation, first, second, result, status, i, i + LONGS.length());
+            } else {
+                r.intoArray(result, i);
+            }
+        }
+        applyScalar(operation, first, second, result, status, i, length);
+    }
+
+    @Override
+    public void percentage(double[] values, double[] result, int length) {
+        ArithmeticKernels.checkLength(length, values.length, result.length);
+        int bound = DOUBLES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, values, i).div(100.0).intoArray(result, i);
+        }
+        for (; i < length; i++) {
+            result[i] = values[i] / 100.0;
+        }
+    }
+
+    @Override
+    public void square(double[] values, double[] result, int length) {
+        ArithmeticKernels.checkLength(length, values.length, result.length);
+        int bound = DOUBLES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, values, i);
+            v.mul(v).intoArray(result, i);
+        }
+        for (; i < length; i++) {
+            result[i] = values[i] * values[i];
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + DOUBLES.length() + " lanes)";
+    }
+
+    // 絶対値のビット数。Long.MIN_VALUE は64になる
+    private static LongVector significantBits(LongVector v) {
+        return v.lanewise(VectorOperators.ABS).lanewise(VectorOperators.LEADING_ZEROS_COUNT).neg().add(64L);
+    }
+
+    private static void applyScalar(String operation, double[] first, double[] second, double[] result, byte[] status,
+                                    int from, int to) {
+        for (int i = from; i < to; i++) {
+            status[i] = switch (operation) {
+                case "+" -> ArithmeticKernels.checkOverflow(first[i], second[i], first[i] + second[i], result, i);
+                case "-" -> ArithmeticKernels.checkOverflow(first[i], second[i], first[i] - second[i], result, i);
+                case "*" -> ArithmeticKernels.checkOverflow(first[i], second[i], first[i] * second[i], result, i);
+                default -> ArithmeticKernels.divide(first[i], second[i], result, i);
+            };
+        }
+    }
+
+    private static void applyScalar(String operation, long[] first, long[] second, long[] result, byte[] status,
+                                    int from, int to) {
+        for (int i = from; i < to; i++) {
+            status[i] = switch (operation) {
+                case "+" -> ArithmeticKernels.add(first[i], second[i], result, i);
+                case "-" -> ArithmeticKernels.subtract(first[i], second[i], result, i);
+                default -> ArithmeticKernels.multiply(first[i], second[i], result, i);
+            };
+        }
+    }
+}